@@ -0,0 +1,99 @@
+"""
+Exports fraud_detection_pipeline.pkl into the JSON form read by the Java LocalFraudModel
+(finance 2/src/main/resources/model/fraud_model.json) and writes parity fixtures that the
+Java test suite checks against (finance 2/src/test/resources/model/parity_cases.csv).
+
+Run from this directory after retraining:  python export_model.py
+"""
+import csv
+import hashlib
+import json
+import os
+
+import joblib
+import numpy as np
+import pandas as pd
+import sklearn
+
+PIPELINE_PATH = "fraud_detection_pipeline.pkl"
+FINANCE_DIR = os.path.join("..", "..", "finance 2")
+MODEL_OUT = os.path.join(FINANCE_DIR, "src", "main", "resources", "model", "fraud_model.json")
+PARITY_OUT = os.path.join(FINANCE_DIR, "src", "test", "resources", "model", "parity_cases.csv")
+
+RAW_COLUMNS = ["type", "amount", "oldbalanceOrg", "newbalanceOrig", "oldbalanceDest", "newbalanceDest"]
+TYPES = ["CASH_IN", "CASH_OUT", "DEBIT", "PAYMENT", "TRANSFER"]
+
+
+def model_version(path):
+    with open(path, "rb") as f:
+        return hashlib.sha256(f.read()).hexdigest()[:12]
+
+
+def export_model(pipeline, version):
+    prep = pipeline.named_steps["prep"]
+    clf = pipeline.named_steps["clf"]
+    scaler = prep.named_transformers_["num"]
+    encoder = prep.named_transformers_["cat"]
+
+    numeric = list(prep.transformers_[0][2])
+    categories = [str(c) for c in encoder.categories_[0]]
+    dropped = [categories[i] for i in np.atleast_1d(encoder.drop_idx_)] if encoder.drop_idx_ is not None else []
+    encoded = [c for c in categories if c not in dropped]
+
+    coef = clf.coef_[0]
+    model = {
+        "format": "standard-scaler+one-hot+logistic-regression",
+        "version": version,
+        "numericFeatures": numeric,
+        "means": scaler.mean_.tolist(),
+        "scales": scaler.scale_.tolist(),
+        "numericWeights": coef[:len(numeric)].tolist(),
+        "typeWeights": {category: float(w) for category, w in zip(encoded, coef[len(numeric):])},
+        "droppedTypes": dropped,
+        "intercept": float(clf.intercept_[0]),
+        "threshold": 0.5,
+    }
+    os.makedirs(os.path.dirname(MODEL_OUT), exist_ok=True)
+    with open(MODEL_OUT, "w") as f:
+        json.dump(model, f, indent=2)
+        f.write("\n")
+
+
+def parity_cases(rng, count):
+    rows = []
+    for i in range(count):
+        tx_type = TYPES[i % len(TYPES)]
+        old_org = float(rng.choice([0.0, rng.uniform(0, 5e3), rng.uniform(0, 5e6)]))
+        amount = float(rng.choice([rng.uniform(0, old_org + 1), old_org, rng.uniform(0, 1e7)]))
+        drains = rng.random() < 0.3
+        new_orig = 0.0 if drains else max(old_org - amount, 0.0)
+        old_dest = float(rng.choice([0.0, rng.uniform(0, 1e4), rng.uniform(0, 2e7)]))
+        new_dest = old_dest + amount if rng.random() < 0.7 else old_dest
+        rows.append([tx_type, round(amount, 2), round(old_org, 2), round(new_orig, 2),
+                     round(old_dest, 2), round(new_dest, 2)])
+    return pd.DataFrame(rows, columns=RAW_COLUMNS)
+
+
+def export_parity(pipeline, version):
+    df = parity_cases(np.random.default_rng(42), 500)
+    df["frac_sent"] = df["amount"] / (df["oldbalanceOrg"] + 1e-6)
+    df["frac_received"] = df["amount"] / (df["oldbalanceDest"] + 1e-6)
+    probabilities = pipeline.predict_proba(df)[:, 1]
+    predictions = pipeline.predict(df)
+
+    os.makedirs(os.path.dirname(PARITY_OUT), exist_ok=True)
+    with open(PARITY_OUT, "w", newline="") as f:
+        # LocalFraudModelParityTest only trusts fixtures carrying this line, and checks the model version
+        f.write(f"# sklearn={sklearn.__version__} model={version}\n")
+        writer = csv.writer(f)
+        writer.writerow(RAW_COLUMNS + ["fraud_probability", "is_fraud"])
+        for row, probability, prediction in zip(df[RAW_COLUMNS].itertuples(index=False), probabilities, predictions):
+            writer.writerow(list(row) + [repr(float(probability)), int(prediction)])
+
+
+if __name__ == "__main__":
+    pipeline = joblib.load(PIPELINE_PATH)
+    version = model_version(PIPELINE_PATH)
+    export_model(pipeline, version)
+    export_parity(pipeline, version)
+    print(f"Exported model {version} to {MODEL_OUT} and parity cases to {PARITY_OUT}")
@@ -1,4 +1,5 @@
 from flask import Flask, request, jsonify
+import hashlib
 import joblib
 import pandas as pd
 import numpy as np
@@ -12,18 +13,37 @@ logger = logging.getLogger(__name__)
 app = Flask(__name__)
 CORS(app)  # Enable CORS for cross-origin requests
 
+MODEL_PATH = "fraud_detection_pipeline.pkl"
+# Both /predict and /predict/batch flag fraud above this probability, the same cut-off
+# model.predict applies, so micro-batching never changes a decision
+FRAUD_THRESHOLD = 0.5
+
 # Load the trained model
 try:
-    model = joblib.load("fraud_detection_pipeline.pkl")
-    logger.info("Model loaded successfully")
+    model = joblib.load(MODEL_PATH)
+    # Same hash export_model.py writes as the local model's version; clients key cached scores on it
+    with open(MODEL_PATH, "rb") as f:
+        model_version = hashlib.sha256(f.read()).hexdigest()[:12]
+    logger.info(f"Model {model_version} loaded successfully")
 except Exception as e:
     logger.error(f"Error loading model: {e}")
     model = None
+    model_version = None
 
 @app.route('/health', methods=['GET'])
 def health_check():
     """Health check endpoint"""
-    return jsonify({"status": "healthy", "model_loaded": model is not None})
+    return jsonify({"status": "healthy", "model_loaded": model is not None, "model_version": model_version})
+
+
+def prediction_result(fraud_probability):
+    """Verdict for one scored transaction, shared by the single and batch endpoints"""
+    return {
+        "is_fraud": bool(fraud_probability > FRAUD_THRESHOLD),
+        "fraud_probability": fraud_probability,
+        "confidence": "high" if fraud_probability > 0.8 or fraud_probability < 0.2 else "medium",
+        "model_version": model_version
+    }
 
 @app.route('/predict', methods=['POST'])
 def predict_fraud():
@@ -55,15 +75,8 @@ def predict_fraud():
         df['frac_received'] = df['amount'] / (df['oldbalanceDest'] + 1e-6)
         
         # Make prediction
-        prediction = model.predict(df)[0]
         probability = model.predict_proba(df)[0]
-        fraud_probability = float(probability[1])
-        
-        result = {
-            "is_fraud": bool(prediction),
-            "fraud_probability": fraud_probability,
-            "confidence": "high" if fraud_probability > 0.8 or fraud_probability < 0.2 else "medium"
-        }
+        result = prediction_result(float(probability[1]))
         
         logger.info(f"Prediction made: {result}")
         return jsonify(result)
@@ -88,50 +101,65 @@ def predict_fraud_batch():
             return jsonify({"error": "No transactions provided"}), 400
 
         transactions = data['transactions']
-        results = []
-        THRESHOLD = 0.8  # Only classify as fraud if probability > 80%
-
+        results = [None] * len(transactions)
+        required_fields = [
+            'type', 'amount', 'oldbalanceOrg', 'newbalanceOrig',
+            'oldbalanceDest', 'newbalanceDest'
+        ]
+
+        # Validate every row first so the model runs once over a single DataFrame
+        rows = []
+        row_indices = []
         for i, transaction in enumerate(transactions):
+            missing_fields = [f for f in required_fields if f not in transaction]
+            if missing_fields:
+                results[i] = {
+                    "index": i,
+                    "error": f"Missing required fields: {missing_fields}"
+                }
+                continue
             try:
-                required_fields = [
-                    'type', 'amount', 'oldbalanceOrg', 'newbalanceOrig',
-                    'oldbalanceDest', 'newbalanceDest'
-                ]
-                missing_fields = [f for f in required_fields if f not in transaction]
-                if missing_fields:
-                    results.append({
-                        "index": i,
-                        "error": f"Missing required fields: {missing_fields}"
-                    })
-                    continue
-
-                df = pd.DataFrame([{
+                rows.append({
                     'type': transaction['type'],
                     'amount': float(transaction['amount']),
                     'oldbalanceOrg': float(transaction['oldbalanceOrg']),
                     'newbalanceOrig': float(transaction['newbalanceOrig']),
                     'oldbalanceDest': float(transaction['oldbalanceDest']),
                     'newbalanceDest': float(transaction['newbalanceDest'])
-                }])
-
-                prob = model.predict_proba(df)[0]
-                fraud_probability = float(prob[1])
-                is_fraud = fraud_probability > THRESHOLD
-
-                results.append({
-                    "index": i,
-                    "is_fraud": bool(is_fraud),
-                    "fraud_probability": fraud_probability,
-                    "confidence": "high" if fraud_probability > 0.8 or fraud_probability < 0.2 else "medium"
                 })
-
-            except Exception as e:
-                results.append({
+                row_indices.append(i)
+            except (TypeError, ValueError) as e:
+                results[i] = {
                     "index": i,
                     "error": str(e)
-                })
+                }
+
+        if rows:
+            df = pd.DataFrame(rows)
+            df['frac_sent'] = df['amount'] / (df['oldbalanceOrg'] + 1e-6)
+            df['frac_received'] = df['amount'] / (df['oldbalanceDest'] + 1e-6)
+
+            try:
+                probabilities = list(model.predict_proba(df)[:, 1])
+            except Exception:
+                # One bad row (e.g. an unknown type) fails the whole frame; fall back to per-row scoring
+                probabilities = []
+                for position in range(len(df)):
+                    try:
+                        probabilities.append(model.predict_proba(df.iloc[[position]])[0][1])
+                    except Exception as e:
+                        probabilities.append(e)
+
+            for i, prob in zip(row_indices, probabilities):
+                if isinstance(prob, Exception):
+                    results[i] = {
+                        "index": i,
+                        "error": str(prob)
+                    }
+                    continue
+                results[i] = {"index": i, **prediction_result(float(prob))}
 
-        return jsonify({"results": results})
+        return jsonify({"results": results, "model_version": model_version})
 
     except Exception as e:
         logger.error(f"Batch prediction error: {e}")
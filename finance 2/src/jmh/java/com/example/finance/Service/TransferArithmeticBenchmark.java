@@ -0,0 +1,71 @@
+package com.example.finance.Service;
+
+import com.example.finance.entity.Type;
+import com.example.finance.scoring.LocalFraudModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory part of {@code TransactionService.attemptTransaction}: the balance check and the
+ * scoring request built from the new balances, the block/review decision on the verdict, and the
+ * local scorer's feature extraction. Calls the package-private helpers those paths use, so it
+ * lives in their package. Balances carry two decimals, as they come back from the {@code numeric}
+ * columns.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransferArithmeticBenchmark {
+
+    private BigDecimal senderBalance;
+    private BigDecimal receiverBalance;
+    private BigDecimal amount;
+    private FraudDetectionService.FraudPredictionRequest request;
+    private FraudDetectionService.FraudPredictionResponse verdict;
+    private double[] features;
+
+    @Setup
+    public void setUp() {
+        senderBalance = new BigDecimal("21249.00");
+        receiverBalance = new BigDecimal("5083.17");
+        amount = new BigDecimal("1864.28");
+        request = TransactionService.scoringRequest(Type.TRANSFER, amount, senderBalance, receiverBalance);
+        verdict = new FraudDetectionService.FraudPredictionResponse();
+        verdict.setFraud(true);
+        verdict.setFraudProbability(0.74);
+        features = new double[LocalFraudModel.FEATURE_COUNT];
+    }
+
+    @Benchmark
+    public FraudDetectionService.FraudPredictionRequest scoringRequest() {
+        return TransactionService.scoringRequest(Type.TRANSFER, amount, senderBalance, receiverBalance);
+    }
+
+    @Benchmark
+    public void scoringRequestAndDecision(Blackhole blackhole) {
+        blackhole.consume(TransactionService.scoringRequest(Type.TRANSFER, amount, senderBalance, receiverBalance));
+        blackhole.consume(TransactionService.shouldBlock(verdict));
+        blackhole.consume(TransactionService.requiresManualReview(verdict));
+    }
+
+    @Benchmark
+    public double[] scoringFeatures() {
+        FraudDetectionService.fillFeatures(request, features);
+        return features;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.finance.benchmark;
+
+import com.example.finance.dto.AnomalyDTO;
+import com.example.finance.dto.AnomalyDTOMapper;
+import com.example.finance.entity.Anomaly;
+import com.example.finance.entity.Role;
+import com.example.finance.entity.Transaction;
+import com.example.finance.entity.Type;
+import com.example.finance.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping used when anomalies are listed from loaded entities.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnomalyDTOMapperBenchmark {
+
+    private AnomalyDTOMapper mapper;
+    private Anomaly anomaly;
+
+    @Setup
+    public void setUp() {
+        mapper = new AnomalyDTOMapper();
+        User user = User.builder()
+                .id(42L)
+                .email("alice@example.com")
+                .username("alice")
+                .role(Role.USER)
+                .balance(new BigDecimal("1200.00"))
+                .build();
+        Transaction transaction = Transaction.builder()
+                .id(1001L)
+                .sender(user)
+                .amount(new BigDecimal("950.00"))
+                .type(Type.TRANSFER)
+                .description("rent")
+                .timestamp(new Timestamp(System.currentTimeMillis()))
+                .build();
+        anomaly = Anomaly.builder()
+                .id(7L)
+                .user(user)
+                .transaction(transaction)
+                .anomalyType("HIGH_FRAUD_PROBABILITY")
+                .score(0.82)
+                .description("Fraud probability 0.8200 (confidence medium)")
+                .detectedAt(new Timestamp(System.currentTimeMillis()))
+                .resolved(false)
+                .build();
+    }
+
+    @Benchmark
+    public AnomalyDTO apply() {
+        return mapper.apply(anomaly);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.finance.benchmark;
+
+import com.example.finance.Service.FraudDetectionService.FraudBatchPredictionRequest;
+import com.example.finance.Service.FraudDetectionService.FraudBatchPredictionResponse;
+import com.example.finance.Service.FraudDetectionService.FraudPredictionRequest;
+import com.example.finance.Service.FraudDetectionService.FraudPredictionResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON work the scoring client does around every call to the Python service: writing the
+ * {@code /predict} and {@code /predict/batch} payloads and reading their responses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FraudClientBenchmark {
+
+    @Param({"32"})
+    int batchSize;
+
+    private ObjectMapper objectMapper;
+    private FraudPredictionRequest request;
+    private FraudBatchPredictionRequest batchRequest;
+    private String responseBody;
+    private String batchResponseBody;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Configured the way Spring Boot configures the application's mapper
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        request = request(0);
+        List<FraudPredictionRequest> requests = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            requests.add(request(i));
+        }
+        batchRequest = new FraudBatchPredictionRequest();
+        batchRequest.setTransactions(requests);
+
+        responseBody = "{\"is_fraud\": false, \"fraud_probability\": 0.0132, \"confidence\": \"high\"}";
+        StringBuilder batch = new StringBuilder("{\"results\": [");
+        for (int i = 0; i < batchSize; i++) {
+            batch.append(i == 0 ? "" : ", ").append(responseBody);
+        }
+        batchResponseBody = batch.append("]}").toString();
+    }
+
+    @Benchmark
+    public String serializeRequest() throws Exception {
+        return objectMapper.writeValueAsString(request);
+    }
+
+    @Benchmark
+    public FraudPredictionResponse parseResponse() throws Exception {
+        return objectMapper.readValue(responseBody, FraudPredictionResponse.class);
+    }
+
+    @Benchmark
+    public String serializeBatchRequest() throws Exception {
+        return objectMapper.writeValueAsString(batchRequest);
+    }
+
+    @Benchmark
+    public FraudBatchPredictionResponse parseBatchResponse() throws Exception {
+        return objectMapper.readValue(batchResponseBody, FraudBatchPredictionResponse.class);
+    }
+
+    private static FraudPredictionRequest request(int i) {
+        BigDecimal amount = new BigDecimal("1864.28").add(BigDecimal.valueOf(i));
+        BigDecimal senderBalance = new BigDecimal("21249.00");
+        BigDecimal receiverBalance = new BigDecimal("5083.00");
+        FraudPredictionRequest request = new FraudPredictionRequest();
+        request.setType("TRANSFER");
+        request.setAmount(amount);
+        request.setOldbalanceOrg(senderBalance);
+        request.setNewbalanceOrig(senderBalance.subtract(amount));
+        request.setOldbalanceDest(receiverBalance);
+        request.setNewbalanceDest(receiverBalance.add(amount));
+        request.setSenderCount1h(3);
+        request.setSenderAmount1h(4210.5);
+        request.setSenderCount24h(11);
+        request.setSenderAmount24h(18022.75);
+        request.setReceiverCount24h(2);
+        request.setReceiverAmount24h(950.0);
+        return request;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.finance.benchmark;
+
+import com.example.finance.config.JwtService;
+import com.example.finance.config.TokenDenyList;
+import com.example.finance.entity.Role;
+import com.example.finance.entity.User;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and the per-request validation done by {@code JwtAuthFilter}, with and without the
+ * verified-token cache in front of the HMAC check.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private JwtService cachingJwtService;
+    private JwtService uncachedJwtService;
+    private User user;
+    private String token;
+    private Claims claims;
+
+    @Setup
+    public void setUp() {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        String secretKey = Base64.getEncoder().encodeToString(secret);
+        cachingJwtService = jwtService(secretKey, 10_000);
+        // A cache bound of zero means every validation parses and verifies the token
+        uncachedJwtService = jwtService(secretKey, 0);
+
+        user = User.builder()
+                .id(42L)
+                .email("alice@example.com")
+                .username("alice")
+                .role(Role.USER)
+                .balance(BigDecimal.ZERO)
+                .build();
+        token = cachingJwtService.generateToken(user);
+        claims = cachingJwtService.validateToken(token).orElseThrow();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachingJwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public Optional<Claims> validateCached() {
+        return cachingJwtService.validateToken(token);
+    }
+
+    @Benchmark
+    public Optional<Claims> validateUncached() {
+        return uncachedJwtService.validateToken(token);
+    }
+
+    @Benchmark
+    public Object toPrincipal() {
+        return cachingJwtService.toPrincipal(claims);
+    }
+
+    private static JwtService jwtService(String secretKey, int cacheMaxEntries) {
+        TokenDenyList tokenDenyList = new TokenDenyList();
+        ReflectionTestUtils.setField(tokenDenyList, "maxEntries", 100_000);
+        JwtService jwtService = new JwtService(tokenDenyList);
+        ReflectionTestUtils.setField(jwtService, "secretKey", secretKey);
+        ReflectionTestUtils.setField(jwtService, "cacheMaxEntries", cacheMaxEntries);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+        return jwtService;
+    }
+}
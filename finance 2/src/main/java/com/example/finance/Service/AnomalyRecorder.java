@@ -0,0 +1,188 @@
+package com.example.finance.Service;
+
+import com.example.finance.entity.Anomaly;
+import com.example.finance.entity.Transaction;
+import com.example.finance.repository.AnomalyRepository;
+import com.example.finance.repository.TransactionRepository;
+import com.example.finance.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind recorder for flagged transactions.
+ * <p>
+ * The transfer path only offers a small record to a bounded queue; a background flusher turns
+ * queued records into {@link Anomaly} rows and inserts them in batches. When the queue is full
+ * the record is dropped and counted rather than making the caller wait. On shutdown the queue
+ * is flushed before the data source goes away.
+ */
+@Service
+@Slf4j
+public class AnomalyRecorder {
+
+    public static final String FRAUD_PREDICTED = "FRAUD_PREDICTED";
+    public static final String HIGH_FRAUD_PROBABILITY = "HIGH_FRAUD_PROBABILITY";
+
+    private final AnomalyRepository anomalyRepository;
+    private final UserRepository userRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${anomaly.recorder.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${anomaly.recorder.batch-size:100}")
+    private int batchSize;
+
+    @Value("${anomaly.recorder.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    @Value("${anomaly.recorder.shutdown-timeout-seconds:30}")
+    private long shutdownTimeoutSeconds;
+
+    private record Flagged(Long transactionId, Long userId, String anomalyType, Double score,
+                           String description, Timestamp detectedAt) {
+    }
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder flushed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private BlockingQueue<Flagged> queue;
+    private Thread flusher;
+    private volatile boolean running;
+
+    public AnomalyRecorder(AnomalyRepository anomalyRepository,
+                           UserRepository userRepository,
+                           TransactionRepository transactionRepository,
+                           PlatformTransactionManager transactionManager) {
+        this.anomalyRepository = anomalyRepository;
+        this.userRepository = userRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        flusher = Thread.ofPlatform().daemon().name("anomaly-recorder").start(this::flushLoop);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(shutdownTimeoutSeconds));
+        // Whatever the flusher did not get to is written from the shutdown thread
+        List<Flagged> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            flush(remaining.subList(from, Math.min(remaining.size(), from + batchSize)));
+        }
+        log.info("Anomaly recorder stopped: {} recorded, {} flushed, {} dropped, {} failed",
+                recorded.sum(), flushed.sum(), dropped.sum(), failed.sum());
+    }
+
+    /**
+     * Queues an anomaly for a committed, flagged transaction. Never blocks.
+     */
+    public void record(Transaction transaction, FraudDetectionService.FraudPredictionResponse fraudResult) {
+        record(transaction.getId(),
+                transaction.getSender().getId(),
+                fraudResult.isFraud() ? FRAUD_PREDICTED : HIGH_FRAUD_PROBABILITY,
+                fraudResult.getFraudProbability(),
+                String.format("Fraud probability %.4f (confidence %s)",
+                        fraudResult.getFraudProbability(), fraudResult.getConfidence()));
+    }
+
+    /**
+     * Queues an anomaly against {@code userId} for a committed transaction. Never blocks.
+     */
+    public void record(Long transactionId, Long userId, String anomalyType, double score, String description) {
+        Flagged flagged = new Flagged(transactionId, userId, anomalyType, score, description,
+                new Timestamp(System.currentTimeMillis()));
+        if (!running || !queue.offer(flagged)) {
+            dropped.increment();
+            return;
+        }
+        recorded.increment();
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    public long getRecorded() {
+        return recorded.sum();
+    }
+
+    public long getFlushed() {
+        return flushed.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    private void flushLoop() {
+        List<Flagged> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Flagged first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Flagged> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Anomaly> anomalies = new ArrayList<>(batch.size());
+                for (Flagged flagged : batch) {
+                    anomalies.add(Anomaly.builder()
+                            .transaction(transactionRepository.getReferenceById(flagged.transactionId()))
+                            .user(userRepository.getReferenceById(flagged.userId()))
+                            .anomalyType(flagged.anomalyType())
+                            .score(flagged.score())
+                            .description(flagged.description())
+                            .detectedAt(flagged.detectedAt())
+                            .resolved(false)
+                            .build());
+                }
+                anomalyRepository.saveAll(anomalies);
+            });
+            flushed.add(batch.size());
+        } catch (RuntimeException e) {
+            failed.add(batch.size());
+            log.error("Failed to write {} anomalies: {}", batch.size(), e.getMessage(), e);
+        }
+    }
+}
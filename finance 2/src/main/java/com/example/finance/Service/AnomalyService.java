@@ -1,52 +1,56 @@
 package com.example.finance.Service;
 
 import com.example.finance.dto.AnomalyDTO;
-import com.example.finance.dto.AnomalyDTOMapper;
-import com.example.finance.entity.Anomaly;
-import com.example.finance.entity.Transaction;
-import com.example.finance.entity.User;
+import com.example.finance.dto.AnomalyPage;
 import com.example.finance.repository.AnomalyRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class AnomalyService {
 
     private final AnomalyRepository anomalyRepository;
-    private final AnomalyDTOMapper anomalyDTOMapper;
 
+    @Value("${anomaly.page.default-size:50}")
+    private int defaultPageSize;
 
-
-    public List<AnomalyDTO> getAnomalies() {
-        return anomalyRepository.findAll()
-                .stream()
-                .map(anomalyDTOMapper::apply)
-                .toList();
-    }
+    @Value("${anomaly.page.max-size:500}")
+    private int maxPageSize;
 
     public AnomalyDTO getAnomalyById(Long id) {
-        Anomaly anomaly = anomalyRepository.findById(id)
+        return anomalyRepository.findProjectedById(id)
                 .orElseThrow(() -> new NoSuchElementException("Anomaly not found with id: " + id));
-        return anomalyDTOMapper.apply(anomaly);
-    }
-
-    public List<AnomalyDTO> getAnomaliesByUser(User user){
-        return anomalyRepository.findByUser(user)
-                .stream()
-                .map(anomalyDTOMapper::apply)
-                .toList();
     }
 
-    public List<AnomalyDTO> getAnomaliesByTransaction(Transaction transaction){
-        return anomalyRepository.findByTransaction(transaction)
-                .stream()
-                .map(anomalyDTOMapper::apply)
-                .toList();
+    /**
+     * Keyset-paginated anomalies, newest first. Pass the previous page's {@code nextCursor}
+     * as {@code cursor} to continue; a null {@code nextCursor} means there is nothing more.
+     */
+    public AnomalyPage findAnomalies(Long userId, Boolean resolved, Instant detectedFrom, Instant detectedTo,
+                                     Long cursor, Integer limit) {
+        int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        // One extra row tells us whether another page exists without a count query
+        List<AnomalyDTO> rows = anomalyRepository.findPage(
+                userId,
+                resolved,
+                detectedFrom == null ? null : Timestamp.from(detectedFrom),
+                detectedTo == null ? null : Timestamp.from(detectedTo),
+                cursor,
+                pageSize + 1
+        );
+        boolean hasMore = rows.size() > pageSize;
+        List<AnomalyDTO> items = hasMore ? rows.subList(0, pageSize) : rows;
+        return AnomalyPage.builder()
+                .items(items)
+                .nextCursor(hasMore ? items.get(items.size() - 1).getId() : null)
+                .build();
     }
 
 }
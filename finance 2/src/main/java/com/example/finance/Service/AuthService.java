@@ -61,4 +61,13 @@ public class AuthService {
         String jwtToken = jwtService.generateToken(user);
         return new AuthResponse(jwtToken);
     }
+
+    /**
+     * Revokes the given token so it is rejected for the rest of its lifetime.
+     *
+     * @return false if the token could not be revoked and will stay usable until it expires
+     */
+    public boolean logout(String token) {
+        return jwtService.revokeToken(token);
+    }
 }
@@ -0,0 +1,255 @@
+package com.example.finance.Service;
+
+import com.example.finance.dto.BatchTransactionResponse;
+import com.example.finance.dto.BatchTransactionResponse.ItemResult;
+import com.example.finance.dto.TransactionRequest;
+import com.example.finance.entity.Transaction;
+import com.example.finance.scoring.VelocityStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Processes many transactions in one request, for settlement files and other bulk loads.
+ * <p>
+ * Requests are handled in chunks. Each chunk is planned against a balance snapshot (transfers
+ * applied in order), scored with a single batched scorer call, and committed in one short
+ * transaction with JDBC batch inserts. Every item gets its own success or failure result.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkTransactionService {
+
+    private final LedgerService ledgerService;
+    private final FraudDetectionService fraudDetectionService;
+    private final LedgerStats ledgerStats;
+    private final AnomalyRecorder anomalyRecorder;
+    private final VelocityStore velocityStore;
+    private final GraphAnomalyDetector graphAnomalyDetector;
+    private final TransferMetrics transferMetrics;
+
+    @Value("${transaction.batch.max-items:1000}")
+    private int maxItems;
+
+    @Value("${transaction.batch.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${transaction.conflict.max-attempts:3}")
+    private int maxConflictAttempts;
+
+    private record Plan(
+            Map<Integer, LedgerService.PlannedTransfer> transfers,
+            Map<Integer, FraudDetectionService.FraudPredictionRequest> scoringRequests,
+            Map<Integer, String> failures,
+            Map<Long, BigDecimal> expectedBalances
+    ) {
+    }
+
+    /**
+     * Largest batch {@link #createTransactions} should be given; the controller rejects bigger ones with 413.
+     */
+    public int getMaxItems() {
+        return maxItems;
+    }
+
+    public BatchTransactionResponse createTransactions(List<TransactionRequest> requests) {
+        ItemResult[] results = new ItemResult[requests.size()];
+        for (int from = 0; from < requests.size(); from += chunkSize) {
+            processChunk(requests, from, Math.min(from + chunkSize, requests.size()), results);
+        }
+
+        int succeeded = (int) Arrays.stream(results).filter(ItemResult::isSuccess).count();
+        return BatchTransactionResponse.builder()
+                .submitted(requests.size())
+                .succeeded(succeeded)
+                .failed(requests.size() - succeeded)
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    private void processChunk(List<TransactionRequest> requests, int from, int to, ItemResult[] results) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                attemptChunk(requests, from, to, results);
+                return;
+            } catch (LedgerService.BalanceConflictException | PessimisticLockingFailureException e) {
+                if (attempt >= maxConflictAttempts) {
+                    ledgerStats.recordExhaustedRetries();
+                    for (int i = from; i < to; i++) {
+                        results[i] = failure(i, "Transaction conflict: " + e.getMessage());
+                    }
+                    return;
+                }
+                if (e instanceof LedgerService.BalanceConflictException) {
+                    ledgerStats.recordConflictRetry();
+                } else {
+                    ledgerStats.recordLockFailureRetry();
+                }
+                log.info("Conflict committing batch items {}-{}, retrying ({}/{})", from, to - 1, attempt, maxConflictAttempts);
+            }
+        }
+    }
+
+    private void attemptChunk(List<TransactionRequest> requests, int from, int to, ItemResult[] results) {
+        Set<String> emails = new HashSet<>();
+        for (int i = from; i < to; i++) {
+            TransactionRequest request = requests.get(i);
+            if (request.getSenderEmail() != null) {
+                emails.add(request.getSenderEmail());
+            }
+            if (request.getReceiverEmail() != null) {
+                emails.add(request.getReceiverEmail());
+            }
+        }
+        Map<String, LedgerService.AccountSnapshot> accounts = ledgerService.snapshotAccounts(emails);
+
+        // Blocking an item changes the balances every later item on the same accounts sees, so
+        // re-plan and re-score the items whose features changed until no new item gets blocked.
+        Set<Integer> blocked = new HashSet<>();
+        Map<Integer, FraudDetectionService.FraudPredictionRequest> scoredRequests = new HashMap<>();
+        Map<Integer, FraudDetectionService.FraudPredictionResponse> scores = new HashMap<>();
+        Plan plan;
+        while (true) {
+            plan = plan(requests, from, to, accounts, blocked);
+
+            List<Integer> toScore = new ArrayList<>();
+            for (Map.Entry<Integer, FraudDetectionService.FraudPredictionRequest> entry : plan.scoringRequests().entrySet()) {
+                if (!entry.getValue().equals(scoredRequests.get(entry.getKey()))) {
+                    toScore.add(entry.getKey());
+                }
+            }
+            if (!toScore.isEmpty()) {
+                List<FraudDetectionService.FraudPredictionRequest> batch = new ArrayList<>(toScore.size());
+                for (Integer index : toScore) {
+                    batch.add(plan.scoringRequests().get(index));
+                }
+                List<FraudDetectionService.FraudPredictionResponse> responses = fraudDetectionService.checkFraudBatch(batch);
+                for (int i = 0; i < toScore.size(); i++) {
+                    scoredRequests.put(toScore.get(i), batch.get(i));
+                    scores.put(toScore.get(i), responses.get(i));
+                }
+            }
+
+            boolean newlyBlocked = false;
+            for (Integer index : plan.transfers().keySet()) {
+                if (TransactionService.shouldBlock(scores.get(index))) {
+                    newlyBlocked |= blocked.add(index);
+                }
+            }
+            if (!newlyBlocked) {
+                break;
+            }
+        }
+
+        List<Integer> indices = new ArrayList<>(plan.transfers().keySet());
+        List<Transaction> saved = List.of();
+        if (!indices.isEmpty()) {
+            long commitStart = System.nanoTime();
+            saved = ledgerService.commitBatch(plan.expectedBalances(), new ArrayList<>(plan.transfers().values()));
+            transferMetrics.recordStage(TransferMetrics.STAGE_BATCH_COMMIT, System.nanoTime() - commitStart);
+        }
+        // Counted only once the chunk has committed, so conflict retries do not count twice
+        for (int i = 0; i < blocked.size(); i++) {
+            transferMetrics.recordDecision(true, true);
+        }
+
+        for (int i = 0; i < indices.size(); i++) {
+            int index = indices.get(i);
+            TransactionService.recordVelocity(velocityStore, saved.get(i));
+            graphAnomalyDetector.onCommitted(saved.get(i));
+            boolean requiresManualReview = TransactionService.requiresManualReview(scores.get(index));
+            transferMetrics.recordDecision(false, requiresManualReview);
+            if (requiresManualReview) {
+                anomalyRecorder.record(saved.get(i), scores.get(index));
+            }
+            results[index] = ItemResult.builder()
+                    .index(index)
+                    .success(true)
+                    .transaction(TransactionService.toResponse(saved.get(i), scores.get(index)))
+                    .build();
+        }
+        for (Map.Entry<Integer, String> failure : plan.failures().entrySet()) {
+            results[failure.getKey()] = failure(failure.getKey(), failure.getValue());
+        }
+    }
+
+    /**
+     * Walks the chunk in order against running balances, skipping invalid and blocked items.
+     */
+    private Plan plan(List<TransactionRequest> requests, int from, int to,
+                      Map<String, LedgerService.AccountSnapshot> accounts, Set<Integer> blocked) {
+        Map<String, BigDecimal> balances = new HashMap<>();
+        Map<Integer, LedgerService.PlannedTransfer> transfers = new LinkedHashMap<>();
+        Map<Integer, FraudDetectionService.FraudPredictionRequest> scoringRequests = new HashMap<>();
+        Map<Integer, String> failures = new HashMap<>();
+        Map<Long, BigDecimal> expectedBalances = new HashMap<>();
+
+        for (int i = from; i < to; i++) {
+            TransactionRequest request = requests.get(i);
+            LedgerService.AccountSnapshot sender = accounts.get(request.getSenderEmail());
+            LedgerService.AccountSnapshot receiver = accounts.get(request.getReceiverEmail());
+
+            String error = null;
+            if (blocked.contains(i)) {
+                error = "Transaction blocked due to fraud detection";
+            } else if (sender == null) {
+                error = "Sender not found";
+            } else if (receiver == null) {
+                error = "Receiver not found";
+            } else if (sender.id().equals(receiver.id())) {
+                error = "Sender and receiver must be different";
+            } else if (request.getType() == null) {
+                error = "Transaction type is required";
+            } else if (request.getAmount() == null || request.getAmount().signum() <= 0) {
+                error = "Amount must be positive";
+            }
+            if (error != null) {
+                failures.put(i, error);
+                continue;
+            }
+
+            BigDecimal oldBalanceSender = balances.getOrDefault(sender.email(), sender.balance());
+            BigDecimal oldBalanceReceiver = balances.getOrDefault(receiver.email(), receiver.balance());
+            BigDecimal amount = request.getAmount();
+            if (oldBalanceSender.compareTo(amount) < 0) {
+                failures.put(i, "Insufficient balance");
+                continue;
+            }
+            BigDecimal newBalanceSender = oldBalanceSender.subtract(amount);
+            BigDecimal newBalanceReceiver = oldBalanceReceiver.add(amount);
+            balances.put(sender.email(), newBalanceSender);
+            balances.put(receiver.email(), newBalanceReceiver);
+            expectedBalances.put(sender.id(), sender.balance());
+            expectedBalances.put(receiver.id(), receiver.balance());
+
+            transfers.put(i, new LedgerService.PlannedTransfer(request, sender.id(), receiver.id(),
+                    oldBalanceSender, newBalanceSender, oldBalanceReceiver, newBalanceReceiver));
+            scoringRequests.put(i, fraudDetectionService.applyVelocity(
+                    FraudDetectionService.buildRequest(request.getType().name(), amount,
+                            oldBalanceSender, newBalanceSender, oldBalanceReceiver, newBalanceReceiver),
+                    sender.id(), receiver.id()));
+        }
+        return new Plan(transfers, scoringRequests, failures, expectedBalances);
+    }
+
+    private static ItemResult failure(int index, String error) {
+        return ItemResult.builder()
+                .index(index)
+                .success(false)
+                .error(error)
+                .build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.finance.Service;
+
+/**
+ * What happens to a transfer given the scorer's verdict. Shared by the transfer paths and the
+ * offline replay tool so both apply the same thresholds.
+ */
+public final class FraudDecisionPolicy {
+
+    public static final double BLOCK_PROBABILITY = 0.9;
+    public static final double REVIEW_PROBABILITY = 0.7;
+
+    private FraudDecisionPolicy() {
+    }
+
+    public static boolean shouldBlock(boolean isFraud, double fraudProbability) {
+        return isFraud && fraudProbability > BLOCK_PROBABILITY;
+    }
+
+    public static boolean requiresManualReview(boolean isFraud, double fraudProbability) {
+        return isFraud || fraudProbability > REVIEW_PROBABILITY;
+    }
+}
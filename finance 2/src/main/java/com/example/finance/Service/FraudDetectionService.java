@@ -1,17 +1,47 @@
 package com.example.finance.Service;
 
+import com.example.finance.entity.Type;
+import com.example.finance.scoring.CircuitBreaker;
+import com.example.finance.scoring.Deadline;
+import com.example.finance.scoring.FraudRuleEngine;
+import com.example.finance.scoring.FraudScoreCache;
+import com.example.finance.scoring.LatencyTracker;
+import com.example.finance.scoring.LocalFraudModel;
+import com.example.finance.scoring.MicroBatcher;
+import com.example.finance.scoring.ScorerReplicaPool;
+import com.example.finance.scoring.VelocityStore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.ResourceAccessException;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
 
 @Service
 @RequiredArgsConstructor
@@ -19,14 +49,115 @@ import java.math.BigDecimal;
 public class FraudDetectionService {
 
     private final RestTemplate restTemplate;
+    private final CloseableHttpAsyncClient asyncHttpClient;
     private final ObjectMapper objectMapper;
+    private final LocalFraudModel localFraudModel;
+    private final VelocityStore velocityStore;
+    private final FraudRuleEngine fraudRuleEngine;
+    private final TransferMetrics transferMetrics;
+    private final FraudScoreCache fraudScoreCache;
+    private final CircuitBreaker scorerCircuitBreaker;
+    private final ScorerReplicaPool scorerReplicaPool;
+    private final ShadowScorer shadowScorer;
 
-    @Value("${fraud.detection.api.url:http://localhost:5000}")
-    private String fraudDetectionApiUrl;
+    public static final String SERVICE_UNAVAILABLE = "Fraud detection service is not available";
+    public static final String SCORER_REJECTED = "Fraud detection skipped: scorer circuit open or at capacity";
+    public static final String DEADLINE_EXCEEDED = "Scored by the local model: request deadline exceeded";
+    private static final String REQUEST_CANCELLED = "Fraud detection request was cancelled";
+
+    // Reused per thread so local scoring does not allocate a feature vector per call
+    private static final ThreadLocal<double[]> LOCAL_FEATURES =
+            ThreadLocal.withInitial(() -> new double[LocalFraudModel.FEATURE_COUNT]);
+
+    // Per-thread read buffers for VelocityStore, for the same reason
+    private static final ThreadLocal<long[]> VELOCITY_COUNTS =
+            ThreadLocal.withInitial(() -> new long[VelocityStore.WINDOW_COUNT]);
+    private static final ThreadLocal<double[]> VELOCITY_SUMS =
+            ThreadLocal.withInitial(() -> new double[VelocityStore.WINDOW_COUNT]);
 
     @Value("${fraud.detection.api.timeout:5000}")
     private int apiTimeout;
 
+    /** "remote" calls the Python scorer, "local" evaluates the exported model in-process. */
+    @Value("${fraud.detection.backend:remote}")
+    private String backend;
+
+    private boolean localBackend;
+
+    @Value("${fraud.detection.batch.enabled:false}")
+    private boolean batchEnabled;
+
+    @Value("${fraud.detection.batch.max-size:32}")
+    private int batchMaxSize;
+
+    @Value("${fraud.detection.batch.max-linger-ms:5}")
+    private long batchMaxLingerMs;
+
+    @Value("${fraud.detection.batch.queue-capacity:1024}")
+    private int batchQueueCapacity;
+
+    @Value("${fraud.detection.batch.max-in-flight:4}")
+    private int batchMaxInFlight;
+
+    private MicroBatcher<FraudPredictionRequest, FraudPredictionResponse> batcher;
+
+    @Value("${fraud.detection.cache.enabled:false}")
+    private boolean cacheEnabled;
+
+    /**
+     * What a transfer gets when the scorer gives no verdict, because the circuit breaker refused the
+     * call or the call failed: "allow-below-limit"
+     * approves amounts under {@code fraud.detection.degraded.allow-below-amount} and sends the rest
+     * to review, "review" sends every transfer to review, "block" rejects them.
+     */
+    @Value("${fraud.detection.degraded.mode:review}")
+    private String degradedMode;
+
+    @Value("${fraud.detection.degraded.allow-below-amount:1000}")
+    private BigDecimal degradedAllowBelowAmount;
+
+    /**
+     * Sends a duplicate of a single scorer call to another replica once the first has been
+     * outstanding longer than the recent {@code fraud.detection.hedge.percentile} latency.
+     */
+    @Value("${fraud.detection.hedge.enabled:false}")
+    private boolean hedgeEnabled;
+
+    @Value("${fraud.detection.hedge.percentile:0.95}")
+    private double hedgePercentile;
+
+    @Value("${fraud.detection.hedge.window-seconds:10}")
+    private long hedgeWindowSeconds;
+
+    @Value("${fraud.detection.hedge.min-delay-ms:5}")
+    private long hedgeMinDelayMs;
+
+    @Value("${fraud.detection.hedge.initial-delay-ms:50}")
+    private long hedgeInitialDelayMs;
+
+    /** Upper bound on hedges as a share of hedgeable calls, so a slow fleet is not hit with double load. */
+    @Value("${fraud.detection.hedge.max-ratio:0.1}")
+    private double hedgeMaxRatio;
+
+    private LatencyTracker scorerLatency;
+
+    private final LongAdder hedgeableCalls = new LongAdder();
+    private final LongAdder hedgesSent = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder cancelledCalls = new LongAdder();
+    private final LongAdder wastedNanos = new LongAdder();
+    private final LongAdder deadlinesExceeded = new LongAdder();
+
+    // One in-flight async call to a scorer replica
+    private record ScorerCall(ScorerReplicaPool.Replica replica, long startNanos,
+                              CompletableFuture<FraudPredictionResponse> result, Future<SimpleHttpResponse> http) {
+        void cancel() {
+            if (http != null) {
+                http.cancel(true);
+            }
+        }
+    }
+
     @Data
     public static class FraudPredictionRequest {
         private String type;
@@ -35,6 +166,20 @@ public class FraudDetectionService {
         private BigDecimal newbalanceOrig;
         private BigDecimal oldbalanceDest;
         private BigDecimal newbalanceDest;
+
+        // Prior activity from VelocityStore: sender's outgoing and receiver's incoming transfers
+        private long senderCount1m;
+        private double senderAmount1m;
+        private long senderCount1h;
+        private double senderAmount1h;
+        private long senderCount24h;
+        private double senderAmount24h;
+        private long receiverCount1m;
+        private double receiverAmount1m;
+        private long receiverCount1h;
+        private double receiverAmount1h;
+        private long receiverCount24h;
+        private double receiverAmount24h;
     }
 
     @Data
@@ -46,6 +191,53 @@ public class FraudDetectionService {
         private double fraudProbability;
         private String confidence;
         private String error;
+        // Set when a prefilter rule decided the transfer and the model was not called
+        private String rule;
+
+        @JsonProperty("model_version")
+        private String modelVersion;
+    }
+
+    @Data
+    public static class FraudBatchPredictionRequest {
+        private List<FraudPredictionRequest> transactions;
+    }
+
+    @Data
+    public static class FraudBatchPredictionResponse {
+        private List<FraudPredictionResponse> results;
+    }
+
+    @PostConstruct
+    void init() {
+        if (!List.of("allow-below-limit", "review", "block").contains(degradedMode)) {
+            throw new IllegalArgumentException("Unknown fraud.detection.degraded.mode: " + degradedMode);
+        }
+        scorerLatency = new LatencyTracker(hedgePercentile, TimeUnit.SECONDS.toNanos(hedgeWindowSeconds),
+                TimeUnit.MILLISECONDS.toNanos(hedgeMinDelayMs), TimeUnit.MILLISECONDS.toNanos(hedgeInitialDelayMs),
+                20, System.nanoTime());
+        localBackend = "local".equalsIgnoreCase(backend);
+        if (localBackend) {
+            log.info("Fraud detection using local model version {}", localFraudModel.version());
+        } else if (batchEnabled) {
+            batcher = new MicroBatcher<>(
+                    "fraud-batch",
+                    this::scoreBatch,
+                    e -> createErrorResponse("Fraud detection batch failed: " + e.getMessage()),
+                    batchMaxSize,
+                    Duration.ofMillis(batchMaxLingerMs),
+                    batchQueueCapacity,
+                    batchMaxInFlight
+            );
+            log.info("Fraud detection batching enabled: maxSize={}, maxLingerMs={}", batchMaxSize, batchMaxLingerMs);
+        }
+    }
+
+    @PreDestroy
+    void stopBatcher() {
+        if (batcher != null) {
+            batcher.close();
+        }
     }
 
     public FraudPredictionResponse checkFraud(
@@ -55,60 +247,667 @@ public class FraudDetectionService {
             BigDecimal newBalanceOrig,
             BigDecimal oldBalanceDest,
             BigDecimal newBalanceDest) {
+        return checkFraud(buildRequest(transactionType, amount, oldBalanceOrg, newBalanceOrig, oldBalanceDest, newBalanceDest));
+    }
+
+    public static FraudPredictionRequest buildRequest(
+            String transactionType,
+            BigDecimal amount,
+            BigDecimal oldBalanceOrg,
+            BigDecimal newBalanceOrig,
+            BigDecimal oldBalanceDest,
+            BigDecimal newBalanceDest) {
+        FraudPredictionRequest request = new FraudPredictionRequest();
+        request.setType(mapTransactionType(transactionType));
+        request.setAmount(amount);
+        request.setOldbalanceOrg(oldBalanceOrg);
+        request.setNewbalanceOrig(newBalanceOrig);
+        request.setOldbalanceDest(oldBalanceDest);
+        request.setNewbalanceDest(newBalanceDest);
+        return request;
+    }
+
+    /**
+     * Adds the sender's and receiver's recent transfer counts and amounts to the request.
+     */
+    public FraudPredictionRequest applyVelocity(FraudPredictionRequest request, long senderId, long receiverId) {
+        long now = System.currentTimeMillis();
+        long[] counts = VELOCITY_COUNTS.get();
+        double[] sums = VELOCITY_SUMS.get();
+
+        velocityStore.read(senderId, false, now, counts, sums);
+        request.setSenderCount1m(counts[VelocityStore.WINDOW_1M]);
+        request.setSenderAmount1m(sums[VelocityStore.WINDOW_1M]);
+        request.setSenderCount1h(counts[VelocityStore.WINDOW_1H]);
+        request.setSenderAmount1h(sums[VelocityStore.WINDOW_1H]);
+        request.setSenderCount24h(counts[VelocityStore.WINDOW_24H]);
+        request.setSenderAmount24h(sums[VelocityStore.WINDOW_24H]);
+
+        velocityStore.read(receiverId, true, now, counts, sums);
+        request.setReceiverCount1m(counts[VelocityStore.WINDOW_1M]);
+        request.setReceiverAmount1m(sums[VelocityStore.WINDOW_1M]);
+        request.setReceiverCount1h(counts[VelocityStore.WINDOW_1H]);
+        request.setReceiverAmount1h(sums[VelocityStore.WINDOW_1H]);
+        request.setReceiverCount24h(counts[VelocityStore.WINDOW_24H]);
+        request.setReceiverAmount24h(sums[VelocityStore.WINDOW_24H]);
+        return request;
+    }
+
+    public FraudPredictionResponse checkFraud(FraudPredictionRequest request) {
+        return checkFraud(request, Deadline.none());
+    }
+
+    /**
+     * Scores the transfer, giving up on the scorer by {@code deadline}. A transfer whose deadline
+     * passes first is scored by the local model, and gets the stricter of that verdict and the
+     * degraded policy's, so running out of time never lets through a transfer that could be blocked.
+     */
+    public FraudPredictionResponse checkFraud(FraudPredictionRequest request, Deadline deadline) {
+        FraudPredictionResponse ruled = applyRules(request);
+        if (ruled != null) {
+            return ruled;
+        }
+        FraudPredictionResponse cached = lookupCache(request);
+        if (cached != null) {
+            return cached;
+        }
+        long start = System.nanoTime();
+        FraudPredictionResponse response = failClosed(request, score(request, deadline));
+        transferMetrics.recordScoring(System.nanoTime() - start, response);
+        storeInCache(request, response);
+        shadowScorer.offer(request, response);
+        return response;
+    }
 
+    private FraudPredictionResponse score(FraudPredictionRequest request, Deadline deadline) {
+        if (localBackend) {
+            return scoreLocally(request);
+        }
+        if (batcher != null) {
+            // Coalesced with other in-flight checks into a single /predict/batch call
+            FraudPredictionResponse response = await(batcher.submit(request), deadline.remainingNanos());
+            return response != null ? response : deadlineExceeded(request);
+        }
+        if (hedgeEnabled || deadline.bounded()) {
+            return scoreHedged(request, deadline);
+        }
+        return checkFraudSingle(request);
+    }
+
+    /**
+     * Single-call scoring on the async client so calls can be abandoned: waits for the primary
+     * call up to the hedge delay, then sends a duplicate to another replica and takes whichever
+     * answers successfully first. The call that loses, or every call once the deadline passes,
+     * is cancelled.
+     */
+    private FraudPredictionResponse scoreHedged(FraudPredictionRequest request, Deadline deadline) {
+        if (deadline.expired()) {
+            return deadlineExceeded(request);
+        }
+        String jsonPayload;
         try {
-            // Prepare request
-            FraudPredictionRequest request = new FraudPredictionRequest();
-            request.setType(mapTransactionType(transactionType));
-            request.setAmount(amount);
-            request.setOldbalanceOrg(oldBalanceOrg);
-            request.setNewbalanceOrig(newBalanceOrig);
-            request.setOldbalanceDest(oldBalanceDest);
-            request.setNewbalanceDest(newBalanceDest);
+            jsonPayload = objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            log.error("Error during fraud detection: {}", e.getMessage(), e);
+            return createErrorResponse("Error during fraud detection: " + e.getMessage());
+        }
+        log.info("Fraud detection payload: {}", jsonPayload);
+
+        ScorerCall primary = startCall(jsonPayload, scorerReplicaPool.acquire());
+        if (primary == null) {
+            return degradedResponse(request, SCORER_REJECTED);
+        }
+        hedgeableCalls.increment();
+        long hedgeDelay = hedgeEnabled ? scorerLatency.percentileNanos() : Long.MAX_VALUE;
+        FraudPredictionResponse response = await(primary.result(), Math.min(hedgeDelay, deadline.remainingNanos()));
+        if (response != null) {
+            return response;
+        }
 
+        ScorerCall hedge = null;
+        if (hedgeEnabled && !deadline.expired() && hedgesSent.sum() < hedgeMaxRatio * hedgeableCalls.sum()) {
+            ScorerReplicaPool.Replica other = scorerReplicaPool.acquireOther(primary.replica());
+            if (other != null) {
+                hedge = startCall(jsonPayload, other);
+            }
+        }
+        if (hedge == null) {
+            response = await(primary.result(), deadline.remainingNanos());
+            if (response != null) {
+                return response;
+            }
+            abandon(primary);
+            return deadlineExceeded(request);
+        }
+
+        hedgesSent.increment();
+        response = await(firstSuccessful(primary.result(), hedge.result()), deadline.remainingNanos());
+        if (response == null) {
+            abandon(primary);
+            abandon(hedge);
+            return deadlineExceeded(request);
+        }
+        if (response == hedge.result().getNow(null)) {
+            hedgeWins.increment();
+            abandon(primary);
+        } else {
+            abandon(hedge);
+        }
+        return response;
+    }
+
+    /**
+     * Sends one /predict call to {@code replica} under a circuit breaker permit, or returns null
+     * (and gives the replica back) if the breaker refuses it.
+     */
+    private ScorerCall startCall(String jsonPayload, ScorerReplicaPool.Replica replica) {
+        long start = System.nanoTime();
+        if (!scorerCircuitBreaker.tryAcquire(start)) {
+            scorerReplicaPool.abandon(replica);
+            return null;
+        }
+        CompletableFuture<FraudPredictionResponse> result = new CompletableFuture<>();
+        result.whenComplete((response, e) -> {
+            long now = System.nanoTime();
+            // A call we cancelled says nothing about the replica, beyond how long it had taken so far
+            boolean failed = response == null
+                    || response.getError() != null && !REQUEST_CANCELLED.equals(response.getError());
+            scorerReplicaPool.release(replica, failed, now - start);
+            scorerCircuitBreaker.onResult(failed, now - start, now);
+            if (response != null && response.getError() == null) {
+                scorerLatency.record(now - start, now);
+            }
+        });
+        Future<SimpleHttpResponse> http = null;
+        try {
+            SimpleHttpRequest httpRequest = SimpleRequestBuilder.post(replica.url() + "/predict")
+                    .setBody(jsonPayload, ContentType.APPLICATION_JSON)
+                    .build();
+
+            http = asyncHttpClient.execute(httpRequest, new FutureCallback<>() {
+                @Override
+                public void completed(SimpleHttpResponse response) {
+                    result.complete(parseResponse(response.getCode(), response.getBodyText()));
+                }
+
+                @Override
+                public void failed(Exception e) {
+                    if (e instanceof IOException) {
+                        log.error("Fraud detection service is not available: {}", e.getMessage());
+                        result.complete(createErrorResponse(SERVICE_UNAVAILABLE));
+                    } else {
+                        log.error("Error during fraud detection: {}", e.getMessage(), e);
+                        result.complete(createErrorResponse("Error during fraud detection: " + e.getMessage()));
+                    }
+                }
+
+                @Override
+                public void cancelled() {
+                    result.complete(createErrorResponse(REQUEST_CANCELLED));
+                }
+            });
+        } catch (Exception e) {
+            log.error("Error during fraud detection: {}", e.getMessage(), e);
+            result.complete(createErrorResponse("Error during fraud detection: " + e.getMessage()));
+        }
+        return new ScorerCall(replica, start, result, http);
+    }
+
+    /**
+     * Cancels a call whose answer will not be used, counting the time it held a replica as wasted.
+     */
+    private void abandon(ScorerCall call) {
+        if (!call.result().isDone()) {
+            cancelledCalls.increment();
+            call.cancel();
+        }
+        call.result().whenComplete((response, e) -> wastedNanos.add(System.nanoTime() - call.startNanos()));
+    }
+
+    /**
+     * Completes with the first successful response, or with {@code primary}'s once both have failed.
+     */
+    private static CompletableFuture<FraudPredictionResponse> firstSuccessful(
+            CompletableFuture<FraudPredictionResponse> primary, CompletableFuture<FraudPredictionResponse> hedge) {
+        CompletableFuture<FraudPredictionResponse> first = new CompletableFuture<>();
+        BiConsumer<FraudPredictionResponse, Throwable> onAnswer = (response, e) -> {
+            if (response != null && response.getError() == null) {
+                first.complete(response);
+            } else if (primary.isDone() && hedge.isDone()) {
+                first.complete(primary.getNow(null));
+            }
+        };
+        primary.whenComplete(onAnswer);
+        hedge.whenComplete(onAnswer);
+        return first;
+    }
+
+    /**
+     * Waits up to {@code nanos} for a scoring future, which always completes normally. Returns null on timeout.
+     */
+    private static FraudPredictionResponse await(CompletableFuture<FraudPredictionResponse> future, long nanos) {
+        if (nanos <= 0) {
+            return future.getNow(null);
+        }
+        try {
+            return nanos == Long.MAX_VALUE ? future.get() : future.get(nanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Scoring future failed", e.getCause());
+        }
+    }
+
+    private FraudPredictionResponse deadlineExceeded(FraudPredictionRequest request) {
+        deadlinesExceeded.increment();
+        FraudPredictionResponse degraded = degradedResponse(request, DEADLINE_EXCEEDED);
+        FraudPredictionResponse local = scoreLocally(request);
+        if (local.getError() != null || severity(local) <= severity(degraded)) {
+            return degraded;
+        }
+        local.setError(DEADLINE_EXCEEDED);
+        return local;
+    }
+
+    // 2 = block, 1 = review, 0 = approve
+    private static int severity(FraudPredictionResponse response) {
+        if (FraudDecisionPolicy.shouldBlock(response.isFraud(), response.getFraudProbability())) {
+            return 2;
+        }
+        return FraudDecisionPolicy.requiresManualReview(response.isFraud(), response.getFraudProbability()) ? 1 : 0;
+    }
+
+    private FraudPredictionResponse checkFraudSingle(FraudPredictionRequest request) {
+        long start = System.nanoTime();
+        if (!scorerCircuitBreaker.tryAcquire(start)) {
+            return degradedResponse(request, SCORER_REJECTED);
+        }
+        ScorerReplicaPool.Replica replica = scorerReplicaPool.acquire();
+        FraudPredictionResponse response = null;
+        try {
+            response = callScorer(replica.url(), request);
+            return response;
+        } finally {
+            long now = System.nanoTime();
+            boolean failed = response == null || response.getError() != null;
+            scorerReplicaPool.release(replica, failed, now - start);
+            scorerCircuitBreaker.onResult(failed, now - start, now);
+            if (!failed) {
+                scorerLatency.record(now - start, now);
+            }
+        }
+    }
+
+    private FraudPredictionResponse callScorer(String scorerUrl, FraudPredictionRequest request) {
+        try {
             // Convert request to JSON for logging
             String jsonPayload = objectMapper.writeValueAsString(request);
             log.info("Fraud detection payload: {}", jsonPayload);
-            log.info("Calling Fraud Detection API at: {}", fraudDetectionApiUrl + "/predict");
+            log.info("Calling Fraud Detection API at: {}", scorerUrl + "/predict");
 
             // Set headers
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
 
-            HttpEntity<FraudPredictionRequest> entity = new HttpEntity<>(request, headers);
-
             // Make API call and log raw response
             ResponseEntity<String> rawResponse = restTemplate.exchange(
-                    fraudDetectionApiUrl + "/predict",
+                    scorerUrl + "/predict",
                     HttpMethod.POST,
                     new HttpEntity<>(jsonPayload, headers),
                     String.class
             );
-            log.info("Raw fraud detection response: {}", rawResponse.getBody());
+            return parseResponse(rawResponse.getStatusCode().value(), rawResponse.getBody());
+
+        } catch (ResourceAccessException e) {
+            log.error("Fraud detection service is not available: {}", e.getMessage());
+            return createErrorResponse(SERVICE_UNAVAILABLE);
+        } catch (Exception e) {
+            log.error("Error during fraud detection: {}", e.getMessage(), e);
+            return createErrorResponse("Error during fraud detection: " + e.getMessage());
+        }
+    }
+
+    public CompletableFuture<FraudPredictionResponse> checkFraudAsync(
+            String transactionType,
+            BigDecimal amount,
+            BigDecimal oldBalanceOrg,
+            BigDecimal newBalanceOrig,
+            BigDecimal oldBalanceDest,
+            BigDecimal newBalanceDest) {
+        return checkFraudAsync(buildRequest(transactionType, amount, oldBalanceOrg, newBalanceOrig, oldBalanceDest, newBalanceDest));
+    }
 
-            // Parse the response into our POJO
-            if (rawResponse.getStatusCode().is2xxSuccessful() && rawResponse.getBody() != null) {
-                FraudPredictionResponse parsedResponse =
-                        objectMapper.readValue(rawResponse.getBody(), FraudPredictionResponse.class);
+    /**
+     * Non-blocking variant of {@link #checkFraud(FraudPredictionRequest)}. The future always completes
+     * normally; transport failures are reported as an error response, same as the blocking path.
+     */
+    public CompletableFuture<FraudPredictionResponse> checkFraudAsync(FraudPredictionRequest request) {
+        FraudPredictionResponse ruled = applyRules(request);
+        if (ruled != null) {
+            return CompletableFuture.completedFuture(ruled);
+        }
+        FraudPredictionResponse cached = lookupCache(request);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        long start = System.nanoTime();
+        return scoreAsync(request)
+                .thenApply(response -> failClosed(request, response))
+                .whenComplete((response, e) -> {
+                    transferMetrics.recordScoring(System.nanoTime() - start, response);
+                    storeInCache(request, response);
+                    shadowScorer.offer(request, response);
+                });
+    }
+
+    private CompletableFuture<FraudPredictionResponse> scoreAsync(FraudPredictionRequest request) {
+        if (localBackend) {
+            return CompletableFuture.completedFuture(scoreLocally(request));
+        }
+        if (batcher != null) {
+            return batcher.submit(request);
+        }
+
+        String jsonPayload;
+        try {
+            jsonPayload = objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            log.error("Error during fraud detection: {}", e.getMessage(), e);
+            return CompletableFuture.completedFuture(createErrorResponse("Error during fraud detection: " + e.getMessage()));
+        }
+        log.info("Fraud detection payload: {}", jsonPayload);
+        ScorerCall call = startCall(jsonPayload, scorerReplicaPool.acquire());
+        return call == null
+                ? CompletableFuture.completedFuture(degradedResponse(request, SCORER_REJECTED))
+                : call.result();
+    }
+
+    private FraudPredictionResponse parseResponse(int statusCode, String body) {
+        log.info("Raw fraud detection response: {}", body);
+
+        // Parse the response into our POJO
+        if (HttpStatusCode.valueOf(statusCode).is2xxSuccessful() && body != null) {
+            try {
+                FraudPredictionResponse parsedResponse = objectMapper.readValue(body, FraudPredictionResponse.class);
 
                 log.info("Fraud detection result parsed: is_fraud={}, probability={}, confidence={}",
                         parsedResponse.isFraud, parsedResponse.fraudProbability, parsedResponse.confidence);
                 return parsedResponse;
-            } else {
-                log.error("Failed to get fraud detection response. Status: {}", rawResponse.getStatusCode());
-                return createErrorResponse("Failed to get prediction from fraud detection service");
+            } catch (JsonProcessingException e) {
+                log.error("Error during fraud detection: {}", e.getMessage(), e);
+                return createErrorResponse("Error during fraud detection: " + e.getMessage());
+            }
+        } else {
+            log.error("Failed to get fraud detection response. Status: {}", statusCode);
+            return createErrorResponse("Failed to get prediction from fraud detection service");
+        }
+    }
+
+    /**
+     * Scores several transactions with one call to the /predict/batch endpoint.
+     * Always returns one response per request, in request order.
+     */
+    public List<FraudPredictionResponse> checkFraudBatch(List<FraudPredictionRequest> requests) {
+        FraudPredictionResponse[] results = new FraudPredictionResponse[requests.size()];
+        List<Integer> toScore = new ArrayList<>(requests.size());
+        List<FraudPredictionRequest> scoringRequests = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            results[i] = applyRules(requests.get(i));
+            if (results[i] == null) {
+                results[i] = lookupCache(requests.get(i));
+            }
+            if (results[i] == null) {
+                toScore.add(i);
+                scoringRequests.add(requests.get(i));
+            }
+        }
+        if (!scoringRequests.isEmpty()) {
+            long start = System.nanoTime();
+            List<FraudPredictionResponse> scored = scoreBatch(scoringRequests);
+            // Every transfer of the batch waited for the whole call
+            long elapsed = System.nanoTime() - start;
+            for (int i = 0; i < toScore.size(); i++) {
+                FraudPredictionResponse response = failClosed(scoringRequests.get(i), scored.get(i));
+                results[toScore.get(i)] = response;
+                transferMetrics.recordScoring(elapsed, response);
+                storeInCache(scoringRequests.get(i), response);
+                shadowScorer.offer(scoringRequests.get(i), response);
+            }
+        }
+        return List.of(results);
+    }
+
+    /**
+     * Decides the transfer from the prefilter rules, or returns null if it needs the model.
+     */
+    private FraudPredictionResponse applyRules(FraudPredictionRequest request) {
+        if (fraudRuleEngine.ruleCount() == 0 || request.getType() == null || request.getAmount() == null
+                || request.getOldbalanceOrg() == null || request.getNewbalanceOrig() == null) {
+            return null;
+        }
+        Type type;
+        try {
+            type = Type.valueOf(request.getType());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        int rule = fraudRuleEngine.match(type, request.getAmount().doubleValue(),
+                request.getOldbalanceOrg().doubleValue(), request.getNewbalanceOrig().doubleValue(),
+                request.getSenderCount1h());
+        FraudRuleEngine.Decision decision = fraudRuleEngine.decision(rule);
+        if (decision == FraudRuleEngine.Decision.SCORE) {
+            return null;
+        }
+        FraudPredictionResponse response = new FraudPredictionResponse();
+        response.setFraud(decision == FraudRuleEngine.Decision.BLOCK);
+        response.setFraudProbability(decision == FraudRuleEngine.Decision.BLOCK ? 1.0 : 0.0);
+        response.setConfidence("rule");
+        response.setRule(fraudRuleEngine.name(rule));
+        return response;
+    }
+
+    /**
+     * A copy of the cached verdict for a transfer with the same type and quantized amounts, or null.
+     */
+    private FraudPredictionResponse lookupCache(FraudPredictionRequest request) {
+        Type type = cacheableType(request);
+        if (type == null) {
+            return null;
+        }
+        FraudScoreCache.Cached cached = fraudScoreCache.get(type, request.getAmount().doubleValue(),
+                request.getOldbalanceOrg().doubleValue(), request.getNewbalanceOrig().doubleValue(),
+                request.getOldbalanceDest().doubleValue(), request.getNewbalanceDest().doubleValue(),
+                System.currentTimeMillis());
+        if (cached == null) {
+            return null;
+        }
+        FraudPredictionResponse response = new FraudPredictionResponse();
+        response.setFraud(cached.fraud());
+        response.setFraudProbability(cached.probability());
+        response.setConfidence(cached.confidence());
+        response.setModelVersion(cached.modelVersion());
+        return response;
+    }
+
+    /**
+     * Caches a successful verdict. Errors, and verdicts from a scorer that reports no model version, are not kept.
+     */
+    private void storeInCache(FraudPredictionRequest request, FraudPredictionResponse response) {
+        if (response == null || response.getError() != null || response.getModelVersion() == null) {
+            return;
+        }
+        Type type = cacheableType(request);
+        if (type == null) {
+            return;
+        }
+        fraudScoreCache.put(type, request.getAmount().doubleValue(),
+                request.getOldbalanceOrg().doubleValue(), request.getNewbalanceOrig().doubleValue(),
+                request.getOldbalanceDest().doubleValue(), request.getNewbalanceDest().doubleValue(),
+                response.isFraud(), response.getFraudProbability(), response.getConfidence(),
+                response.getModelVersion(), System.currentTimeMillis());
+    }
+
+    private Type cacheableType(FraudPredictionRequest request) {
+        if (!cacheEnabled || request.getType() == null || request.getAmount() == null
+                || request.getOldbalanceOrg() == null || request.getNewbalanceOrig() == null
+                || request.getOldbalanceDest() == null || request.getNewbalanceDest() == null) {
+            return null;
+        }
+        try {
+            return Type.valueOf(request.getType());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private List<FraudPredictionResponse> scoreBatch(List<FraudPredictionRequest> requests) {
+        if (localBackend) {
+            List<FraudPredictionResponse> results = new ArrayList<>(requests.size());
+            for (FraudPredictionRequest request : requests) {
+                results.add(scoreLocally(request));
+            }
+            return results;
+        }
+        long start = System.nanoTime();
+        if (!scorerCircuitBreaker.tryAcquire(start)) {
+            List<FraudPredictionResponse> results = new ArrayList<>(requests.size());
+            for (FraudPredictionRequest request : requests) {
+                results.add(degradedResponse(request, SCORER_REJECTED));
             }
+            return results;
+        }
+        ScorerReplicaPool.Replica replica = scorerReplicaPool.acquire();
+        List<FraudPredictionResponse> results = null;
+        try {
+            results = callBatchScorer(replica.url(), requests);
+            return results;
+        } finally {
+            // Per-transaction errors (bad input) are not the scorer's fault; only a failed call is
+            boolean failed = results == null || results.stream().allMatch(r -> r.getError() != null);
+            long now = System.nanoTime();
+            scorerReplicaPool.release(replica, failed, now - start);
+            scorerCircuitBreaker.onResult(failed, now - start, now);
+        }
+    }
+
+    private List<FraudPredictionResponse> callBatchScorer(String scorerUrl, List<FraudPredictionRequest> requests) {
+        try {
+            FraudBatchPredictionRequest batchRequest = new FraudBatchPredictionRequest();
+            batchRequest.setTransactions(requests);
+            String jsonPayload = objectMapper.writeValueAsString(batchRequest);
+            log.debug("Calling Fraud Detection batch API with {} transactions", requests.size());
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+
+            ResponseEntity<String> rawResponse = restTemplate.exchange(
+                    scorerUrl + "/predict/batch",
+                    HttpMethod.POST,
+                    new HttpEntity<>(jsonPayload, headers),
+                    String.class
+            );
+
+            if (!rawResponse.getStatusCode().is2xxSuccessful() || rawResponse.getBody() == null) {
+                log.error("Failed to get fraud detection batch response. Status: {}", rawResponse.getStatusCode());
+                return errorResponses(requests.size(), "Failed to get prediction from fraud detection service");
+            }
+
+            List<FraudPredictionResponse> results =
+                    objectMapper.readValue(rawResponse.getBody(), FraudBatchPredictionResponse.class).getResults();
+            if (results == null || results.size() != requests.size()) {
+                log.error("Fraud detection batch returned {} results for {} transactions",
+                        results == null ? 0 : results.size(), requests.size());
+                return errorResponses(requests.size(), "Fraud detection batch response was incomplete");
+            }
+            for (FraudPredictionResponse result : results) {
+                if (result.getError() != null) {
+                    result.setConfidence("error");
+                }
+            }
+            return results;
 
         } catch (ResourceAccessException e) {
             log.error("Fraud detection service is not available: {}", e.getMessage());
-            return createErrorResponse("Fraud detection service is not available");
+            return errorResponses(requests.size(), SERVICE_UNAVAILABLE);
         } catch (Exception e) {
-            log.error("Error during fraud detection: {}", e.getMessage(), e);
-            return createErrorResponse("Error during fraud detection: " + e.getMessage());
+            log.error("Error during batch fraud detection: {}", e.getMessage(), e);
+            return errorResponses(requests.size(), "Error during fraud detection: " + e.getMessage());
         }
     }
 
-    private String mapTransactionType(String type) {
+    private FraudPredictionResponse scoreLocally(FraudPredictionRequest request) {
+        if (request.getAmount() == null || request.getOldbalanceOrg() == null || request.getNewbalanceOrig() == null
+                || request.getOldbalanceDest() == null || request.getNewbalanceDest() == null) {
+            return createErrorResponse("Invalid data format: missing amount or balance");
+        }
+        double[] features = LOCAL_FEATURES.get();
+        fillFeatures(request, features);
+
+        double probability = localFraudModel.score(Type.valueOf(request.getType()), features);
+
+        FraudPredictionResponse response = new FraudPredictionResponse();
+        response.setFraud(localFraudModel.isFraud(probability));
+        response.setFraudProbability(probability);
+        response.setConfidence(probability > 0.8 || probability < 0.2 ? "high" : "medium");
+        response.setModelVersion(localFraudModel.version());
+        return response;
+    }
+
+    /**
+     * Stands in for a verdict when the scorer call was refused, failed or ran out of time, so the
+     * transfer is decided by {@code fraud.detection.degraded.mode} instead of waiting on a scorer
+     * that is down or saturated.
+     */
+    private FraudPredictionResponse degradedResponse(FraudPredictionRequest request, String reason) {
+        boolean allow = "allow-below-limit".equals(degradedMode)
+                && request.getAmount() != null && request.getAmount().compareTo(degradedAllowBelowAmount) < 0;
+        FraudPredictionResponse response = createErrorResponse(reason);
+        response.setConfidence("degraded");
+        if ("block".equals(degradedMode)) {
+            response.setFraud(true);
+            response.setFraudProbability(1.0);
+        } else if (!allow) {
+            // Flagged but below the block threshold, so the transfer goes through to manual review
+            response.setFraud(true);
+            response.setFraudProbability(FraudDecisionPolicy.REVIEW_PROBABILITY);
+        }
+        return response;
+    }
+
+    /**
+     * Replaces a failed call's error response, whose zero probability would approve the transfer,
+     * with the degraded policy's verdict. Responses already decided some other way pass through.
+     */
+    private FraudPredictionResponse failClosed(FraudPredictionRequest request, FraudPredictionResponse response) {
+        if (response == null) {
+            return degradedResponse(request, SERVICE_UNAVAILABLE);
+        }
+        return "error".equals(response.getConfidence()) ? degradedResponse(request, response.getError()) : response;
+    }
+
+    private List<FraudPredictionResponse> errorResponses(int count, String errorMessage) {
+        List<FraudPredictionResponse> responses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            responses.add(createErrorResponse(errorMessage));
+        }
+        return responses;
+    }
+
+    /**
+     * Copies the request's amounts into the local model's feature vector.
+     */
+    static void fillFeatures(FraudPredictionRequest request, double[] features) {
+        features[LocalFraudModel.AMOUNT] = request.getAmount().doubleValue();
+        features[LocalFraudModel.OLD_BALANCE_ORG] = request.getOldbalanceOrg().doubleValue();
+        features[LocalFraudModel.NEW_BALANCE_ORIG] = request.getNewbalanceOrig().doubleValue();
+        features[LocalFraudModel.OLD_BALANCE_DEST] = request.getOldbalanceDest().doubleValue();
+        features[LocalFraudModel.NEW_BALANCE_DEST] = request.getNewbalanceDest().doubleValue();
+    }
+
+    private static String mapTransactionType(String type) {
         switch (type.toUpperCase()) {
             case "TRANSFER":
                 return "TRANSFER";
@@ -135,16 +934,47 @@ public class FraudDetectionService {
         return response;
     }
 
+    /**
+     * Checks waiting in the micro-batcher, or 0 when batching is off.
+     */
+    public int batchQueueDepth() {
+        return batcher == null ? 0 : batcher.queuedItems();
+    }
+
+    /**
+     * Current delay after which a single scorer call is hedged.
+     */
+    public long hedgeDelayNanos() {
+        return scorerLatency.percentileNanos();
+    }
+
+    public long getHedgesSent() {
+        return hedgesSent.sum();
+    }
+
+    public long getHedgeWins() {
+        return hedgeWins.sum();
+    }
+
+    public long getCancelledCalls() {
+        return cancelledCalls.sum();
+    }
+
+    /**
+     * Total time abandoned calls spent on a replica before they were cancelled or answered unused.
+     */
+    public double getWastedSeconds() {
+        return wastedNanos.sum() / 1e9;
+    }
+
+    public long getDeadlinesExceeded() {
+        return deadlinesExceeded.sum();
+    }
+
+    /**
+     * Whether at least one scorer replica passed its last background health probe.
+     */
     public boolean isHealthy() {
-        try {
-            ResponseEntity<String> response = restTemplate.getForEntity(
-                    fraudDetectionApiUrl + "/health",
-                    String.class
-            );
-            return response.getStatusCode().is2xxSuccessful();
-        } catch (Exception e) {
-            log.error("Health check failed: {}", e.getMessage());
-            return false;
-        }
+        return localBackend || scorerReplicaPool.admittedCount() > 0;
     }
 }
@@ -0,0 +1,94 @@
+package com.example.finance.Service;
+
+import com.example.finance.entity.Transaction;
+import com.example.finance.scoring.TransferGraph;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Adds committed transfers to the {@link TransferGraph} and records an anomaly when a transfer
+ * opens a new sender-receiver edge that gives the sender a wide fan-out, gives the receiver a
+ * wide fan-in (typical of a mule collecting from many victims), or closes a short cycle.
+ * Transfers over an edge that already exists are not re-checked, so a busy pair does not
+ * produce a new anomaly on every transfer.
+ */
+@Service
+@RequiredArgsConstructor
+public class GraphAnomalyDetector {
+
+    public static final String GRAPH_FAN_OUT = "GRAPH_FAN_OUT";
+    public static final String GRAPH_FAN_IN = "GRAPH_FAN_IN";
+    public static final String GRAPH_CYCLE = "GRAPH_CYCLE";
+
+    private final TransferGraph transferGraph;
+    private final AnomalyRecorder anomalyRecorder;
+
+    @Value("${fraud.graph.enabled:true}")
+    private boolean enabled;
+
+    @Value("${fraud.graph.fan-out-threshold:10}")
+    private int fanOutThreshold;
+
+    @Value("${fraud.graph.fan-in-threshold:10}")
+    private int fanInThreshold;
+
+    /** Longest cycle, in transfers including the new one, that is reported. */
+    @Value("${fraud.graph.max-cycle-length:4}")
+    private int maxCycleLength;
+
+    @Value("${fraud.graph.max-visited:256}")
+    private int maxVisited;
+
+    private final LongAdder fanOutHits = new LongAdder();
+    private final LongAdder fanInHits = new LongAdder();
+    private final LongAdder cycleHits = new LongAdder();
+
+    public void onCommitted(Transaction transaction) {
+        if (!enabled) {
+            return;
+        }
+        long senderId = transaction.getSender().getId();
+        long receiverId = transaction.getReceiver().getId();
+        // Edges are added and read at the row's server time, as the startup rebuild replays them; the
+        // stored timestamp can come from the client
+        long now = transaction.getRecordedAt().getTime() / 1000;
+        if (!transferGraph.addTransfer(senderId, receiverId, now)) {
+            return;
+        }
+
+        int fanOut = transferGraph.fanOut(senderId, now);
+        if (fanOut >= fanOutThreshold) {
+            fanOutHits.increment();
+            anomalyRecorder.record(transaction.getId(), senderId, GRAPH_FAN_OUT, 1.0,
+                    "Sent to " + fanOut + " distinct accounts recently");
+        }
+        int fanIn = transferGraph.fanIn(receiverId, now);
+        if (fanIn >= fanInThreshold) {
+            fanInHits.increment();
+            anomalyRecorder.record(transaction.getId(), receiverId, GRAPH_FAN_IN, 1.0,
+                    "Received from " + fanIn + " distinct accounts recently");
+        }
+        // The new edge closes a cycle if money can already flow from the receiver back to the sender
+        int back = transferGraph.shortestPath(receiverId, senderId, maxCycleLength - 1, maxVisited, now);
+        if (back > 0) {
+            cycleHits.increment();
+            anomalyRecorder.record(transaction.getId(), senderId, GRAPH_CYCLE, 1.0,
+                    "Transfer closes a cycle of " + (back + 1) + " transfers");
+        }
+    }
+
+    public long getFanOutHits() {
+        return fanOutHits.sum();
+    }
+
+    public long getFanInHits() {
+        return fanInHits.sum();
+    }
+
+    public long getCycleHits() {
+        return cycleHits.sum();
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.finance.Service;
+
+import com.example.finance.dto.TransactionRequest;
+import com.example.finance.entity.Transaction;
+import com.example.finance.entity.User;
+import com.example.finance.repository.TransactionRepository;
+import com.example.finance.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Database side of a transfer, split so that no connection is held while the transfer is scored:
+ * {@link #snapshot} reads both balances in a short read-only transaction, and {@link #commit}
+ * re-validates them and applies the transfer in a second short transaction.
+ * <p>
+ * {@link #commit} takes row locks on both accounts in ascending id order, so concurrent transfers
+ * touching the same accounts serialize instead of losing updates, and cannot deadlock each other.
+ */
+@Service
+@RequiredArgsConstructor
+public class LedgerService {
+
+    private final UserRepository userRepository;
+    private final TransactionRepository transactionRepository;
+    private final LedgerStats ledgerStats;
+
+    public record BalanceSnapshot(
+            Long senderId,
+            BigDecimal senderBalance,
+            Long receiverId,
+            BigDecimal receiverBalance
+    ) {
+    }
+
+    public record AccountSnapshot(Long id, String email, BigDecimal balance) {
+    }
+
+    /**
+     * One transfer of a batch with the balances it was planned (and scored) against.
+     * Transfers of a batch are applied in order, so each one sees the balances left by the previous ones.
+     */
+    public record PlannedTransfer(
+            TransactionRequest request,
+            Long senderId,
+            Long receiverId,
+            BigDecimal oldBalanceOrg,
+            BigDecimal newBalanceOrig,
+            BigDecimal oldBalanceDest,
+            BigDecimal newBalanceDest
+    ) {
+    }
+
+    /**
+     * Thrown by {@link #commit} when a balance moved between the snapshot and the commit.
+     */
+    public static class BalanceConflictException extends RuntimeException {
+        public BalanceConflictException(String message) {
+            super(message);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public BalanceSnapshot snapshot(String senderEmail, String receiverEmail) {
+        User sender = userRepository.findByEmail(senderEmail)
+                .orElseThrow(() -> new RuntimeException("Sender not found"));
+        User receiver = userRepository.findByEmail(receiverEmail)
+                .orElseThrow(() -> new RuntimeException("Receiver not found"));
+        return new BalanceSnapshot(sender.getId(), sender.getBalance(), receiver.getId(), receiver.getBalance());
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, AccountSnapshot> snapshotAccounts(Collection<String> emails) {
+        Map<String, AccountSnapshot> accounts = new HashMap<>();
+        for (User user : userRepository.findByEmailIn(emails)) {
+            accounts.put(user.getEmail(), new AccountSnapshot(user.getId(), user.getEmail(), user.getBalance()));
+        }
+        return accounts;
+    }
+
+    /**
+     * Applies a planned batch in one short transaction. All accounts are locked up front in id order;
+     * if any balance differs from {@code expectedBalances} the whole batch is rejected with
+     * {@link BalanceConflictException} so the caller can re-plan it.
+     */
+    @Transactional
+    public List<Transaction> commitBatch(Map<Long, BigDecimal> expectedBalances, List<PlannedTransfer> transfers) {
+        long lockStart = System.nanoTime();
+        List<User> locked = userRepository.findAllByIdForUpdate(new TreeSet<>(expectedBalances.keySet()));
+        ledgerStats.recordLockAcquisition(System.nanoTime() - lockStart);
+
+        Map<Long, User> users = new HashMap<>();
+        for (User user : locked) {
+            users.put(user.getId(), user);
+        }
+        for (Map.Entry<Long, BigDecimal> expected : expectedBalances.entrySet()) {
+            User user = users.get(expected.getKey());
+            if (user == null || user.getBalance().compareTo(expected.getValue()) != 0) {
+                throw new BalanceConflictException("Balances changed while the batch was being checked");
+            }
+        }
+
+        List<Transaction> transactions = new ArrayList<>(transfers.size());
+        Timestamp recordedAt = new Timestamp(System.currentTimeMillis());
+        for (PlannedTransfer transfer : transfers) {
+            User sender = users.get(transfer.senderId());
+            User receiver = users.get(transfer.receiverId());
+            // Managed entities; dirty checking writes one batched update per account at flush
+            sender.setBalance(transfer.newBalanceOrig());
+            receiver.setBalance(transfer.newBalanceDest());
+
+            TransactionRequest request = transfer.request();
+            transactions.add(Transaction.builder()
+                    .sender(sender)
+                    .receiver(receiver)
+                    .amount(request.getAmount())
+                    .timestamp(timestampOf(request))
+                    .recordedAt(recordedAt)
+                    .description(request.getDescription())
+                    .type(request.getType())
+                    .oldBalanceOrg(transfer.oldBalanceOrg())
+                    .newBalanceOrig(transfer.newBalanceOrig())
+                    .oldBalanceDest(transfer.oldBalanceDest())
+                    .newBalanceDest(transfer.newBalanceDest())
+                    .build());
+        }
+        return transactionRepository.saveAll(transactions);
+    }
+
+    @Transactional
+    public Transaction commit(BalanceSnapshot snapshot, TransactionRequest request) {
+        if (snapshot.senderId().equals(snapshot.receiverId())) {
+            throw new RuntimeException("Sender and receiver must be different");
+        }
+
+        // Lock both rows, lower id first, before reading the balances we are about to overwrite
+        long lockStart = System.nanoTime();
+        boolean senderFirst = snapshot.senderId() < snapshot.receiverId();
+        User first = lockUser(senderFirst ? snapshot.senderId() : snapshot.receiverId());
+        User second = lockUser(senderFirst ? snapshot.receiverId() : snapshot.senderId());
+        ledgerStats.recordLockAcquisition(System.nanoTime() - lockStart);
+
+        User sender = senderFirst ? first : second;
+        User receiver = senderFirst ? second : first;
+
+        if (sender.getBalance().compareTo(snapshot.senderBalance()) != 0
+                || receiver.getBalance().compareTo(snapshot.receiverBalance()) != 0) {
+            throw new BalanceConflictException("Balances changed while the transaction was being checked");
+        }
+
+        BigDecimal amount = request.getAmount();
+        if (sender.getBalance().compareTo(amount) < 0) {
+            throw new RuntimeException("Insufficient balance");
+        }
+
+        BigDecimal newBalanceSender = snapshot.senderBalance().subtract(amount);
+        BigDecimal newBalanceReceiver = snapshot.receiverBalance().add(amount);
+
+        // Update balances
+        sender.setBalance(newBalanceSender);
+        receiver.setBalance(newBalanceReceiver);
+
+        userRepository.save(sender);
+        userRepository.save(receiver);
+
+        // Create transaction record
+        Transaction transaction = Transaction.builder()
+                .sender(sender)
+                .receiver(receiver)
+                .amount(amount)
+                .timestamp(timestampOf(request))
+                .recordedAt(new Timestamp(System.currentTimeMillis()))
+                .description(request.getDescription())
+                .type(request.getType())
+                .oldBalanceOrg(snapshot.senderBalance())
+                .newBalanceOrig(newBalanceSender)
+                .oldBalanceDest(snapshot.receiverBalance())
+                .newBalanceDest(newBalanceReceiver)
+                .build();
+
+        return transactionRepository.save(transaction);
+    }
+
+    private User lockUser(Long id) {
+        return userRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    // History pages seek on (timestamp, id), so every row needs a timestamp
+    private static Timestamp timestampOf(TransactionRequest request) {
+        return request.getTimestamp() != null
+                ? request.getTimestamp()
+                : new Timestamp(System.currentTimeMillis());
+    }
+}
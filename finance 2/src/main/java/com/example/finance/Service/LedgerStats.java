@@ -0,0 +1,76 @@
+package com.example.finance.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contention counters for balance updates: how often taking the account row locks had to wait,
+ * for how long in total, and how often a transfer had to be retried.
+ */
+@Component
+public class LedgerStats {
+
+    private final LongAdder lockAcquisitions = new LongAdder();
+    private final LongAdder lockWaits = new LongAdder();
+    private final LongAdder lockWaitNanos = new LongAdder();
+    private final LongAdder conflictRetries = new LongAdder();
+    private final LongAdder lockFailureRetries = new LongAdder();
+    private final LongAdder exhaustedRetries = new LongAdder();
+
+    private final long lockWaitThresholdNanos;
+
+    public LedgerStats(@Value("${ledger.lock.wait-threshold-ms:2}") long lockWaitThresholdMs) {
+        this.lockWaitThresholdNanos = TimeUnit.MILLISECONDS.toNanos(lockWaitThresholdMs);
+    }
+
+    /**
+     * Records how long it took to lock both accounts of a transfer. Anything above the
+     * threshold is counted as a wait on a lock held by another transfer.
+     */
+    public void recordLockAcquisition(long nanos) {
+        lockAcquisitions.increment();
+        lockWaitNanos.add(nanos);
+        if (nanos > lockWaitThresholdNanos) {
+            lockWaits.increment();
+        }
+    }
+
+    public void recordConflictRetry() {
+        conflictRetries.increment();
+    }
+
+    public void recordLockFailureRetry() {
+        lockFailureRetries.increment();
+    }
+
+    public void recordExhaustedRetries() {
+        exhaustedRetries.increment();
+    }
+
+    public long lockAcquisitions() {
+        return lockAcquisitions.sum();
+    }
+
+    public long lockWaits() {
+        return lockWaits.sum();
+    }
+
+    public long lockWaitNanos() {
+        return lockWaitNanos.sum();
+    }
+
+    public long conflictRetries() {
+        return conflictRetries.sum();
+    }
+
+    public long lockFailureRetries() {
+        return lockFailureRetries.sum();
+    }
+
+    public long exhaustedRetries() {
+        return exhaustedRetries.sum();
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.finance.Service;
+
+import com.example.finance.scoring.FraudScoreCache;
+import com.example.finance.scoring.ScorerReplicaPool;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Probes every scorer replica's {@code /health} in the background and ejects or readmits it in
+ * the {@link ScorerReplicaPool}. Probes go out concurrently on the async client with their own
+ * short timeout, so one hung replica does not delay the verdict on the others. A replica is only
+ * healthy when it answers 2xx with {@code model_loaded: true}; a Flask process that is up but has
+ * no model would otherwise take traffic it can only fail. Turned off with
+ * {@code fraud.detection.health.enabled=false}, which also admits every replica up front.
+ * <p>
+ * The {@code model_version} each healthy replica reports is passed to the {@link FraudScoreCache},
+ * so verdicts from a model no replica serves any more stop being answered from the cache.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ScorerHealthProber {
+
+    private final ScorerReplicaPool scorerReplicaPool;
+    private final CloseableHttpAsyncClient asyncHttpClient;
+    private final FraudScoreCache fraudScoreCache;
+    private final ObjectMapper objectMapper;
+
+    @Value("${fraud.detection.health.enabled:true}")
+    private boolean enabled;
+
+    @Value("${fraud.detection.health.interval-ms:2000}")
+    private long intervalMs;
+
+    @Value("${fraud.detection.health.timeout-ms:1000}")
+    private long timeoutMs;
+
+    @Value("${fraud.detection.backend:remote}")
+    private String backend;
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record Health(String status,
+                  @JsonProperty("model_loaded") Boolean modelLoaded,
+                  @JsonProperty("model_version") String modelVersion) {
+    }
+
+    private final Map<String, String> versionsByReplica = new ConcurrentHashMap<>();
+
+    private Thread prober;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        if (!enabled || "local".equalsIgnoreCase(backend)) {
+            return;
+        }
+        running = true;
+        prober = Thread.ofPlatform().daemon().name("scorer-health-prober").start(this::probeLoop);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (prober != null) {
+            prober.interrupt();
+        }
+    }
+
+    private void probeLoop() {
+        while (running) {
+            probeAll();
+            try {
+                Thread.sleep(Duration.ofMillis(intervalMs));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sends one probe to every replica. Results are applied as the probes complete.
+     */
+    void probeAll() {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(timeoutMs))
+                .setResponseTimeout(Timeout.ofMilliseconds(timeoutMs))
+                .build();
+        for (ScorerReplicaPool.Replica replica : scorerReplicaPool.replicas()) {
+            probe(replica, requestConfig);
+        }
+    }
+
+    private void probe(ScorerReplicaPool.Replica replica, RequestConfig requestConfig) {
+        SimpleHttpRequest request = SimpleRequestBuilder.get(replica.url() + "/health")
+                .setRequestConfig(requestConfig)
+                .build();
+        try {
+            asyncHttpClient.execute(request, new FutureCallback<>() {
+                @Override
+                public void completed(SimpleHttpResponse response) {
+                    Health health = response.getCode() / 100 == 2 ? health(replica, response) : null;
+                    boolean healthy = health != null && Boolean.TRUE.equals(health.modelLoaded());
+                    scorerReplicaPool.probed(replica, healthy);
+                    servedVersion(replica, healthy ? health : null);
+                }
+
+                @Override
+                public void failed(Exception e) {
+                    log.debug("Health probe of {} failed: {}", replica.url(), e.getMessage());
+                    scorerReplicaPool.probed(replica, false);
+                    servedVersion(replica, null);
+                }
+
+                @Override
+                public void cancelled() {
+                }
+            });
+        } catch (Exception e) {
+            // The client is shutting down
+            log.debug("Health probe of {} not sent: {}", replica.url(), e.getMessage());
+        }
+    }
+
+    private Health health(ScorerReplicaPool.Replica replica, SimpleHttpResponse response) {
+        try {
+            return objectMapper.readValue(response.getBodyText(), Health.class);
+        } catch (Exception e) {
+            log.debug("Health of {} unreadable: {}", replica.url(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void servedVersion(ScorerReplicaPool.Replica replica, Health health) {
+        if (health != null && health.modelVersion() != null) {
+            versionsByReplica.put(replica.url(), health.modelVersion());
+        } else {
+            versionsByReplica.remove(replica.url());
+        }
+        fraudScoreCache.setLiveVersions(Set.copyOf(versionsByReplica.values()));
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.finance.Service;
+
+import com.example.finance.scoring.TransferGraph;
+import com.example.finance.scoring.VelocityStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Replays recent transactions into the {@link VelocityStore} and the {@link TransferGraph} before
+ * the application starts taking traffic, so velocity features and graph edges survive a restart.
+ * The replay only rebuilds state; it does not raise anomalies again.
+ */
+@Component
+@Slf4j
+public class ScoringStateLoader {
+
+    private final VelocityStore velocityStore;
+    private final TransferGraph transferGraph;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${fraud.detection.state.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    // Covers the 24h velocity window and most of a graph edge's live time at the default half-life
+    @Value("${fraud.detection.state.rebuild-hours:48}")
+    private long rebuildHours;
+
+    @Value("${fraud.detection.state.rebuild-fetch-size:5000}")
+    private int fetchSize;
+
+    public ScoringStateLoader(VelocityStore velocityStore,
+                              TransferGraph transferGraph,
+                              PlatformTransactionManager transactionManager) {
+        this.velocityStore = velocityStore;
+        this.transferGraph = transferGraph;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @PostConstruct
+    void rebuild() {
+        if (!rebuildOnStartup) {
+            return;
+        }
+        long started = System.nanoTime();
+        long startedMillis = System.currentTimeMillis();
+        Timestamp since = new Timestamp(startedMillis - TimeUnit.HOURS.toMillis(rebuildHours));
+        Long replayed = transactionTemplate.execute(status -> {
+            long rows = 0;
+            try (Stream<Object[]> stream = entityManager.createQuery(
+                            "select t.sender.id, t.receiver.id, t.amount, t.recordedAt from Transaction t "
+                                    + "where t.recordedAt >= :since order by t.recordedAt", Object[].class)
+                    .setParameter("since", since)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                    .setHint(HibernateHints.HINT_READ_ONLY, true)
+                    .getResultStream()) {
+                for (Object[] row : (Iterable<Object[]>) stream::iterator) {
+                    if (row[0] == null || row[1] == null || row[2] == null) {
+                        continue;
+                    }
+                    long senderId = (Long) row[0];
+                    long receiverId = (Long) row[1];
+                    // Velocity and graph edges were recorded at the row's server time, so they are replayed
+                    // at that time too, not at the timestamp the client may have supplied
+                    long recordedMillis = ((Timestamp) row[3]).getTime();
+                    velocityStore.record(senderId, receiverId, ((BigDecimal) row[2]).doubleValue(), recordedMillis);
+                    transferGraph.addTransfer(senderId, receiverId, recordedMillis / 1000);
+                    rows++;
+                }
+            }
+            return rows;
+        });
+        log.info("Rebuilt scoring state from {} transactions ({} velocity accounts, {} graph nodes) in {} ms",
+                replayed, velocityStore.trackedAccounts(), transferGraph.nodeCount(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.finance.Service;
+
+import com.example.finance.scoring.ScoreDisagreement;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends a sample of live scoring requests to a candidate model and compares its verdicts with the
+ * ones the transfers were actually decided on.
+ * <p>
+ * {@link #offer} only samples and enqueues, and drops the pair when the queue is full, so it never
+ * blocks or fails the caller. A single dispatcher thread sends queued requests with at most
+ * {@code fraud.shadow.max-in-flight} outstanding, and the candidate's answers feed a
+ * {@link ScoreDisagreement}. Nothing the candidate returns affects a transfer.
+ * <p>
+ * Requests go out on an async client of its own, with one I/O thread and a connection pool capped
+ * at {@code max-in-flight}, so a slow candidate can never hold connections or reactor time the
+ * primary scorer needs.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ShadowScorer {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${fraud.shadow.enabled:false}")
+    private boolean enabled;
+
+    @Value("${fraud.shadow.url:http://localhost:5001}")
+    private String shadowUrl;
+
+    @Value("${fraud.shadow.sample-rate:0.05}")
+    private double sampleRate;
+
+    @Value("${fraud.shadow.queue-capacity:1024}")
+    private int queueCapacity;
+
+    @Value("${fraud.shadow.max-in-flight:8}")
+    private int maxInFlight;
+
+    @Value("${fraud.shadow.timeout-ms:2000}")
+    private long timeoutMs;
+
+    private record Pending(FraudDetectionService.FraudPredictionRequest request,
+                           boolean primaryFraud, double primaryProbability) {
+    }
+
+    private final ScoreDisagreement disagreement = new ScoreDisagreement();
+    private final LongAdder sampled = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private CloseableHttpAsyncClient asyncHttpClient;
+    private BlockingQueue<Pending> queue;
+    private Semaphore inFlight;
+    private RequestConfig requestConfig;
+    private Thread dispatcher;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        inFlight = new Semaphore(maxInFlight);
+        requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(timeoutMs))
+                .setResponseTimeout(Timeout.ofMilliseconds(timeoutMs))
+                .build();
+        asyncHttpClient = HttpAsyncClients.custom()
+                .setConnectionManager(PoolingAsyncClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(maxInFlight)
+                        .setMaxConnPerRoute(maxInFlight)
+                        .build())
+                .setIOReactorConfig(IOReactorConfig.custom()
+                        .setIoThreadCount(1)
+                        .build())
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .build();
+        asyncHttpClient.start();
+        running = true;
+        dispatcher = Thread.ofPlatform().daemon().name("shadow-scorer").start(this::dispatchLoop);
+        log.info("Shadow scoring {} of requests against {}", sampleRate, shadowUrl);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+            asyncHttpClient.close(CloseMode.IMMEDIATE);
+            log.info("Shadow scorer stopped: {} compared, {} decision disagreements, {} dropped, {} failed",
+                    disagreement.compared(), disagreement.decisionDisagreements(), dropped.sum(), failed.sum());
+        }
+    }
+
+    /**
+     * Samples a scored request for the candidate model. Never blocks.
+     */
+    public void offer(FraudDetectionService.FraudPredictionRequest request,
+                      FraudDetectionService.FraudPredictionResponse primary) {
+        if (!running || primary == null || primary.getError() != null || primary.getRule() != null
+                || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        sampled.increment();
+        if (!queue.offer(new Pending(request, primary.isFraud(), primary.getFraudProbability()))) {
+            dropped.increment();
+        }
+    }
+
+    public ScoreDisagreement getDisagreement() {
+        return disagreement;
+    }
+
+    public int queueDepth() {
+        return queue == null ? 0 : queue.size();
+    }
+
+    public long getSampled() {
+        return sampled.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                Pending pending = queue.poll(1, TimeUnit.SECONDS);
+                if (pending == null) {
+                    continue;
+                }
+                inFlight.acquire();
+                send(pending);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void send(Pending pending) {
+        try {
+            SimpleHttpRequest httpRequest = SimpleRequestBuilder.post(shadowUrl + "/predict")
+                    .setBody(objectMapper.writeValueAsString(pending.request()), ContentType.APPLICATION_JSON)
+                    .setRequestConfig(requestConfig)
+                    .build();
+            asyncHttpClient.execute(httpRequest, new FutureCallback<>() {
+                @Override
+                public void completed(SimpleHttpResponse response) {
+                    try {
+                        compare(pending, response);
+                    } finally {
+                        inFlight.release();
+                    }
+                }
+
+                @Override
+                public void failed(Exception e) {
+                    log.debug("Shadow scoring failed: {}", e.getMessage());
+                    ShadowScorer.this.failed.increment();
+                    inFlight.release();
+                }
+
+                @Override
+                public void cancelled() {
+                    ShadowScorer.this.failed.increment();
+                    inFlight.release();
+                }
+            });
+        } catch (Exception e) {
+            log.debug("Shadow scoring request not sent: {}", e.getMessage());
+            failed.increment();
+            inFlight.release();
+        }
+    }
+
+    private void compare(Pending pending, SimpleHttpResponse response) {
+        if (response.getCode() / 100 != 2 || response.getBodyText() == null) {
+            failed.increment();
+            return;
+        }
+        FraudDetectionService.FraudPredictionResponse candidate;
+        try {
+            candidate = objectMapper.readValue(response.getBodyText(), FraudDetectionService.FraudPredictionResponse.class);
+        } catch (Exception e) {
+            failed.increment();
+            return;
+        }
+        if (candidate.getError() != null) {
+            failed.increment();
+            return;
+        }
+        disagreement.record(
+                decision(pending.primaryFraud(), pending.primaryProbability()), pending.primaryFraud(), pending.primaryProbability(),
+                decision(candidate.isFraud(), candidate.getFraudProbability()), candidate.isFraud(), candidate.getFraudProbability());
+        log.debug("Shadow score: primary is_fraud={} probability={}, candidate is_fraud={} probability={} (model {})",
+                pending.primaryFraud(), pending.primaryProbability(),
+                candidate.isFraud(), candidate.getFraudProbability(), candidate.getModelVersion());
+    }
+
+    private static int decision(boolean isFraud, double probability) {
+        if (FraudDecisionPolicy.shouldBlock(isFraud, probability)) {
+            return ScoreDisagreement.BLOCK;
+        }
+        return FraudDecisionPolicy.requiresManualReview(isFraud, probability)
+                ? ScoreDisagreement.REVIEW
+                : ScoreDisagreement.APPROVE;
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.finance.Service;
+
+import com.example.finance.dto.TransactionExportRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams the transactions table to an output stream as NDJSON or CSV.
+ * <p>
+ * Rows come from a forward-only JDBC cursor with a bounded fetch size and are projected straight
+ * into {@link TransactionExportRow}, so nothing is added to the persistence context and memory
+ * stays flat however many rows are exported.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+
+    static final String CSV_HEADER = "id,senderId,receiverId,type,amount,oldBalanceOrg,newBalanceOrig,"
+            + "oldBalanceDest,newBalanceDest,timestamp,description";
+
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${transaction.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${transaction.export.flush-every-rows:5000}")
+    private int flushEveryRows;
+
+    /**
+     * Writes every transaction with a timestamp in {@code [from, to)} (either bound optional),
+     * ordered by id. Returns the number of rows written.
+     */
+    @Transactional(readOnly = true)
+    public long export(Format format, Instant from, Instant to, OutputStream out) throws IOException {
+        StringBuilder jpql = new StringBuilder("select new com.example.finance.dto.TransactionExportRow("
+                + "t.id, t.sender.id, t.receiver.id, t.type, t.amount, t.oldBalanceOrg, t.newBalanceOrig, "
+                + "t.oldBalanceDest, t.newBalanceDest, t.timestamp, t.description) "
+                + "from Transaction t where 1 = 1");
+        if (from != null) {
+            jpql.append(" and t.timestamp >= :from");
+        }
+        if (to != null) {
+            jpql.append(" and t.timestamp < :to");
+        }
+        jpql.append(" order by t.id");
+
+        TypedQuery<TransactionExportRow> query = entityManager
+                .createQuery(jpql.toString(), TransactionExportRow.class)
+                // PostgreSQL only uses a server-side cursor when a fetch size is set inside a transaction
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (from != null) {
+            query.setParameter("from", Timestamp.from(from));
+        }
+        if (to != null) {
+            query.setParameter("to", Timestamp.from(to));
+        }
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        long rows = 0;
+        try (Stream<TransactionExportRow> stream = query.getResultStream()) {
+            Iterator<TransactionExportRow> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                TransactionExportRow row = iterator.next();
+                if (format == Format.CSV) {
+                    writeCsv(writer, row);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                }
+                if (++rows % flushEveryRows == 0) {
+                    // Push what we have to the client so it sees progress and the buffers stay small
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        log.info("Exported {} transactions as {}", rows, format);
+        return rows;
+    }
+
+    private static void writeCsv(Writer writer, TransactionExportRow row) throws IOException {
+        writer.write(String.valueOf(row.id()));
+        writer.write(',');
+        writer.write(nullToEmpty(row.senderId()));
+        writer.write(',');
+        writer.write(nullToEmpty(row.receiverId()));
+        writer.write(',');
+        writer.write(nullToEmpty(row.type()));
+        writer.write(',');
+        writer.write(plain(row.amount()));
+        writer.write(',');
+        writer.write(plain(row.oldBalanceOrg()));
+        writer.write(',');
+        writer.write(plain(row.newBalanceOrig()));
+        writer.write(',');
+        writer.write(plain(row.oldBalanceDest()));
+        writer.write(',');
+        writer.write(plain(row.newBalanceDest()));
+        writer.write(',');
+        writer.write(row.timestamp() == null ? "" : row.timestamp().toInstant().toString());
+        writer.write(',');
+        writer.write(escapeCsv(row.description()));
+        writer.write('\n');
+    }
+
+    private static String plain(BigDecimal value) {
+        return value == null ? "" : value.toPlainString();
+    }
+
+    private static String nullToEmpty(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    static String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
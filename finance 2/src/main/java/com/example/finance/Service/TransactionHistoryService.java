@@ -0,0 +1,119 @@
+package com.example.finance.Service;
+
+import com.example.finance.config.JwtPrincipal;
+import com.example.finance.dto.TransactionHistoryItem;
+import com.example.finance.dto.TransactionHistoryPage;
+import com.example.finance.entity.User;
+import com.example.finance.repository.TransactionRepository;
+import com.example.finance.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Per-user transaction history, sent and received merged, newest first.
+ * <p>
+ * Each page runs one keyset query per direction, both seeking on {@code (timestamp, id)} from the
+ * cursor, and merges the two sorted results. Neither query needs an offset, so page cost does not
+ * grow with how far back the user scrolls.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionHistoryService {
+
+    // Upper bound for the first page; later pages seek from the last row they returned
+    private static final Timestamp FIRST_PAGE_TIMESTAMP = Timestamp.from(Instant.parse("9999-12-31T23:59:59Z"));
+
+    private static final Comparator<TransactionHistoryItem> NEWEST_FIRST = Comparator
+            .comparing(TransactionHistoryItem::timestamp)
+            .thenComparing(TransactionHistoryItem::id)
+            .reversed();
+
+    private final TransactionRepository transactionRepository;
+    private final UserRepository userRepository;
+
+    @Value("${transaction.history.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${transaction.history.max-page-size:200}")
+    private int maxPageSize;
+
+    @Transactional(readOnly = true)
+    public TransactionHistoryPage getHistory(Long userId, String cursor, Integer limit) {
+        int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        Timestamp beforeTimestamp = FIRST_PAGE_TIMESTAMP;
+        long beforeId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            Cursor decoded = decodeCursor(cursor);
+            beforeTimestamp = decoded.timestamp();
+            beforeId = decoded.id();
+        }
+
+        // pageSize + 1 per side: enough to fill the page from either side alone and to know if more exist
+        PageRequest window = PageRequest.of(0, pageSize + 1);
+        List<TransactionHistoryItem> merged = new ArrayList<>(2 * (pageSize + 1));
+        merged.addAll(transactionRepository.findSentBefore(userId, beforeTimestamp, beforeId, window));
+        merged.addAll(transactionRepository.findReceivedBefore(userId, beforeTimestamp, beforeId, window));
+        merged.sort(NEWEST_FIRST);
+
+        boolean hasMore = merged.size() > pageSize;
+        List<TransactionHistoryItem> items = hasMore ? merged.subList(0, pageSize) : merged;
+        TransactionHistoryItem last = hasMore ? items.get(items.size() - 1) : null;
+        return TransactionHistoryPage.builder()
+                .items(List.copyOf(items))
+                .nextCursor(last == null ? null : encodeCursor(last.timestamp(), last.id()))
+                .build();
+    }
+
+    /**
+     * The caller's user id, taken from the principal when it carries one so no lookup is needed.
+     */
+    public Long currentUserId(Authentication authentication) {
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof JwtPrincipal jwtPrincipal) {
+            return jwtPrincipal.id();
+        }
+        if (principal instanceof User user) {
+            return user.getId();
+        }
+        return userRepository.findByEmail(authentication.getName())
+                .map(User::getId)
+                .orElseThrow(() -> new NoSuchElementException("User not found: " + authentication.getName()));
+    }
+
+    private record Cursor(Timestamp timestamp, long id) {
+    }
+
+    static String encodeCursor(Timestamp timestamp, long id) {
+        Instant instant = timestamp.toInstant();
+        String raw = instant.getEpochSecond() + ":" + instant.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            Instant instant = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new Cursor(Timestamp.from(instant), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException and bad base64 both land here
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
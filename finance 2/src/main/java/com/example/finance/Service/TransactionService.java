@@ -4,12 +4,15 @@ import com.example.finance.Service.FraudDetectionService;
 import com.example.finance.dto.TransactionRequest;
 import com.example.finance.dto.TransactionResponse;
 import com.example.finance.entity.Transaction;
+import com.example.finance.entity.Type;
 import com.example.finance.entity.User;
-import com.example.finance.repository.TransactionRepository;
 import com.example.finance.repository.UserRepository;
-import jakarta.transaction.Transactional;
+import com.example.finance.scoring.Deadline;
+import com.example.finance.scoring.VelocityStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -19,79 +22,149 @@ import java.math.BigDecimal;
 @Slf4j
 public class TransactionService {
 
-    private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
     private final FraudDetectionService fraudDetectionService;
-
-    @Transactional
+    private final LedgerService ledgerService;
+    private final LedgerStats ledgerStats;
+    private final AnomalyRecorder anomalyRecorder;
+    private final VelocityStore velocityStore;
+    private final GraphAnomalyDetector graphAnomalyDetector;
+    private final TransferMetrics transferMetrics;
+
+    @Value("${transaction.conflict.max-attempts:3}")
+    private int maxConflictAttempts;
+
+    /**
+     * Runs in three phases so no JDBC connection is held while the scorer is called:
+     * read both balances, score outside any transaction, then commit in a short transaction
+     * that re-validates the balances. If they moved in between, the transfer is re-scored.
+     */
     public TransactionResponse createTransaction(TransactionRequest request) {
-        User sender = userRepository.findByEmail(request.getSenderEmail())
-                .orElseThrow(() -> new RuntimeException("Sender not found"));
-        User receiver = userRepository.findByEmail(request.getReceiverEmail())
-                .orElseThrow(() -> new RuntimeException("Receiver not found"));
+        return createTransaction(request, Deadline.none());
+    }
 
-        BigDecimal oldBalanceSender = sender.getBalance();
-        BigDecimal oldBalanceReceiver = receiver.getBalance();
-        BigDecimal amount = request.getAmount();
+    /**
+     * As {@link #createTransaction(TransactionRequest)}, with scoring bounded by {@code deadline}
+     * across all attempts.
+     */
+    public TransactionResponse createTransaction(TransactionRequest request, Deadline deadline) {
+        long start = System.nanoTime();
+        try {
+            return createWithRetries(request, deadline);
+        } finally {
+            transferMetrics.recordStage(TransferMetrics.STAGE_TOTAL, System.nanoTime() - start);
+        }
+    }
 
-        // Validate sender has sufficient balance
-        if (oldBalanceSender.compareTo(amount) < 0) {
-            throw new RuntimeException("Insufficient balance");
+    private TransactionResponse createWithRetries(TransactionRequest request, Deadline deadline) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return attemptTransaction(request, deadline);
+            } catch (LedgerService.BalanceConflictException e) {
+                if (attempt >= maxConflictAttempts) {
+                    ledgerStats.recordExhaustedRetries();
+                    throw new RuntimeException("Transaction conflict: " + e.getMessage());
+                }
+                ledgerStats.recordConflictRetry();
+                log.info("Balance conflict for {} -> {}, retrying ({}/{})",
+                        request.getSenderEmail(), request.getReceiverEmail(), attempt, maxConflictAttempts);
+            } catch (PessimisticLockingFailureException e) {
+                // Lock timeout or deadlock victim; the transaction was rolled back, so it is safe to retry
+                if (attempt >= maxConflictAttempts) {
+                    ledgerStats.recordExhaustedRetries();
+                    throw new RuntimeException("Transaction conflict: could not lock accounts");
+                }
+                ledgerStats.recordLockFailureRetry();
+                log.info("Lock failure for {} -> {}, retrying ({}/{}): {}",
+                        request.getSenderEmail(), request.getReceiverEmail(), attempt, maxConflictAttempts, e.getMessage());
+            }
         }
+    }
 
-        BigDecimal newBalanceSender = oldBalanceSender.subtract(amount);
-        BigDecimal newBalanceReceiver = oldBalanceReceiver.add(amount);
+    private TransactionResponse attemptTransaction(TransactionRequest request, Deadline deadline) {
+        long snapshotStart = System.nanoTime();
+        LedgerService.BalanceSnapshot snapshot =
+                ledgerService.snapshot(request.getSenderEmail(), request.getReceiverEmail());
+        transferMetrics.recordStage(TransferMetrics.STAGE_SNAPSHOT, System.nanoTime() - snapshotStart);
 
         // Perform fraud detection before processing the transaction
-        FraudDetectionService.FraudPredictionResponse fraudResult = fraudDetectionService.checkFraud(
-                request.getType().name(),
-                amount,
-                oldBalanceSender,
-                newBalanceSender,
-                oldBalanceReceiver,
-                newBalanceReceiver
-        );
+        FraudDetectionService.FraudPredictionRequest fraudRequest = scoringRequest(
+                request.getType(), request.getAmount(), snapshot.senderBalance(), snapshot.receiverBalance());
+        fraudDetectionService.applyVelocity(fraudRequest, snapshot.senderId(), snapshot.receiverId());
+        FraudDetectionService.FraudPredictionResponse fraudResult = fraudDetectionService.checkFraud(fraudRequest, deadline);
 
         log.info("Fraud detection result for transaction: is_fraud={}, probability={}, confidence={}",
                 fraudResult.isFraud(), fraudResult.getFraudProbability(), fraudResult.getConfidence());
 
         // Handle fraud detection result
-        boolean isFraudulent = fraudResult.isFraud();
-        boolean isHighRisk = fraudResult.getFraudProbability() > 0.7; // Configurable threshold
-
         // You can decide how to handle fraudulent transactions:
         // Option 1: Block the transaction completely
-        if (isFraudulent && fraudResult.getFraudProbability() > 0.9) {
+        if (shouldBlock(fraudResult)) {
+            transferMetrics.recordDecision(true, true);
             throw new RuntimeException("Transaction blocked due to fraud detection");
         }
 
         // Option 2: Flag for manual review but allow transaction
-        boolean requiresManualReview = isFraudulent || isHighRisk;
-
-        // Update balances
-        sender.setBalance(newBalanceSender);
-        receiver.setBalance(newBalanceReceiver);
-
-        userRepository.save(sender);
-        userRepository.save(receiver);
-
-        // Create transaction record
-        Transaction transaction = Transaction.builder()
-                .sender(sender)
-                .receiver(receiver)
-                .amount(request.getAmount())
-                .timestamp(request.getTimestamp())
-                .description(request.getDescription())
-                .type(request.getType())
-                .oldBalanceOrg(oldBalanceSender)
-                .newBalanceOrig(newBalanceSender)
-                .oldBalanceDest(oldBalanceReceiver)
-                .newBalanceDest(newBalanceReceiver)
-                .build();
+        boolean requiresManualReview = requiresManualReview(fraudResult);
+
+        // Update balances and create the transaction record, provided the balances did not move
+        long commitStart = System.nanoTime();
+        Transaction savedTransaction = ledgerService.commit(snapshot, request);
+        transferMetrics.recordStage(TransferMetrics.STAGE_COMMIT, System.nanoTime() - commitStart);
+        // Counted once committed, so a re-scored retry is not counted twice
+        transferMetrics.recordDecision(false, requiresManualReview);
+        recordVelocity(velocityStore, savedTransaction);
+        graphAnomalyDetector.onCommitted(savedTransaction);
+
+        if (requiresManualReview) {
+            anomalyRecorder.record(savedTransaction, fraudResult);
+        }
+
+        return toResponse(savedTransaction, fraudResult);
+    }
+
+    // Recorded at the row's server time: the stored timestamp can come from the client, and velocity
+    // is read against the server clock, so a back- or future-dated transfer would otherwise miss its
+    // windows. The startup rebuild replays the same column
+    static void recordVelocity(VelocityStore velocityStore, Transaction savedTransaction) {
+        velocityStore.record(
+                savedTransaction.getSender().getId(),
+                savedTransaction.getReceiver().getId(),
+                savedTransaction.getAmount().doubleValue(),
+                savedTransaction.getRecordedAt().getTime()
+        );
+    }
+
+    /**
+     * Checks the sender can cover {@code amount} and builds the scoring request from the balances
+     * before and after the transfer.
+     */
+    static FraudDetectionService.FraudPredictionRequest scoringRequest(
+            Type type, BigDecimal amount, BigDecimal oldBalanceSender, BigDecimal oldBalanceReceiver) {
+        // Validate sender has sufficient balance
+        if (oldBalanceSender.compareTo(amount) < 0) {
+            throw new RuntimeException("Insufficient balance");
+        }
+        return FraudDetectionService.buildRequest(
+                type.name(),
+                amount,
+                oldBalanceSender,
+                oldBalanceSender.subtract(amount),
+                oldBalanceReceiver,
+                oldBalanceReceiver.add(amount)
+        );
+    }
 
-        Transaction savedTransaction = transactionRepository.save(transaction);
+    static boolean shouldBlock(FraudDetectionService.FraudPredictionResponse fraudResult) {
+        return FraudDecisionPolicy.shouldBlock(fraudResult.isFraud(), fraudResult.getFraudProbability());
+    }
 
+    static boolean requiresManualReview(FraudDetectionService.FraudPredictionResponse fraudResult) {
+        return FraudDecisionPolicy.requiresManualReview(fraudResult.isFraud(), fraudResult.getFraudProbability());
+    }
 
+    static TransactionResponse toResponse(Transaction savedTransaction,
+                                          FraudDetectionService.FraudPredictionResponse fraudResult) {
         // Build response with fraud detection results
         return TransactionResponse.builder()
                 .id(savedTransaction.getId())
@@ -105,7 +178,7 @@ public class TransactionService {
                 .newBalanceOrig(savedTransaction.getNewBalanceOrig())
                 .oldBalanceDest(savedTransaction.getOldBalanceDest())
                 .newBalanceDest(savedTransaction.getNewBalanceDest())
-                .isFraudSuspected(isFraudulent)
+                .isFraudSuspected(fraudResult.isFraud())
                 .fraudProbability(fraudResult.getFraudProbability())
                 .fraudDetectionError(fraudResult.getError())
                 .build();
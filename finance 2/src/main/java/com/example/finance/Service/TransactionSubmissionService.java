@@ -0,0 +1,175 @@
+package com.example.finance.Service;
+
+import com.example.finance.dto.TransactionRequest;
+import com.example.finance.dto.TransactionResponse;
+import com.example.finance.dto.TransactionStatusResponse;
+import com.example.finance.dto.TransactionStatusResponse.Status;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepts transactions for background processing. Submissions go into a bounded queue that a
+ * fixed set of virtual-thread workers drains through {@link TransactionService#createTransaction};
+ * callers poll {@link #getStatus} with the tracking id they were given.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionSubmissionService {
+
+    private final TransactionService transactionService;
+
+    @Value("${transaction.async.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${transaction.async.workers:32}")
+    private int workerCount;
+
+    @Value("${transaction.async.status-retention-minutes:60}")
+    private long statusRetentionMinutes;
+
+    @Value("${transaction.async.shutdown-timeout-seconds:30}")
+    private long shutdownTimeoutSeconds;
+
+    private record Submission(String trackingId, TransactionRequest request) {
+    }
+
+    private final Map<String, TransactionStatusResponse> statuses = new ConcurrentHashMap<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private BlockingQueue<Submission> queue;
+    private Thread sweeper;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(Thread.ofVirtual().name("transaction-worker-" + i).start(this::drain));
+        }
+        sweeper = Thread.ofVirtual().name("transaction-status-sweeper").start(this::sweep);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // Stop accepting work, let the workers finish what is already queued, then give up
+        running = false;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(shutdownTimeoutSeconds);
+        for (Thread worker : workers) {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis > 0) {
+                worker.join(remainingMillis);
+            }
+            worker.interrupt();
+        }
+        sweeper.interrupt();
+
+        List<Submission> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        for (Submission submission : abandoned) {
+            fail(submission.trackingId(), "Service shut down before the transaction was processed");
+        }
+        if (!abandoned.isEmpty()) {
+            log.warn("{} queued transactions were not processed before shutdown", abandoned.size());
+        }
+    }
+
+    /**
+     * Queues a transaction and returns its tracking id, or empty if the queue is full.
+     */
+    public Optional<String> submit(TransactionRequest request) {
+        if (!running) {
+            return Optional.empty();
+        }
+        String trackingId = UUID.randomUUID().toString();
+        statuses.put(trackingId, TransactionStatusResponse.builder()
+                .trackingId(trackingId)
+                .status(Status.QUEUED)
+                .submittedAt(Instant.now())
+                .build());
+        if (!queue.offer(new Submission(trackingId, request))) {
+            statuses.remove(trackingId);
+            return Optional.empty();
+        }
+        return Optional.of(trackingId);
+    }
+
+    public Optional<TransactionStatusResponse> getStatus(String trackingId) {
+        return Optional.ofNullable(statuses.get(trackingId));
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            Submission submission;
+            try {
+                submission = queue.poll(200, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (submission != null) {
+                process(submission);
+            }
+        }
+    }
+
+    private void process(Submission submission) {
+        statuses.computeIfPresent(submission.trackingId(),
+                (id, status) -> status.toBuilder().status(Status.PROCESSING).build());
+        try {
+            TransactionResponse result = transactionService.createTransaction(submission.request());
+            statuses.computeIfPresent(submission.trackingId(), (id, status) -> status.toBuilder()
+                    .status(Status.COMPLETED)
+                    .completedAt(Instant.now())
+                    .result(result)
+                    .build());
+        } catch (RuntimeException e) {
+            log.info("Async transaction {} failed: {}", submission.trackingId(), e.getMessage());
+            fail(submission.trackingId(), e.getMessage());
+        }
+    }
+
+    private void fail(String trackingId, String error) {
+        statuses.computeIfPresent(trackingId, (id, status) -> status.toBuilder()
+                .status(Status.FAILED)
+                .completedAt(Instant.now())
+                .error(error)
+                .build());
+    }
+
+    /**
+     * Drops finished statuses once they are older than the retention window so the map stays bounded.
+     */
+    private void sweep() {
+        Duration retention = Duration.ofMinutes(statusRetentionMinutes);
+        while (running) {
+            try {
+                Thread.sleep(Duration.ofMinutes(1));
+            } catch (InterruptedException e) {
+                return;
+            }
+            Instant cutoff = Instant.now().minus(retention);
+            statuses.values().removeIf(status -> status.getCompletedAt() != null
+                    && status.getCompletedAt().isBefore(cutoff));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.finance.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-stage timers and decision counters for the transfer path. Every timer publishes a
+ * percentile histogram, so p50/p99 per stage can be computed from the Prometheus buckets.
+ * <p>
+ * Meters are registered once here; the hot path only calls {@link Timer#record(long, TimeUnit)}
+ * or {@link Counter#increment()} on a cached instance.
+ */
+@Component
+public class TransferMetrics {
+
+    public static final String STAGE_SNAPSHOT = "snapshot";
+    public static final String STAGE_COMMIT = "commit";
+    public static final String STAGE_BATCH_COMMIT = "batch_commit";
+    public static final String STAGE_TOTAL = "total";
+
+    private final Timer scoringSuccess;
+    private final Timer scoringError;
+    private final Timer scoringUnavailable;
+    private final Timer scoringRejected;
+    private final Timer scoringDeadline;
+    private final Timer snapshot;
+    private final Timer commit;
+    private final Timer batchCommit;
+    private final Timer total;
+    private final Counter blocked;
+    private final Counter review;
+    private final Counter approved;
+
+    public TransferMetrics(MeterRegistry registry) {
+        scoringSuccess = scoringTimer(registry, "success");
+        scoringError = scoringTimer(registry, "error");
+        scoringUnavailable = scoringTimer(registry, "unavailable");
+        scoringRejected = scoringTimer(registry, "rejected");
+        scoringDeadline = scoringTimer(registry, "deadline_exceeded");
+        snapshot = stageTimer(registry, STAGE_SNAPSHOT);
+        commit = stageTimer(registry, STAGE_COMMIT);
+        batchCommit = stageTimer(registry, STAGE_BATCH_COMMIT);
+        total = stageTimer(registry, STAGE_TOTAL);
+        blocked = decisionCounter(registry, "blocked");
+        review = decisionCounter(registry, "review");
+        approved = decisionCounter(registry, "approved");
+    }
+
+    /**
+     * Records one model call. Rule-decided transfers never reach the model and are not timed here.
+     */
+    public void recordScoring(long nanos, FraudDetectionService.FraudPredictionResponse response) {
+        Timer timer;
+        if (response == null) {
+            timer = scoringError;
+        } else if (response.getError() == null) {
+            timer = scoringSuccess;
+        } else if (FraudDetectionService.SERVICE_UNAVAILABLE.equals(response.getError())) {
+            timer = scoringUnavailable;
+        } else if (FraudDetectionService.SCORER_REJECTED.equals(response.getError())) {
+            timer = scoringRejected;
+        } else if (FraudDetectionService.DEADLINE_EXCEEDED.equals(response.getError())) {
+            timer = scoringDeadline;
+        } else {
+            timer = scoringError;
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordStage(String stage, long nanos) {
+        Timer timer = switch (stage) {
+            case STAGE_SNAPSHOT -> snapshot;
+            case STAGE_COMMIT -> commit;
+            case STAGE_BATCH_COMMIT -> batchCommit;
+            case STAGE_TOTAL -> total;
+            default -> throw new IllegalArgumentException("Unknown transfer stage " + stage);
+        };
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDecision(boolean block, boolean manualReview) {
+        if (block) {
+            blocked.increment();
+        } else if (manualReview) {
+            review.increment();
+        } else {
+            approved.increment();
+        }
+    }
+
+    private static Timer scoringTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("fraud.scoring")
+                .description("Fraud model calls, from request to parsed verdict")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                // The local backend answers in microseconds, the remote one in milliseconds
+                .minimumExpectedValue(Duration.ofNanos(50_000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry);
+    }
+
+    private static Timer stageTimer(MeterRegistry registry, String stage) {
+        return Timer.builder("transfer.stage")
+                .description("Transfer stages: balance snapshot, locked balance update and insert including "
+                        + "the flush at commit, bulk chunk commit, and the whole transfer with retries")
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry);
+    }
+
+    private static Counter decisionCounter(MeterRegistry registry, String decision) {
+        return Counter.builder("transfer.decisions")
+                .description("Transfers by fraud decision")
+                .tag("decision", decision)
+                .register(registry);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.finance.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+
+/**
+ * Application defaults at the lowest precedence, so {@code application.properties}, the
+ * environment and command-line arguments still override them. Registered in
+ * {@code META-INF/spring.factories}, so they apply however the application is started,
+ * tests included.
+ */
+public class DefaultPropertiesPostProcessor implements EnvironmentPostProcessor, Ordered {
+
+    static final String PROPERTY_SOURCE_NAME = "financeDefaults";
+
+    static final Map<String, Object> DEFAULTS = Map.of(
+            // Keep JDBC connections scoped to transactions, not whole requests
+            "spring.jpa.open-in-view", "false",
+            "management.endpoints.web.exposure.include", "health,info,metrics,prometheus",
+            // Percentile histograms for the HTTP server timers too, not just the pipeline ones
+            "management.metrics.distribution.percentiles-histogram.http.server.requests", "true",
+            "management.metrics.tags.application", "finance-anomaly-backend"
+    );
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        environment.getPropertySources().addLast(new MapPropertySource(PROPERTY_SOURCE_NAME, DEFAULTS));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.finance.config;
+
+import com.example.finance.entity.Type;
+import com.example.finance.scoring.FraudRuleEngine;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Prefilter rules under {@code fraud.rules}. Off and empty unless configured, since a rule changes
+ * decisions before the model sees the transfer. For example:
+ * <pre>
+ * fraud.rules.enabled=true
+ * fraud.rules.definitions[0].name=full-balance-cash-out
+ * fraud.rules.definitions[0].decision=BLOCK
+ * fraud.rules.definitions[0].types=CASH_OUT
+ * fraud.rules.definitions[0].min-sender-ratio=1.0
+ * fraud.rules.definitions[0].min-old-balance-org=0.01
+ * fraud.rules.definitions[0].max-new-balance-orig=0.0
+ * </pre>
+ * An ALLOW rule must also set {@code max-sender-count1h}, so a sender's burst of transfers still
+ * reaches the model.
+ */
+@Data
+@ConfigurationProperties(prefix = "fraud.rules")
+public class FraudRuleProperties {
+
+    private boolean enabled = false;
+
+    private List<Definition> definitions = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Definition {
+        private String name;
+        private FraudRuleEngine.Decision decision;
+        private Set<Type> types;
+        private Double minAmount;
+        private Double maxAmount;
+        private Double minSenderRatio;
+        private Double maxSenderRatio;
+        private Double minOldBalanceOrg;
+        private Double maxNewBalanceOrig;
+        private Long maxSenderCount1h;
+
+        public FraudRuleEngine.Rule toRule() {
+            return new FraudRuleEngine.Rule(name, decision, types, minAmount, maxAmount,
+                    minSenderRatio, maxSenderRatio, minOldBalanceOrg, maxNewBalanceOrig, maxSenderCount1h);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.finance.config;
+
+import com.example.finance.scoring.CircuitBreaker;
+import com.example.finance.scoring.FraudRuleEngine;
+import com.example.finance.scoring.FraudScoreCache;
+import com.example.finance.scoring.LocalFraudModel;
+import com.example.finance.scoring.ScorerReplicaPool;
+import com.example.finance.scoring.TransferGraph;
+import com.example.finance.scoring.VelocityStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableConfigurationProperties(FraudRuleProperties.class)
+public class FraudScoringConfig {
+
+    @Bean
+    public LocalFraudModel localFraudModel(
+            @Value("${fraud.detection.local.model:classpath:model/fraud_model.json}") Resource model) throws IOException {
+        try (InputStream in = model.getInputStream()) {
+            return LocalFraudModel.load(in);
+        }
+    }
+
+    @Bean
+    public FraudRuleEngine fraudRuleEngine(FraudRuleProperties properties) {
+        if (!properties.isEnabled()) {
+            return new FraudRuleEngine(List.of());
+        }
+        return new FraudRuleEngine(properties.getDefinitions().stream()
+                .map(FraudRuleProperties.Definition::toRule)
+                .toList());
+    }
+
+    @Bean
+    public VelocityStore velocityStore(@Value("${fraud.detection.velocity.max-accounts:200000}") int maxAccounts) {
+        return new VelocityStore(maxAccounts);
+    }
+
+    @Bean
+    public TransferGraph transferGraph(
+            @Value("${fraud.graph.max-nodes:500000}") int maxNodes,
+            @Value("${fraud.graph.max-edges-per-node:256}") int maxEdgesPerNode,
+            @Value("${fraud.graph.edge-half-life-hours:24}") long halfLifeHours,
+            @Value("${fraud.graph.live-weight:0.25}") double liveWeight) {
+        return new TransferGraph(maxNodes, maxEdgesPerNode, TimeUnit.HOURS.toSeconds(halfLifeHours), liveWeight);
+    }
+
+    @Bean
+    public FraudScoreCache fraudScoreCache(
+            @Value("${fraud.detection.cache.enabled:false}") boolean enabled,
+            @Value("${fraud.detection.cache.max-entries:65536}") int maxEntries,
+            @Value("${fraud.detection.cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${fraud.detection.cache.quantum:0.01}") double quantum) {
+        // Smallest possible table when disabled; FraudDetectionService skips it entirely
+        return new FraudScoreCache(enabled ? maxEntries : 1, TimeUnit.SECONDS.toMillis(ttlSeconds), quantum);
+    }
+
+    @Bean
+    public CircuitBreaker scorerCircuitBreaker(
+            @Value("${fraud.detection.breaker.window-size:50}") int windowSize,
+            @Value("${fraud.detection.breaker.minimum-calls:20}") int minimumCalls,
+            @Value("${fraud.detection.breaker.failure-rate:0.5}") double failureRate,
+            @Value("${fraud.detection.breaker.slow-call-ms:2000}") long slowCallMs,
+            @Value("${fraud.detection.breaker.open-ms:10000}") long openMs,
+            @Value("${fraud.detection.breaker.half-open-calls:3}") int halfOpenCalls,
+            @Value("${fraud.detection.breaker.max-concurrent:32}") int maxConcurrent) {
+        return new CircuitBreaker("fraud-scorer", windowSize, minimumCalls, failureRate,
+                TimeUnit.MILLISECONDS.toNanos(slowCallMs), TimeUnit.MILLISECONDS.toNanos(openMs),
+                halfOpenCalls, maxConcurrent);
+    }
+
+    /**
+     * Scorer replicas from the comma-separated {@code fraud.detection.api.urls}; falls back to the
+     * single {@code fraud.detection.api.url}. While the health prober runs, a replica only takes
+     * traffic once its first probe has passed.
+     */
+    @Bean
+    public ScorerReplicaPool scorerReplicaPool(
+            @Value("${fraud.detection.api.urls:${fraud.detection.api.url:http://localhost:5000}}") List<String> urls,
+            @Value("${fraud.detection.replicas.eject-after-failures:3}") int ejectAfterFailures,
+            @Value("${fraud.detection.health.enabled:true}") boolean probed,
+            @Value("${fraud.detection.backend:remote}") String backend) {
+        return new ScorerReplicaPool(urls, ejectAfterFailures, probed && !"local".equalsIgnoreCase(backend));
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.finance.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Turns on Hibernate JDBC batching with ordered inserts and updates. Explicit
+ * {@code spring.jpa.properties.hibernate.*} settings take precedence over these defaults.
+ */
+@Configuration
+public class JpaBatchConfig {
+
+    @Value("${transaction.batch.jdbc-batch-size:50}")
+    private int jdbcBatchSize;
+
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchingCustomizer() {
+        return properties -> {
+            properties.putIfAbsent("hibernate.jdbc.batch_size", jdbcBatchSize);
+            properties.putIfAbsent("hibernate.order_inserts", true);
+            properties.putIfAbsent("hibernate.order_updates", true);
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.finance.config;
+
+import com.example.finance.entity.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Authenticated caller rebuilt from verified token claims, used in stateless mode instead of
+ * loading the full {@link com.example.finance.entity.User} entity on every request.
+ */
+public record JwtPrincipal(Long id, String email, Role role) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role.name()));
+    }
+}
@@ -1,10 +1,15 @@
 package com.example.finance.config;
+import com.example.finance.entity.Role;
 import com.example.finance.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -13,15 +18,41 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
 
 @Service
+@RequiredArgsConstructor
 public class JwtService {
 
+    private final TokenDenyList tokenDenyList;
+
     @Value("${jwt.secret}")
     private String secretKey;
 
+    @Value("${jwt.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+
+    // Derived once; both are immutable and thread-safe
+    private Key signInKey;
+    private JwtParser parser;
+
+    // Recently verified tokens, so repeat requests with the same token skip the HMAC check
+    private final Map<String, Claims> verifiedTokens = new ConcurrentHashMap<>();
+    private final AtomicLong lastPurgeMillis = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signInKey)
+                .build();
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -35,6 +66,7 @@ public class JwtService {
     public String generateToken(User user) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("role", user.getRole().name());
+        claims.put("uid", user.getId());
         return generateToken(claims, user);
     }
 
@@ -46,37 +78,124 @@ public class JwtService {
         return Jwts
                 .builder()
                 .setClaims(extraClaims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 24))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verifies the token's signature and expiry with a single parse and returns its claims,
+     * or empty if the token is malformed, forged, expired or revoked.
+     */
+    public Optional<Claims> validateToken(String token) {
+        long now = System.currentTimeMillis();
+        Claims cached = verifiedTokens.get(token);
+        if (cached != null) {
+            if (!isExpired(cached, now) && !tokenDenyList.isRevoked(cached.getId())) {
+                return Optional.of(cached);
+            }
+            verifiedTokens.remove(token);
+            return Optional.empty();
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (tokenDenyList.isRevoked(claims.getId())) {
+            return Optional.empty();
+        }
+        cache(token, claims, now);
+        return Optional.of(claims);
+    }
+
+    /**
+     * Revokes a still-valid token until its expiry. Tokens issued without an id cannot be
+     * revoked individually and simply run out.
+     *
+     * @return true if the token is no longer accepted
+     */
+    public boolean revokeToken(String token) {
+        Optional<Claims> claims = validateToken(token);
+        if (claims.isEmpty()) {
+            return true;
+        }
+        Claims body = claims.get();
+        if (body.getId() == null || body.getExpiration() == null) {
+            return false;
+        }
+        boolean revoked = tokenDenyList.revoke(body.getId(), body.getExpiration().getTime());
+        if (revoked) {
+            verifiedTokens.remove(token);
+        }
+        return revoked;
+    }
+
+    /**
+     * Builds the caller from verified claims alone. Empty for tokens issued before the
+     * {@code uid} claim was added, which still need a user lookup.
+     */
+    public Optional<JwtPrincipal> toPrincipal(Claims claims) {
+        Object uid = claims.get("uid");
+        String role = claims.get("role", String.class);
+        String email = claims.getSubject();
+        if (!(uid instanceof Number id) || role == null || email == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new JwtPrincipal(id.longValue(), email, Role.valueOf(role)));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return userDetails.getUsername().equals(claims.getSubject())
+                && !isExpired(claims, System.currentTimeMillis());
+    }
+
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return validateToken(token)
+                .map(claims -> isTokenValid(claims, userDetails))
+                .orElse(false);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private void cache(String token, Claims claims, long now) {
+        if (claims.getExpiration() == null) {
+            return;
+        }
+        if (verifiedTokens.size() >= cacheMaxEntries) {
+            purgeExpired(now);
+            if (verifiedTokens.size() >= cacheMaxEntries) {
+                // Still full of live tokens; skip caching rather than grow past the bound
+                return;
+            }
+        }
+        verifiedTokens.put(token, claims);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private void purgeExpired(long now) {
+        long last = lastPurgeMillis.get();
+        // At most one full scan per second, however many requests find the cache full
+        if (now - last < 1000 || !lastPurgeMillis.compareAndSet(last, now)) {
+            return;
+        }
+        verifiedTokens.values().removeIf(claims -> isExpired(claims, now));
+    }
+
+    private static boolean isExpired(Claims claims, long now) {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.getTime() <= now;
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
+        return parser
                 .parseClaimsJws(token)
                 .getBody();
     }
-
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
 }
@@ -0,0 +1,258 @@
+package com.example.finance.config;
+
+import com.example.finance.Service.AnomalyRecorder;
+import com.example.finance.Service.FraudDetectionService;
+import com.example.finance.Service.GraphAnomalyDetector;
+import com.example.finance.Service.LedgerStats;
+import com.example.finance.Service.ShadowScorer;
+import com.example.finance.Service.TransactionSubmissionService;
+import com.example.finance.scoring.CircuitBreaker;
+import com.example.finance.scoring.FraudRuleEngine;
+import com.example.finance.scoring.FraudScoreCache;
+import com.example.finance.scoring.ScoreDisagreement;
+import com.example.finance.scoring.ScorerReplicaPool;
+import com.example.finance.scoring.TransferGraph;
+import com.example.finance.scoring.VelocityStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the counters the services already keep as meters, read at scrape time. Nothing here
+ * touches the request path.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder ledgerMeters(LedgerStats ledgerStats) {
+        return registry -> {
+            FunctionCounter.builder("ledger.lock.acquisitions", ledgerStats, LedgerStats::lockAcquisitions)
+                    .description("Account lock pairs taken for a commit")
+                    .register(registry);
+            FunctionCounter.builder("ledger.lock.waits", ledgerStats, LedgerStats::lockWaits)
+                    .description("Lock acquisitions slower than ledger.lock.wait-threshold-ms")
+                    .register(registry);
+            FunctionCounter.builder("ledger.lock.wait.seconds", ledgerStats,
+                            stats -> stats.lockWaitNanos() / (double) TimeUnit.SECONDS.toNanos(1))
+                    .description("Total time spent acquiring account locks")
+                    .register(registry);
+            FunctionCounter.builder("ledger.retries", ledgerStats, LedgerStats::conflictRetries)
+                    .tag("cause", "balance_conflict")
+                    .register(registry);
+            FunctionCounter.builder("ledger.retries", ledgerStats, LedgerStats::lockFailureRetries)
+                    .tag("cause", "lock_failure")
+                    .register(registry);
+            FunctionCounter.builder("ledger.retries.exhausted", ledgerStats, LedgerStats::exhaustedRetries)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder anomalyRecorderMeters(AnomalyRecorder anomalyRecorder) {
+        return registry -> {
+            Gauge.builder("anomaly.recorder.queue.depth", anomalyRecorder, AnomalyRecorder::queueDepth)
+                    .register(registry);
+            FunctionCounter.builder("anomaly.recorder.records", anomalyRecorder, AnomalyRecorder::getRecorded)
+                    .tag("result", "queued")
+                    .register(registry);
+            FunctionCounter.builder("anomaly.recorder.records", anomalyRecorder, AnomalyRecorder::getFlushed)
+                    .tag("result", "flushed")
+                    .register(registry);
+            FunctionCounter.builder("anomaly.recorder.records", anomalyRecorder, AnomalyRecorder::getDropped)
+                    .tag("result", "dropped")
+                    .register(registry);
+            FunctionCounter.builder("anomaly.recorder.records", anomalyRecorder, AnomalyRecorder::getFailed)
+                    .tag("result", "failed")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder scoringStateMeters(VelocityStore velocityStore, TransferGraph transferGraph,
+                                          GraphAnomalyDetector graphAnomalyDetector) {
+        return registry -> {
+            Gauge.builder("fraud.velocity.accounts", velocityStore, VelocityStore::trackedAccounts)
+                    .register(registry);
+            FunctionCounter.builder("fraud.velocity.untracked", velocityStore, VelocityStore::untrackedUpdates)
+                    .description("Updates dropped because the velocity store was full")
+                    .register(registry);
+            Gauge.builder("fraud.graph.nodes", transferGraph, TransferGraph::nodeCount)
+                    .register(registry);
+            FunctionCounter.builder("fraud.graph.untracked", transferGraph, TransferGraph::untrackedTransfers)
+                    .description("Transfers not added because the graph was full")
+                    .register(registry);
+            FunctionCounter.builder("fraud.graph.hits", graphAnomalyDetector, GraphAnomalyDetector::getFanOutHits)
+                    .tag("pattern", "fan_out")
+                    .register(registry);
+            FunctionCounter.builder("fraud.graph.hits", graphAnomalyDetector, GraphAnomalyDetector::getFanInHits)
+                    .tag("pattern", "fan_in")
+                    .register(registry);
+            FunctionCounter.builder("fraud.graph.hits", graphAnomalyDetector, GraphAnomalyDetector::getCycleHits)
+                    .tag("pattern", "cycle")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder fraudRuleMeters(FraudRuleEngine fraudRuleEngine) {
+        return registry -> {
+            FunctionCounter.builder("fraud.rules.evaluations", fraudRuleEngine, FraudRuleEngine::evaluations)
+                    .register(registry);
+            for (int i = 0; i < fraudRuleEngine.ruleCount(); i++) {
+                int rule = i;
+                FunctionCounter.builder("fraud.rules.hits", fraudRuleEngine, engine -> engine.hits(rule))
+                        .tag("rule", fraudRuleEngine.name(rule))
+                        .tag("decision", fraudRuleEngine.decision(rule).name().toLowerCase())
+                        .register(registry);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder fraudCacheMeters(FraudScoreCache fraudScoreCache) {
+        return registry -> {
+            FunctionCounter.builder("fraud.cache.requests", fraudScoreCache, FraudScoreCache::hits)
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("fraud.cache.requests", fraudScoreCache, FraudScoreCache::misses)
+                    .tag("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("fraud.cache.evictions", fraudScoreCache, FraudScoreCache::evictions)
+                    .description("Live verdicts displaced to make room for a new one")
+                    .register(registry);
+            FunctionCounter.builder("fraud.cache.invalidations", fraudScoreCache, FraudScoreCache::invalidations)
+                    .description("Times a new scorer model version emptied the cache")
+                    .register(registry);
+            Gauge.builder("fraud.cache.capacity", fraudScoreCache, FraudScoreCache::capacity)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder scorerCircuitBreakerMeters(CircuitBreaker scorerCircuitBreaker) {
+        return registry -> {
+            Gauge.builder("fraud.breaker.state", scorerCircuitBreaker, breaker -> breaker.state().ordinal())
+                    .description("0 closed, 1 open, 2 half-open")
+                    .register(registry);
+            Gauge.builder("fraud.breaker.in.flight", scorerCircuitBreaker, CircuitBreaker::inFlight)
+                    .register(registry);
+            for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+                FunctionCounter.builder("fraud.breaker.transitions", scorerCircuitBreaker,
+                                breaker -> breaker.transitionsTo(state))
+                        .tag("to", state.name().toLowerCase())
+                        .register(registry);
+            }
+            FunctionCounter.builder("fraud.breaker.rejections", scorerCircuitBreaker, CircuitBreaker::rejectedOpen)
+                    .tag("reason", "open")
+                    .register(registry);
+            FunctionCounter.builder("fraud.breaker.rejections", scorerCircuitBreaker, CircuitBreaker::rejectedBulkhead)
+                    .tag("reason", "bulkhead")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder scorerReplicaMeters(ScorerReplicaPool scorerReplicaPool) {
+        return registry -> {
+            for (ScorerReplicaPool.Replica replica : scorerReplicaPool.replicas()) {
+                FunctionTimer.builder("fraud.replica.requests", replica,
+                                ScorerReplicaPool.Replica::calls, ScorerReplicaPool.Replica::totalSeconds, TimeUnit.SECONDS)
+                        .description("Scorer calls per replica, including failed ones")
+                        .tag("replica", replica.url())
+                        .register(registry);
+                FunctionCounter.builder("fraud.replica.errors", replica, ScorerReplicaPool.Replica::errors)
+                        .tag("replica", replica.url())
+                        .register(registry);
+                FunctionCounter.builder("fraud.replica.ejections", replica, ScorerReplicaPool.Replica::ejections)
+                        .tag("replica", replica.url())
+                        .register(registry);
+                Gauge.builder("fraud.replica.outstanding", replica, ScorerReplicaPool.Replica::outstanding)
+                        .tag("replica", replica.url())
+                        .register(registry);
+                Gauge.builder("fraud.replica.admitted", replica, r -> r.admitted() ? 1 : 0)
+                        .tag("replica", replica.url())
+                        .register(registry);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder hedgeMeters(FraudDetectionService fraudDetectionService) {
+        return registry -> {
+            Gauge.builder("fraud.hedge.delay.seconds", fraudDetectionService, service -> service.hedgeDelayNanos() / 1e9)
+                    .description("Time a single scorer call waits before it is hedged")
+                    .register(registry);
+            FunctionCounter.builder("fraud.hedge.sent", fraudDetectionService, FraudDetectionService::getHedgesSent)
+                    .register(registry);
+            FunctionCounter.builder("fraud.hedge.wins", fraudDetectionService, FraudDetectionService::getHedgeWins)
+                    .description("Hedged calls answered before the call they duplicated")
+                    .register(registry);
+            FunctionCounter.builder("fraud.hedge.cancelled", fraudDetectionService, FraudDetectionService::getCancelledCalls)
+                    .description("Scorer calls cancelled because another answered first or the deadline passed")
+                    .register(registry);
+            FunctionCounter.builder("fraud.hedge.wasted.seconds", fraudDetectionService, FraudDetectionService::getWastedSeconds)
+                    .description("Replica time spent on calls whose answer was not used")
+                    .register(registry);
+            FunctionCounter.builder("fraud.deadline.exceeded", fraudDetectionService,
+                            FraudDetectionService::getDeadlinesExceeded)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder shadowScoringMeters(ShadowScorer shadowScorer) {
+        ScoreDisagreement disagreement = shadowScorer.getDisagreement();
+        return registry -> {
+            FunctionCounter.builder("fraud.shadow.requests", shadowScorer, ShadowScorer::getSampled)
+                    .tag("result", "sampled")
+                    .register(registry);
+            FunctionCounter.builder("fraud.shadow.requests", shadowScorer, ShadowScorer::getDropped)
+                    .tag("result", "dropped")
+                    .register(registry);
+            FunctionCounter.builder("fraud.shadow.requests", shadowScorer, ShadowScorer::getFailed)
+                    .tag("result", "failed")
+                    .register(registry);
+            Gauge.builder("fraud.shadow.queue.depth", shadowScorer, ShadowScorer::queueDepth)
+                    .register(registry);
+            for (int primary = 0; primary < 3; primary++) {
+                for (int candidate = 0; candidate < 3; candidate++) {
+                    int p = primary;
+                    int c = candidate;
+                    FunctionCounter.builder("fraud.shadow.decisions", disagreement, d -> d.decisions(p, c))
+                            .description("Shadow-scored transfers by primary and candidate model decision")
+                            .tag("primary", ScoreDisagreement.decisionName(p))
+                            .tag("candidate", ScoreDisagreement.decisionName(c))
+                            .register(registry);
+                }
+            }
+            FunctionCounter.builder("fraud.shadow.fraud.flips", disagreement, ScoreDisagreement::fraudFlips)
+                    .description("Shadow-scored transfers where the models disagree on is_fraud")
+                    .register(registry);
+            Gauge.builder("fraud.shadow.probability.delta.mean", disagreement, ScoreDisagreement::meanProbabilityDelta)
+                    .description("Mean of candidate minus primary fraud probability")
+                    .register(registry);
+            Gauge.builder("fraud.shadow.probability.delta.abs.mean", disagreement,
+                            ScoreDisagreement::meanAbsoluteProbabilityDelta)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder queueMeters(FraudDetectionService fraudDetectionService,
+                                   TransactionSubmissionService transactionSubmissionService) {
+        return registry -> {
+            Gauge.builder("fraud.batch.queue.depth", fraudDetectionService, FraudDetectionService::batchQueueDepth)
+                    .description("Checks waiting to be coalesced into a /predict/batch call")
+                    .register(registry);
+            Gauge.builder("transfer.submission.queue.depth", transactionSubmissionService,
+                            TransactionSubmissionService::queueDepth)
+                    .register(registry);
+        };
+    }
+}
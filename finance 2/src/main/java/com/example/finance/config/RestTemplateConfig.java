@@ -1,19 +1,101 @@
 package com.example.finance.config;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+/**
+ * HTTP transport for the fraud scorer. Both the blocking {@link RestTemplate} and the async client
+ * keep persistent connections in a bounded pool and evict connections that sit idle too long.
+ */
 @Configuration
 public class RestTemplateConfig {
 
+    @Value("${fraud.detection.http.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${fraud.detection.http.read-timeout-ms:10000}")
+    private long readTimeoutMs;
+
+    @Value("${fraud.detection.http.pool.max-total:64}")
+    private int maxTotalConnections;
+
+    @Value("${fraud.detection.http.pool.max-per-route:32}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${fraud.detection.http.pool.idle-eviction-seconds:30}")
+    private long idleEvictionSeconds;
+
+    @Value("${fraud.detection.http.pool.time-to-live-seconds:300}")
+    private long connectionTimeToLiveSeconds;
+
+    @Value("${fraud.detection.http.async.io-threads:2}")
+    private int asyncIoThreads;
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient fraudHttpClient() {
+        return HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(maxTotalConnections)
+                        .setMaxConnPerRoute(maxConnectionsPerRoute)
+                        .setDefaultConnectionConfig(connectionConfig())
+                        .build())
+                .setDefaultRequestConfig(requestConfig())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(idleEvictionSeconds))
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpAsyncClient fraudAsyncHttpClient() {
+        CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+                .setConnectionManager(PoolingAsyncClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(maxTotalConnections)
+                        .setMaxConnPerRoute(maxConnectionsPerRoute)
+                        .setDefaultConnectionConfig(connectionConfig())
+                        .build())
+                .setIOReactorConfig(IOReactorConfig.custom()
+                        .setIoThreadCount(asyncIoThreads)
+                        .build())
+                .setDefaultRequestConfig(requestConfig())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(idleEvictionSeconds))
+                .build();
+        client.start();
+        return client;
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(5000);
-        factory.setReadTimeout(10000);
+    public RestTemplate restTemplate(CloseableHttpClient fraudHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(fraudHttpClient));
+    }
+
+    private ConnectionConfig connectionConfig() {
+        return ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .setTimeToLive(TimeValue.ofSeconds(connectionTimeToLiveSeconds))
+                .build();
+    }
 
-        return new RestTemplate(factory);
+    private RequestConfig requestConfig() {
+        return RequestConfig.custom()
+                // Waiting for a pooled connection counts against the connect budget
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .build();
     }
-}
\ No newline at end of file
+}
@@ -34,6 +34,13 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/auth/**").permitAll()
+                        // Health for the load balancer; metrics, Prometheus included, are for admins.
+                        // To scrape without a token, move management to a private port with management.server.port
+                        .requestMatchers("/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").hasAuthority("ADMIN")
+                        .requestMatchers("/api/v1/transactions/export").hasAuthority("ADMIN")
+                        // Anomalies span every user and carry both parties' emails
+                        .requestMatchers("/api/v1/anomalies/**").hasAuthority("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .authenticationProvider(authenticationProvider())
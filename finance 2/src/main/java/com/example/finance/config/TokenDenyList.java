@@ -0,0 +1,85 @@
+package com.example.finance.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Revoked token ids, kept only until the token would have expired anyway.
+ * <p>
+ * Entries are keyed by the token's {@code jti} (a random UUID, stored as two longs rather than
+ * the 36-character string) and hold the expiry in epoch millis, so the list stays small and
+ * shrinks back on its own as revoked tokens age out.
+ */
+@Component
+public class TokenDenyList {
+
+    @Value("${jwt.deny-list.max-entries:100000}")
+    private int maxEntries;
+
+    private final Map<UUID, Long> revoked = new ConcurrentHashMap<>();
+    private final AtomicLong lastPurgeMillis = new AtomicLong();
+
+    /**
+     * Revokes the token with the given id until {@code expiresAtMillis}.
+     *
+     * @return false if the list is full of live entries and the token could not be recorded
+     */
+    public boolean revoke(String tokenId, long expiresAtMillis) {
+        UUID key = parse(tokenId);
+        if (key == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        if (expiresAtMillis <= now) {
+            return true;
+        }
+        if (revoked.size() >= maxEntries) {
+            purgeExpired(now, true);
+            if (revoked.size() >= maxEntries) {
+                return false;
+            }
+        }
+        revoked.put(key, expiresAtMillis);
+        purgeExpired(now, false);
+        return true;
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || revoked.isEmpty()) {
+            return false;
+        }
+        UUID key = parse(tokenId);
+        if (key == null) {
+            return false;
+        }
+        Long expiresAt = revoked.get(key);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    private void purgeExpired(long now, boolean force) {
+        long last = lastPurgeMillis.get();
+        // Opportunistic sweep at most once a minute; a full list forces one at most once a second
+        long interval = force ? 1000 : 60_000;
+        if (now - last < interval || !lastPurgeMillis.compareAndSet(last, now)) {
+            return;
+        }
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+    }
+
+    private static UUID parse(String tokenId) {
+        try {
+            return UUID.fromString(tokenId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
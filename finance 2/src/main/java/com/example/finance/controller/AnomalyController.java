@@ -0,0 +1,41 @@
+package com.example.finance.controller;
+
+import com.example.finance.Service.AnomalyService;
+import com.example.finance.dto.AnomalyDTO;
+import com.example.finance.dto.AnomalyPage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.NoSuchElementException;
+
+@RestController
+@CrossOrigin(origins = "http://localhost:3000")
+@RequestMapping("api/v1")
+@RequiredArgsConstructor
+public class AnomalyController {
+
+    private final AnomalyService anomalyService;
+
+    @GetMapping("/anomalies")
+    public ResponseEntity<AnomalyPage> anomalies(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Boolean resolved,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(anomalyService.findAnomalies(userId, resolved, from, to, cursor, limit));
+    }
+
+    @GetMapping("/anomalies/{id}")
+    public ResponseEntity<AnomalyDTO> anomaly(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(anomalyService.getAnomalyById(id));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -1,12 +1,30 @@
 package com.example.finance.controller;
 
+import com.example.finance.Service.BulkTransactionService;
+import com.example.finance.Service.TransactionExportService;
 import com.example.finance.Service.TransactionService;
+import com.example.finance.Service.TransactionSubmissionService;
+import com.example.finance.dto.BatchTransactionResponse;
 import com.example.finance.dto.TransactionRequest;
 import com.example.finance.dto.TransactionResponse;
+import com.example.finance.dto.TransactionStatusResponse;
+import com.example.finance.scoring.Deadline;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
 @RestController
 @CrossOrigin(origins = "http://localhost:3000")
 @RequestMapping("api/v1")
@@ -14,11 +32,91 @@ import org.springframework.web.bind.annotation.*;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final TransactionSubmissionService transactionSubmissionService;
+    private final BulkTransactionService bulkTransactionService;
+    private final TransactionExportService transactionExportService;
+
+    /**
+     * Latency budget for a synchronous transfer, off (0) by default. When set, a client can ask for
+     * less with X-Request-Timeout-Ms, but never for less than {@code transaction.min-deadline-ms}.
+     */
+    @Value("${transaction.deadline-ms:0}")
+    private long deadlineMs;
+
+    @Value("${transaction.min-deadline-ms:200}")
+    private long minDeadlineMs;
 
     @PostMapping("/transaction")
-    public ResponseEntity<TransactionResponse> transaction(@RequestBody TransactionRequest request) {
-        TransactionResponse response = transactionService.createTransaction(request);
+    public ResponseEntity<TransactionResponse> transaction(
+            @RequestBody TransactionRequest request,
+            @RequestHeader(value = "X-Request-Timeout-Ms", required = false) Long requestTimeoutMs) {
+        Deadline deadline = Deadline.none();
+        if (deadlineMs > 0) {
+            long budgetMs = requestTimeoutMs == null
+                    ? deadlineMs
+                    : Math.clamp(requestTimeoutMs, Math.min(minDeadlineMs, deadlineMs), deadlineMs);
+            deadline = Deadline.afterNanos(TimeUnit.MILLISECONDS.toNanos(budgetMs));
+        }
+        TransactionResponse response = transactionService.createTransaction(request, deadline);
         return ResponseEntity.ok(response);
 
     }
+
+    @PostMapping("/transactions/batch")
+    public ResponseEntity<BatchTransactionResponse> transactionBatch(@RequestBody List<TransactionRequest> requests) {
+        if (requests.size() > bulkTransactionService.getMaxItems()) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        return ResponseEntity.ok(bulkTransactionService.createTransactions(requests));
+    }
+
+    @PostMapping("/transactions/async")
+    public ResponseEntity<TransactionStatusResponse> submitTransaction(@RequestBody TransactionRequest request) {
+        Optional<String> trackingId = transactionSubmissionService.submit(request);
+        if (trackingId.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(TransactionStatusResponse.builder()
+                            .error("Transaction queue is full, retry later")
+                            .build());
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/transactions/" + trackingId.get() + "/status"))
+                .body(TransactionStatusResponse.builder()
+                        .trackingId(trackingId.get())
+                        .status(TransactionStatusResponse.Status.QUEUED)
+                        .submittedAt(Instant.now())
+                        .build());
+    }
+
+    @GetMapping("/transactions/{id}/status")
+    public ResponseEntity<TransactionStatusResponse> transactionStatus(@PathVariable("id") String trackingId) {
+        return transactionSubmissionService.getStatus(trackingId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Streams all transactions (optionally limited to a timestamp range) as NDJSON or CSV.
+     * Rows are written as they are read, so the export size is not bounded by heap.
+     */
+    @GetMapping("/transactions/export")
+    public void exportTransactions(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            HttpServletResponse response) throws IOException {
+        TransactionExportService.Format exportFormat;
+        try {
+            exportFormat = TransactionExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Unsupported export format: " + format);
+            return;
+        }
+        response.setContentType(exportFormat.contentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"transactions." + exportFormat.extension() + "\"");
+        transactionExportService.export(exportFormat, from, to, response.getOutputStream());
+    }
 }
@@ -0,0 +1,30 @@
+package com.example.finance.controller;
+
+import com.example.finance.Service.TransactionHistoryService;
+import com.example.finance.dto.TransactionHistoryPage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@CrossOrigin(origins = "http://localhost:3000")
+@RequestMapping("api/v1/users")
+@RequiredArgsConstructor
+public class UserController {
+
+    private final TransactionHistoryService transactionHistoryService;
+
+    @GetMapping("/me/transactions")
+    public ResponseEntity<TransactionHistoryPage> myTransactions(
+            Authentication authentication,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        Long userId = transactionHistoryService.currentUserId(authentication);
+        try {
+            return ResponseEntity.ok(transactionHistoryService.getHistory(userId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -15,9 +15,9 @@ public class AnomalyDTOMapper implements Function<Anomaly, AnomalyDTO> {
                 anomaly.getUser().getId(),
                 anomaly.getUser().getEmail(), // get email from User
                 anomaly.getTransaction().getId(),
-                anomaly.getTransaction().getDescription(), // get description from Transaction
-                anomaly.getScore(),
                 anomaly.getAnomalyType(),
+                anomaly.getScore(),
+                anomaly.getDescription(),
                 anomaly.getDetectedAt(),
                 anomaly.getResolved()
         );
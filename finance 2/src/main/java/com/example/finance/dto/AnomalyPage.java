@@ -0,0 +1,18 @@
+package com.example.finance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnomalyPage {
+    private List<AnomalyDTO> items;
+    // Pass back as the cursor parameter to get the next page; null on the last page
+    private Long nextCursor;
+}
@@ -0,0 +1,27 @@
+package com.example.finance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@Builder
+public class BatchTransactionResponse {
+    private int submitted;
+    private int succeeded;
+    private int failed;
+    private List<ItemResult> results;
+
+    @Data
+    @AllArgsConstructor
+    @Builder
+    public static class ItemResult {
+        private int index;
+        private boolean success;
+        private TransactionResponse transaction;
+        private String error;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.finance.dto;
+
+import com.example.finance.entity.Type;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+/**
+ * Flat, read-only view of one transaction for bulk export. Carries account ids instead of
+ * {@code User} entities so rows can be streamed without building an object graph.
+ */
+public record TransactionExportRow(
+        Long id,
+        Long senderId,
+        Long receiverId,
+        Type type,
+        BigDecimal amount,
+        BigDecimal oldBalanceOrg,
+        BigDecimal newBalanceOrig,
+        BigDecimal oldBalanceDest,
+        BigDecimal newBalanceDest,
+        Timestamp timestamp,
+        String description
+) {
+}
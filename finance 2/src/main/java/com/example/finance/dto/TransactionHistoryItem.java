@@ -0,0 +1,20 @@
+package com.example.finance.dto;
+
+import com.example.finance.entity.Type;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+/**
+ * One row of a user's transaction history; only the columns the history view shows.
+ */
+public record TransactionHistoryItem(
+        Long id,
+        Timestamp timestamp,
+        Type type,
+        BigDecimal amount,
+        String description,
+        String senderEmail,
+        String receiverEmail
+) {
+}
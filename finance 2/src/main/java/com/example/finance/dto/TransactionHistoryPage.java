@@ -0,0 +1,18 @@
+package com.example.finance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionHistoryPage {
+    private List<TransactionHistoryItem> items;
+    // Opaque; pass back as the cursor parameter to get the next page. Null on the last page
+    private String nextCursor;
+}
@@ -0,0 +1,27 @@
+package com.example.finance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class TransactionStatusResponse {
+
+    public enum Status {
+        QUEUED,
+        PROCESSING,
+        COMPLETED,
+        FAILED
+    }
+
+    private String trackingId;
+    private Status status;
+    private Instant submittedAt;
+    private Instant completedAt;
+    private TransactionResponse result;
+    private String error;
+}
@@ -10,14 +10,20 @@ import java.sql.Timestamp;
 
 @Entity
 @Data
-@Table(name = "anomalies")
+@Table(name = "anomalies", indexes = {
+        @Index(name = "idx_anomalies_user_id", columnList = "user_id, id"),
+        @Index(name = "idx_anomalies_resolved_id", columnList = "resolved, id"),
+        @Index(name = "idx_anomalies_detected_at", columnList = "detectedAt"),
+        @Index(name = "idx_anomalies_transaction_id", columnList = "transaction_id")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Anomaly {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "anomalies_seq")
+    @SequenceGenerator(name = "anomalies_seq", sequenceName = "anomalies_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -11,14 +11,21 @@ import java.sql.Timestamp;
 
 @Entity
 @Data
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_sender_history", columnList = "user_id, timestamp, id"),
+        @Index(name = "idx_transactions_receiver_history", columnList = "receiver_id, timestamp, id"),
+        @Index(name = "idx_transactions_timestamp", columnList = "timestamp"),
+        @Index(name = "idx_transactions_recorded_at", columnList = "recorded_at")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Transaction {
 
+    // Pooled sequence ids let Hibernate batch inserts; IDENTITY forces one round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -34,6 +41,11 @@ public class Transaction {
     private Timestamp timestamp;
     private String description;
 
+    // Server time the row was written. The timestamp above can come from the client, so velocity
+    // windows and graph edges are aged by this instead, both live and when rebuilt at startup
+    @Column(name = "recorded_at")
+    private Timestamp recordedAt;
+
     private BigDecimal oldBalanceOrg;
     private BigDecimal newBalanceOrig;
     private BigDecimal oldBalanceDest;
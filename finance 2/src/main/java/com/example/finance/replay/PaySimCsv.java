@@ -0,0 +1,299 @@
+package com.example.finance.replay;
+
+import com.example.finance.entity.Type;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads PaySim-format CSV ({@code step,type,amount,nameOrig,oldbalanceOrg,newbalanceOrig,nameDest,
+ * oldbalanceDest,newbalanceDest,isFraud,isFlaggedFraud}) straight from memory-mapped segments.
+ * <p>
+ * Only the header is decoded into strings. Rows are scanned byte by byte: numbers are parsed in
+ * place, the type is matched against the enum names as bytes, and unused columns such as account
+ * names are skipped, so parsing a row allocates nothing.
+ */
+final class PaySimCsv {
+
+    /** Rows may run past the end of their segment by at most this much. */
+    static final int MAX_ROW_BYTES = 64 * 1024;
+
+    /** A segment plus its overrun must fit in one mapped buffer, which is indexed by {@code int}. */
+    static final long MAX_SEGMENT_BYTES = Integer.MAX_VALUE - MAX_ROW_BYTES - 1;
+
+    private static final Type[] TYPES = Type.values();
+    private static final byte[][] TYPE_NAMES = new byte[TYPES.length][];
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        for (int i = 0; i < TYPES.length; i++) {
+            TYPE_NAMES[i] = TYPES[i].name().getBytes(StandardCharsets.US_ASCII);
+        }
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    /**
+     * Receives one parsed row. Return false to stop reading.
+     */
+    @FunctionalInterface
+    interface RowHandler {
+        boolean onRow(Type type, double amount, double oldBalanceOrg, double newBalanceOrig,
+                      double oldBalanceDest, double newBalanceDest, int isFraud);
+    }
+
+    /**
+     * Column positions taken from the header, and where the first data row starts.
+     * {@code isFraud} is -1 when the file has no label column.
+     */
+    record Layout(long dataStart, int columnCount, int type, int amount, int oldBalanceOrg, int newBalanceOrig,
+                  int oldBalanceDest, int newBalanceDest, int isFraud) {
+    }
+
+    private PaySimCsv() {
+    }
+
+    static Layout readLayout(FileChannel channel) throws IOException {
+        ByteBuffer head = ByteBuffer.allocate((int) Math.min(channel.size(), MAX_ROW_BYTES));
+        channel.read(head, 0);
+        head.flip();
+        int newline = -1;
+        for (int i = 0; i < head.limit(); i++) {
+            if (head.get(i) == '\n') {
+                newline = i;
+                break;
+            }
+        }
+        if (newline < 0) {
+            throw new IOException("No header line found");
+        }
+        String[] columns = new String(head.array(), 0, newline, StandardCharsets.US_ASCII).trim().split(",");
+        List<String> names = new ArrayList<>(columns.length);
+        for (String column : columns) {
+            names.add(column.trim());
+        }
+        return new Layout(newline + 1, names.size(),
+                required(names, "type"),
+                required(names, "amount"),
+                required(names, "oldbalanceOrg"),
+                required(names, "newbalanceOrig"),
+                required(names, "oldbalanceDest"),
+                required(names, "newbalanceDest"),
+                names.indexOf("isFraud"));
+    }
+
+    private static int required(List<String> columns, String name) throws IOException {
+        int index = columns.indexOf(name);
+        if (index < 0) {
+            throw new IOException("Missing column " + name + " in header " + columns);
+        }
+        return index;
+    }
+
+    /**
+     * Splits the data part of the file into byte ranges of about {@code segmentBytes}. A range owns
+     * every row whose first byte falls inside it.
+     */
+    static List<long[]> segments(Layout layout, long fileSize, long segmentBytes) {
+        if (segmentBytes < 1 || segmentBytes > MAX_SEGMENT_BYTES) {
+            throw new IllegalArgumentException("Segment size must be between 1 and " + MAX_SEGMENT_BYTES + " bytes");
+        }
+        List<long[]> segments = new ArrayList<>();
+        for (long start = layout.dataStart(); start < fileSize; start += segmentBytes) {
+            segments.add(new long[]{start, Math.min(fileSize, start + segmentBytes)});
+        }
+        return segments;
+    }
+
+    /**
+     * Parses the rows owned by {@code [start, end)}. Returns the number of malformed rows skipped.
+     */
+    static long parse(FileChannel channel, Layout layout, long start, long end, RowHandler handler) throws IOException {
+        long fileSize = channel.size();
+        boolean first = start == layout.dataStart();
+        // Map one byte early to see whether the range starts on a row boundary, and past the end for the last row
+        long mapStart = first ? start : start - 1;
+        if (end - start > MAX_SEGMENT_BYTES) {
+            throw new IllegalArgumentException("Segment of " + (end - start) + " bytes is too large to map");
+        }
+        long mapEnd = Math.min(fileSize, end + MAX_ROW_BYTES);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+        int limit = buffer.limit();
+        int ownedEnd = (int) (end - mapStart);
+
+        int pos = (int) (start - mapStart);
+        if (!first && buffer.get(pos - 1) != '\n') {
+            while (pos < limit && buffer.get(pos) != '\n') {
+                pos++;
+            }
+            pos++;
+        }
+
+        long skipped = 0;
+        while (pos < ownedEnd) {
+            int rowEnd = pos;
+            while (rowEnd < limit && buffer.get(rowEnd) != '\n') {
+                rowEnd++;
+            }
+            if (rowEnd == limit && mapEnd < fileSize) {
+                throw new IOException("Row at byte " + (mapStart + pos) + " is longer than " + MAX_ROW_BYTES + " bytes");
+            }
+            int contentEnd = rowEnd > pos && buffer.get(rowEnd - 1) == '\r' ? rowEnd - 1 : rowEnd;
+            if (contentEnd > pos) {
+                int outcome = parseRow(buffer, pos, contentEnd, layout, handler);
+                if (outcome < 0) {
+                    return skipped;
+                }
+                if (outcome == 0) {
+                    skipped++;
+                }
+            }
+            pos = rowEnd + 1;
+        }
+        return skipped;
+    }
+
+    /**
+     * @return 1 if the row was handled, 0 if it was malformed, -1 if the handler asked to stop
+     */
+    private static int parseRow(ByteBuffer buffer, int from, int to, Layout layout, RowHandler handler) {
+        Type type = null;
+        double amount = Double.NaN;
+        double oldBalanceOrg = Double.NaN;
+        double newBalanceOrig = Double.NaN;
+        double oldBalanceDest = Double.NaN;
+        double newBalanceDest = Double.NaN;
+        int isFraud = -1;
+
+        int column = 0;
+        int fieldStart = from;
+        for (int i = from; i <= to; i++) {
+            if (i < to && buffer.get(i) != ',') {
+                continue;
+            }
+            if (column == layout.type()) {
+                type = parseType(buffer, fieldStart, i);
+            } else if (column == layout.amount()) {
+                amount = parseDouble(buffer, fieldStart, i);
+            } else if (column == layout.oldBalanceOrg()) {
+                oldBalanceOrg = parseDouble(buffer, fieldStart, i);
+            } else if (column == layout.newBalanceOrig()) {
+                newBalanceOrig = parseDouble(buffer, fieldStart, i);
+            } else if (column == layout.oldBalanceDest()) {
+                oldBalanceDest = parseDouble(buffer, fieldStart, i);
+            } else if (column == layout.newBalanceDest()) {
+                newBalanceDest = parseDouble(buffer, fieldStart, i);
+            } else if (column == layout.isFraud()) {
+                isFraud = i - fieldStart == 1 ? buffer.get(fieldStart) - '0' : -1;
+            }
+            column++;
+            fieldStart = i + 1;
+        }
+
+        if (type == null || Double.isNaN(amount) || Double.isNaN(oldBalanceOrg) || Double.isNaN(newBalanceOrig)
+                || Double.isNaN(oldBalanceDest) || Double.isNaN(newBalanceDest)) {
+            return 0;
+        }
+        return handler.onRow(type, amount, oldBalanceOrg, newBalanceOrig, oldBalanceDest, newBalanceDest, isFraud)
+                ? 1 : -1;
+    }
+
+    static Type parseType(ByteBuffer buffer, int from, int to) {
+        for (int t = 0; t < TYPE_NAMES.length; t++) {
+            byte[] name = TYPE_NAMES[t];
+            if (name.length != to - from) {
+                continue;
+            }
+            boolean match = true;
+            for (int i = 0; i < name.length; i++) {
+                if (buffer.get(from + i) != name[i]) {
+                    match = false;
+                    break;
+                }
+            }
+            if (match) {
+                return TYPES[t];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parses a plain or scientific decimal. Returns NaN for anything else, including an empty field.
+     */
+    static double parseDouble(ByteBuffer buffer, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int exponent = 0;
+        int digits = 0;
+        boolean seenDot = false;
+        for (; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                if (mantissa < 100_000_000_000_000_000L) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (seenDot) {
+                        exponent--;
+                    }
+                } else if (!seenDot) {
+                    // Beyond 18 significant digits; keep the magnitude, drop the precision
+                    exponent++;
+                }
+                digits++;
+            } else if (b == '.' && !seenDot) {
+                seenDot = true;
+            } else if (b == 'e' || b == 'E') {
+                break;
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (digits == 0) {
+            return Double.NaN;
+        }
+        if (i < to) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+                negativeExponent = buffer.get(i) == '-';
+                i++;
+            }
+            if (i == to) {
+                return Double.NaN;
+            }
+            int explicit = 0;
+            for (; i < to; i++) {
+                byte b = buffer.get(i);
+                if (b < '0' || b > '9') {
+                    return Double.NaN;
+                }
+                explicit = Math.min(explicit * 10 + (b - '0'), 10_000);
+            }
+            exponent += negativeExponent ? -explicit : explicit;
+        }
+        double value;
+        if (exponent == 0) {
+            value = mantissa;
+        } else if (mantissa < (1L << 53) && exponent < 0 && -exponent < POWERS_OF_TEN.length) {
+            // Both operands are exact doubles, so one correctly rounded division gives the right answer
+            value = mantissa / POWERS_OF_TEN[-exponent];
+        } else if (mantissa < (1L << 53) && exponent > 0 && exponent < POWERS_OF_TEN.length) {
+            value = mantissa * POWERS_OF_TEN[exponent];
+        } else {
+            value = mantissa * Math.pow(10, exponent);
+        }
+        return negative ? -value : value;
+    }
+}
@@ -0,0 +1,405 @@
+package com.example.finance.replay;
+
+import com.example.finance.Service.FraudDecisionPolicy;
+import com.example.finance.Service.FraudDetectionService;
+import com.example.finance.Service.ShadowScorer;
+import com.example.finance.Service.TransferMetrics;
+import com.example.finance.config.FraudScoringConfig;
+import com.example.finance.config.RestTemplateConfig;
+import com.example.finance.entity.Type;
+import com.example.finance.scoring.FraudRuleEngine;
+import com.example.finance.scoring.LatencyHistogram;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Offline backtest: replays a PaySim CSV through {@link FraudDetectionService#checkFraud}, so
+ * every row meets the same rule prefilter, cache and scorer backend a transfer would, decides it
+ * with {@link FraudDecisionPolicy}, and reports throughput, per-row latency and how blocking and
+ * review flags line up with the {@code isFraud} label.
+ * <p>
+ * Only the scoring beans are started, with no web server or database. They are configured the
+ * way the application is: {@code application.properties} is read, and any {@code --name=value}
+ * argument is passed through as a property. The backend defaults to the local model. From the
+ * packaged jar:
+ * <pre>
+ * java -cp finance.jar -Dloader.main=com.example.finance.replay.PaySimReplay \
+ *      org.springframework.boot.loader.launch.PropertiesLauncher \
+ *      --file PS_20174392719_1491204439457_log.csv --threads 8 --rate 200000 --fraud.rules.enabled=true
+ * </pre>
+ * Options:
+ * <ul>
+ *     <li>{@code --file PATH} the CSV, may also be given as the only positional argument</li>
+ *     <li>{@code --threads N} worker threads, defaults to the number of CPUs</li>
+ *     <li>{@code --rate N} target rows per second across all threads, 0 for as fast as possible</li>
+ *     <li>{@code --limit N} stop after N rows</li>
+ *     <li>{@code --model PATH} model JSON for the local backend, defaults to the bundled one</li>
+ *     <li>{@code --no-rules} skip the prefilter even if {@code fraud.rules.enabled} is set</li>
+ *     <li>{@code --segment-mb N} size of the mapped ranges handed to workers, default 64, at most 2047</li>
+ *     <li>{@code --fraud.detection.backend=remote} and other properties, to score against the Python service</li>
+ * </ul>
+ * PaySim rows carry no account ids, so velocity features are zero. With a rate set, latency is
+ * measured from when a row was due rather than when it started, so a stall shows up in the
+ * percentiles of every row it delayed.
+ */
+public final class PaySimReplay {
+
+    record Options(Path file, int threads, long rate, long limit, long segmentBytes, List<String> properties) {
+    }
+
+    /**
+     * The beans {@link FraudDetectionService} needs, without the web layer or JPA.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration(JacksonAutoConfiguration.class)
+    @Import({FraudScoringConfig.class, RestTemplateConfig.class, TransferMetrics.class, ShadowScorer.class,
+            FraudDetectionService.class})
+    static class ScoringContext {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    private PaySimReplay() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = parse(args);
+        try (ConfigurableApplicationContext context = scoringContext(options)) {
+            FraudDetectionService fraudDetectionService = context.getBean(FraudDetectionService.class);
+            FraudRuleEngine rules = context.getBean(FraudRuleEngine.class);
+            String backend = context.getEnvironment().getProperty("fraud.detection.backend");
+
+            Result result = run(options, fraudDetectionService);
+            System.out.print(report(options, backend, rules, result));
+        }
+    }
+
+    static ConfigurableApplicationContext scoringContext(Options options) {
+        return new SpringApplicationBuilder(ScoringContext.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .properties("fraud.detection.backend=local", "logging.level.com.example.finance=warn")
+                .run(options.properties().toArray(String[]::new));
+    }
+
+    static Result run(Options options, FraudDetectionService fraudDetectionService)
+            throws IOException, InterruptedException {
+        try (FileChannel channel = FileChannel.open(options.file(), StandardOpenOption.READ)) {
+            PaySimCsv.Layout layout = PaySimCsv.readLayout(channel);
+            ConcurrentLinkedQueue<long[]> segments = new ConcurrentLinkedQueue<>(
+                    PaySimCsv.segments(layout, channel.size(), options.segmentBytes()));
+            AtomicLong claimed = new AtomicLong();
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            long limit = options.limit() > 0 ? options.limit() : Long.MAX_VALUE;
+            long intervalNanos = options.rate() > 0
+                    ? Math.max(1, TimeUnit.SECONDS.toNanos(options.threads()) / options.rate())
+                    : 0;
+
+            List<Worker> workers = new ArrayList<>(options.threads());
+            List<Thread> threads = new ArrayList<>(options.threads());
+            long started = System.nanoTime();
+            for (int i = 0; i < options.threads(); i++) {
+                Worker worker = new Worker(channel, layout, segments, claimed, limit, intervalNanos,
+                        fraudDetectionService, failure);
+                workers.add(worker);
+                threads.add(Thread.ofPlatform().name("replay-" + i).start(worker));
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            long elapsed = System.nanoTime() - started;
+
+            Result result = new Result(elapsed);
+            for (Worker worker : workers) {
+                if (worker.failure != null && worker.failure != failure.get()) {
+                    failure.get().addSuppressed(worker.failure);
+                }
+                result.add(worker);
+            }
+            if (failure.get() instanceof IOException e) {
+                throw e;
+            }
+            if (failure.get() != null) {
+                throw new IllegalStateException("Replay worker failed", failure.get());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Pulls segments off the shared queue until it is empty, the row limit is reached or a worker
+     * has failed. Counters are plain fields owned by the thread and summed once it is done.
+     */
+    static final class Worker implements Runnable, PaySimCsv.RowHandler {
+
+        private final FileChannel channel;
+        private final PaySimCsv.Layout layout;
+        private final ConcurrentLinkedQueue<long[]> segments;
+        private final AtomicLong claimed;
+        private final long limit;
+        private final long intervalNanos;
+        private final FraudDetectionService fraudDetectionService;
+        private final AtomicReference<Throwable> firstFailure;
+
+        final LatencyHistogram latency = new LatencyHistogram();
+        final Confusion blocked = new Confusion();
+        final Confusion flagged = new Confusion();
+        long rows;
+        long skipped;
+        long ruleAllowed;
+        long ruleBlocked;
+        long scored;
+        long scorerErrors;
+        private long nextDue;
+        Throwable failure;
+
+        Worker(FileChannel channel, PaySimCsv.Layout layout, ConcurrentLinkedQueue<long[]> segments,
+               AtomicLong claimed, long limit, long intervalNanos, FraudDetectionService fraudDetectionService,
+               AtomicReference<Throwable> firstFailure) {
+            this.channel = channel;
+            this.layout = layout;
+            this.segments = segments;
+            this.claimed = claimed;
+            this.limit = limit;
+            this.intervalNanos = intervalNanos;
+            this.fraudDetectionService = fraudDetectionService;
+            this.firstFailure = firstFailure;
+        }
+
+        @Override
+        public void run() {
+            nextDue = System.nanoTime();
+            try {
+                long[] segment;
+                while (claimed.get() < limit && firstFailure.get() == null && (segment = segments.poll()) != null) {
+                    skipped += PaySimCsv.parse(channel, layout, segment[0], segment[1], this);
+                }
+            } catch (Throwable e) {
+                failure = e;
+                firstFailure.compareAndSet(null, e);
+            }
+        }
+
+        @Override
+        public boolean onRow(Type type, double amount, double oldBalanceOrg, double newBalanceOrig,
+                             double oldBalanceDest, double newBalanceDest, int isFraud) {
+            if (firstFailure.get() != null || claimed.getAndIncrement() >= limit) {
+                return false;
+            }
+            long start;
+            if (intervalNanos > 0) {
+                start = nextDue;
+                nextDue += intervalNanos;
+                long wait = start - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            } else {
+                start = System.nanoTime();
+            }
+
+            FraudDetectionService.FraudPredictionResponse response = fraudDetectionService.checkFraud(
+                    FraudDetectionService.buildRequest(type.name(), BigDecimal.valueOf(amount),
+                            BigDecimal.valueOf(oldBalanceOrg), BigDecimal.valueOf(newBalanceOrig),
+                            BigDecimal.valueOf(oldBalanceDest), BigDecimal.valueOf(newBalanceDest)));
+            if (response.getRule() != null) {
+                if (response.isFraud()) {
+                    ruleBlocked++;
+                } else {
+                    ruleAllowed++;
+                }
+            } else if (response.getError() != null) {
+                scorerErrors++;
+            } else {
+                scored++;
+            }
+            boolean block = FraudDecisionPolicy.shouldBlock(response.isFraud(), response.getFraudProbability());
+            boolean review = FraudDecisionPolicy.requiresManualReview(response.isFraud(), response.getFraudProbability());
+
+            latency.record(System.nanoTime() - start);
+            rows++;
+            if (isFraud >= 0) {
+                blocked.add(block, isFraud == 1);
+                flagged.add(review, isFraud == 1);
+            }
+            return true;
+        }
+    }
+
+    static final class Confusion {
+        long truePositives;
+        long falsePositives;
+        long trueNegatives;
+        long falseNegatives;
+
+        void add(boolean predicted, boolean actual) {
+            if (predicted) {
+                if (actual) {
+                    truePositives++;
+                } else {
+                    falsePositives++;
+                }
+            } else if (actual) {
+                falseNegatives++;
+            } else {
+                trueNegatives++;
+            }
+        }
+
+        void add(Confusion other) {
+            truePositives += other.truePositives;
+            falsePositives += other.falsePositives;
+            trueNegatives += other.trueNegatives;
+            falseNegatives += other.falseNegatives;
+        }
+
+        long total() {
+            return truePositives + falsePositives + trueNegatives + falseNegatives;
+        }
+
+        double precision() {
+            long predicted = truePositives + falsePositives;
+            return predicted == 0 ? 0 : (double) truePositives / predicted;
+        }
+
+        double recall() {
+            long actual = truePositives + falseNegatives;
+            return actual == 0 ? 0 : (double) truePositives / actual;
+        }
+    }
+
+    static final class Result {
+        final long elapsedNanos;
+        final LatencyHistogram latency = new LatencyHistogram();
+        final Confusion blocked = new Confusion();
+        final Confusion flagged = new Confusion();
+        long rows;
+        long skipped;
+        long ruleAllowed;
+        long ruleBlocked;
+        long scored;
+        long scorerErrors;
+
+        Result(long elapsedNanos) {
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        void add(Worker worker) {
+            latency.add(worker.latency);
+            blocked.add(worker.blocked);
+            flagged.add(worker.flagged);
+            rows += worker.rows;
+            skipped += worker.skipped;
+            ruleAllowed += worker.ruleAllowed;
+            ruleBlocked += worker.ruleBlocked;
+            scored += worker.scored;
+            scorerErrors += worker.scorerErrors;
+        }
+    }
+
+    static String report(Options options, String backend, FraudRuleEngine rules, Result result) {
+        StringBuilder out = new StringBuilder();
+        double seconds = result.elapsedNanos / 1e9;
+        out.append(String.format("file        %s%n", options.file()));
+        out.append(String.format("scorer      %s, %d threads, rate %s%n", backend, options.threads(),
+                options.rate() > 0 ? options.rate() + "/s" : "unlimited"));
+        out.append(String.format("rows        %d in %.2fs (%.0f rows/s), %d malformed skipped%n",
+                result.rows, seconds, result.rows / Math.max(seconds, 1e-9), result.skipped));
+        out.append(String.format("rules       %d allowed, %d blocked, %d scored, %d scorer errors%n",
+                result.ruleAllowed, result.ruleBlocked, result.scored, result.scorerErrors));
+        for (int i = 0; i < rules.ruleCount(); i++) {
+            out.append(String.format("  %-22s %s %d%n", rules.name(i), rules.decision(i), rules.hits(i)));
+        }
+        out.append(String.format("latency us  p50 %.1f  p90 %.1f  p99 %.1f  p99.9 %.1f%n",
+                result.latency.percentile(0.50) / 1e3, result.latency.percentile(0.90) / 1e3,
+                result.latency.percentile(0.99) / 1e3, result.latency.percentile(0.999) / 1e3));
+        appendConfusion(out, "blocked", result.blocked);
+        appendConfusion(out, "flagged", result.flagged);
+        return out.toString();
+    }
+
+    private static void appendConfusion(StringBuilder out, String label, Confusion confusion) {
+        if (confusion.total() == 0) {
+            out.append(String.format("%-11s no isFraud labels%n", label));
+            return;
+        }
+        out.append(String.format("%-11s TP %d  FP %d  TN %d  FN %d  precision %.4f  recall %.4f%n", label,
+                confusion.truePositives, confusion.falsePositives, confusion.trueNegatives,
+                confusion.falseNegatives, confusion.precision(), confusion.recall()));
+    }
+
+    static Options parse(String[] args) {
+        Path file = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long rate = 0;
+        long limit = 0;
+        long segmentMb = 64;
+        List<String> properties = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--file" -> file = Path.of(value(args, ++i, arg));
+                case "--threads" -> threads = Integer.parseInt(value(args, ++i, arg));
+                case "--rate" -> rate = Long.parseLong(value(args, ++i, arg));
+                case "--limit" -> limit = Long.parseLong(value(args, ++i, arg));
+                case "--model" -> properties.add("--fraud.detection.local.model=file:" + value(args, ++i, arg));
+                case "--no-rules" -> properties.add("--fraud.rules.enabled=false");
+                case "--segment-mb" -> segmentMb = Long.parseLong(value(args, ++i, arg));
+                default -> {
+                    if (arg.startsWith("--") && arg.indexOf('=') > 2) {
+                        properties.add(arg);
+                    } else if (arg.startsWith("--") || file != null) {
+                        throw new IllegalArgumentException("Unexpected argument " + arg);
+                    } else {
+                        file = Path.of(arg);
+                    }
+                }
+            }
+        }
+        if (file == null) {
+            throw new IllegalArgumentException("Usage: PaySimReplay --file paysim.csv [--threads N] [--rate N] "
+                    + "[--limit N] [--model PATH] [--no-rules] [--segment-mb N] [--property=value ...]");
+        }
+        if (threads < 1 || rate < 0 || limit < 0 || segmentMb < 1) {
+            throw new IllegalArgumentException("threads and segment-mb must be positive, rate and limit not negative");
+        }
+        if (segmentMb > PaySimCsv.MAX_SEGMENT_BYTES >> 20) {
+            throw new IllegalArgumentException("segment-mb must be at most " + (PaySimCsv.MAX_SEGMENT_BYTES >> 20));
+        }
+        return new Options(file, threads, rate, limit, segmentMb << 20, List.copyOf(properties));
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
+}
@@ -4,15 +4,18 @@ import com.example.finance.dto.AnomalyDTO;
 import com.example.finance.entity.Anomaly;
 import com.example.finance.entity.Transaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.example.finance.entity.User;
 import java.util.List;
 
 import java.util.Optional;
 
-public interface AnomalyRepository extends JpaRepository<Anomaly, Integer> {
+public interface AnomalyRepository extends JpaRepository<Anomaly, Integer>, AnomalyRepositoryCustom {
     List<Anomaly> findByUser(User user);
     Optional<Anomaly> findById(Long id);
     List<Anomaly> findByTransaction(Transaction transaction);
-}
-
 
+    @Query(AnomalyRepositoryCustomImpl.PROJECTION + " where a.id = :id")
+    Optional<AnomalyDTO> findProjectedById(@Param("id") Long id);
+}
@@ -0,0 +1,16 @@
+package com.example.finance.repository;
+
+import com.example.finance.dto.AnomalyDTO;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+public interface AnomalyRepositoryCustom {
+
+    /**
+     * One page of anomalies, newest first by id, projected straight into {@link AnomalyDTO}.
+     * Every filter argument is optional; {@code beforeId} is the keyset cursor from the previous page.
+     */
+    List<AnomalyDTO> findPage(Long userId, Boolean resolved, Timestamp detectedFrom, Timestamp detectedTo,
+                              Long beforeId, int limit);
+}
@@ -0,0 +1,55 @@
+package com.example.finance.repository;
+
+import com.example.finance.dto.AnomalyDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class AnomalyRepositoryCustomImpl implements AnomalyRepositoryCustom {
+
+    // Same field mapping as AnomalyDTOMapper, in one join instead of a lookup per row
+    static final String PROJECTION = "select new com.example.finance.dto.AnomalyDTO("
+            + "a.id, u.id, u.email, t.id, a.anomalyType, a.score, a.description, a.detectedAt, a.resolved) "
+            + "from Anomaly a join a.user u left join a.transaction t";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<AnomalyDTO> findPage(Long userId, Boolean resolved, Timestamp detectedFrom, Timestamp detectedTo,
+                                     Long beforeId, int limit) {
+        // Only the filters that are set go into the query, so each shape can use its own index
+        StringBuilder jpql = new StringBuilder(PROJECTION).append(" where 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+        if (userId != null) {
+            jpql.append(" and u.id = :userId");
+            params.put("userId", userId);
+        }
+        if (resolved != null) {
+            jpql.append(" and a.resolved = :resolved");
+            params.put("resolved", resolved);
+        }
+        if (detectedFrom != null) {
+            jpql.append(" and a.detectedAt >= :detectedFrom");
+            params.put("detectedFrom", detectedFrom);
+        }
+        if (detectedTo != null) {
+            jpql.append(" and a.detectedAt < :detectedTo");
+            params.put("detectedTo", detectedTo);
+        }
+        if (beforeId != null) {
+            jpql.append(" and a.id < :beforeId");
+            params.put("beforeId", beforeId);
+        }
+        jpql.append(" order by a.id desc");
+
+        TypedQuery<AnomalyDTO> query = entityManager.createQuery(jpql.toString(), AnomalyDTO.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+}
@@ -1,10 +1,15 @@
 package com.example.finance.repository;
 
 
+import com.example.finance.dto.TransactionHistoryItem;
 import com.example.finance.entity.Transaction;
 import com.example.finance.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.sql.Timestamp;
 import java.util.List;
 
 
@@ -14,4 +19,25 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     List<Transaction> findByReceiver(User receiver);
 
     List<Transaction> findBySenderAndReceiver(User sender, User receiver);
+
+    // Both history queries are range scans on (user_id | receiver_id, timestamp, id), newest first
+    @Query("select new com.example.finance.dto.TransactionHistoryItem("
+            + "t.id, t.timestamp, t.type, t.amount, t.description, s.email, r.email) "
+            + "from Transaction t join t.sender s join t.receiver r "
+            + "where s.id = :userId and (t.timestamp, t.id) < (:beforeTimestamp, :beforeId) "
+            + "order by t.timestamp desc, t.id desc")
+    List<TransactionHistoryItem> findSentBefore(@Param("userId") Long userId,
+                                                @Param("beforeTimestamp") Timestamp beforeTimestamp,
+                                                @Param("beforeId") Long beforeId,
+                                                Pageable pageable);
+
+    @Query("select new com.example.finance.dto.TransactionHistoryItem("
+            + "t.id, t.timestamp, t.type, t.amount, t.description, s.email, r.email) "
+            + "from Transaction t join t.sender s join t.receiver r "
+            + "where r.id = :userId and (t.timestamp, t.id) < (:beforeTimestamp, :beforeId) "
+            + "order by t.timestamp desc, t.id desc")
+    List<TransactionHistoryItem> findReceivedBefore(@Param("userId") Long userId,
+                                                    @Param("beforeTimestamp") Timestamp beforeTimestamp,
+                                                    @Param("beforeId") Long beforeId,
+                                                    Pageable pageable);
 }
@@ -0,0 +1,199 @@
+package com.example.finance.scoring;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Circuit breaker with a concurrency bulkhead for calls to a remote dependency.
+ * <p>
+ * Callers take a permit with {@link #tryAcquire} and, if granted, report the outcome with
+ * {@link #onResult}, which also returns the bulkhead slot. A permit is refused without waiting
+ * when {@code maxConcurrent} calls are already outstanding, or when the breaker is open.
+ * <p>
+ * While closed, the outcomes of the last {@code windowSize} calls are kept in a ring; once at
+ * least {@code minimumCalls} are recorded and the share of failures reaches
+ * {@code failureRateThreshold}, the breaker opens. Calls slower than {@code slowCallNanos} count
+ * as failures, so a scorer that still answers but has slowed to a crawl trips it too. After
+ * {@code openNanos} the breaker lets {@code halfOpenCalls} trial calls through: if all succeed it
+ * closes, and the first failure opens it again.
+ */
+@Slf4j
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final Semaphore bulkhead;
+    private final int maxConcurrent;
+
+    // Outcome ring for the closed state, guarded by this
+    private final boolean[] window;
+    private int windowNext;
+    private int windowCalls;
+    private int windowFailures;
+
+    private volatile State state = State.CLOSED;
+    private volatile long openedAt;
+    private int halfOpenStarted;
+    private int halfOpenSucceeded;
+
+    private final LongAdder rejectedOpen = new LongAdder();
+    private final LongAdder rejectedBulkhead = new LongAdder();
+    private final LongAdder[] transitions = new LongAdder[State.values().length];
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                          long slowCallNanos, long openNanos, int halfOpenCalls, int maxConcurrent) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize || halfOpenCalls < 1 || maxConcurrent < 1) {
+            throw new IllegalArgumentException("Window, minimum calls, half-open calls and concurrency must be positive, "
+                    + "and minimum calls at most the window size");
+        }
+        if (!(failureRateThreshold > 0 && failureRateThreshold <= 1)) {
+            throw new IllegalArgumentException("Failure rate threshold must be in (0, 1]: " + failureRateThreshold);
+        }
+        this.name = name;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = slowCallNanos;
+        this.openNanos = openNanos;
+        this.halfOpenCalls = halfOpenCalls;
+        this.maxConcurrent = maxConcurrent;
+        this.bulkhead = new Semaphore(maxConcurrent);
+        for (int i = 0; i < transitions.length; i++) {
+            transitions[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Takes a permit for one call, or returns false if the call must not be made.
+     */
+    public boolean tryAcquire(long nowNanos) {
+        if (state == State.OPEN && nowNanos - openedAt < openNanos) {
+            rejectedOpen.increment();
+            return false;
+        }
+        if (!bulkhead.tryAcquire()) {
+            rejectedBulkhead.increment();
+            return false;
+        }
+        synchronized (this) {
+            if (state == State.OPEN) {
+                if (nowNanos - openedAt < openNanos) {
+                    bulkhead.release();
+                    rejectedOpen.increment();
+                    return false;
+                }
+                transition(State.HALF_OPEN, nowNanos);
+            }
+            if (state == State.HALF_OPEN) {
+                if (halfOpenStarted >= halfOpenCalls) {
+                    bulkhead.release();
+                    rejectedOpen.increment();
+                    return false;
+                }
+                halfOpenStarted++;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reports the outcome of a call made under a permit and releases its bulkhead slot.
+     */
+    public void onResult(boolean failed, long elapsedNanos, long nowNanos) {
+        boolean failure = failed || elapsedNanos > slowCallNanos;
+        try {
+            synchronized (this) {
+                switch (state) {
+                    case CLOSED -> recordClosed(failure, nowNanos);
+                    case HALF_OPEN -> {
+                        if (failure) {
+                            transition(State.OPEN, nowNanos);
+                        } else if (++halfOpenSucceeded >= halfOpenCalls) {
+                            transition(State.CLOSED, nowNanos);
+                        }
+                    }
+                    // Calls that were already in flight when the breaker opened
+                    case OPEN -> {
+                    }
+                }
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    public State state() {
+        return state;
+    }
+
+    public int inFlight() {
+        return maxConcurrent - bulkhead.availablePermits();
+    }
+
+    public long rejectedOpen() {
+        return rejectedOpen.sum();
+    }
+
+    public long rejectedBulkhead() {
+        return rejectedBulkhead.sum();
+    }
+
+    /**
+     * How many times the breaker has moved into {@code state}.
+     */
+    public long transitionsTo(State state) {
+        return transitions[state.ordinal()].sum();
+    }
+
+    private void recordClosed(boolean failure, long nowNanos) {
+        if (windowCalls == window.length) {
+            if (window[windowNext]) {
+                windowFailures--;
+            }
+        } else {
+            windowCalls++;
+        }
+        window[windowNext] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowNext = (windowNext + 1) % window.length;
+        if (windowCalls >= minimumCalls && windowFailures >= failureRateThreshold * windowCalls) {
+            transition(State.OPEN, nowNanos);
+        }
+    }
+
+    // Caller holds the monitor
+    private void transition(State to, long nowNanos) {
+        State from = state;
+        if (to == State.OPEN) {
+            openedAt = nowNanos;
+            if (from == State.HALF_OPEN) {
+                log.warn("Circuit breaker {} reopened after a failed trial call", name);
+            } else {
+                log.warn("Circuit breaker {} opened after {} failures in {} calls", name, windowFailures, windowCalls);
+            }
+        } else {
+            log.info("Circuit breaker {} {} (was {})", name, to == State.CLOSED ? "closed" : "half-open", from);
+        }
+        if (to == State.CLOSED) {
+            windowNext = 0;
+            windowCalls = 0;
+            windowFailures = 0;
+        }
+        halfOpenStarted = 0;
+        halfOpenSucceeded = 0;
+        state = to;
+        transitions[to.ordinal()].increment();
+    }
+}
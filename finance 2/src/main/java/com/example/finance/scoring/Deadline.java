@@ -0,0 +1,29 @@
+package com.example.finance.scoring;
+
+/**
+ * Point in {@link System#nanoTime()} time by which a request must be answered, or no deadline.
+ * Created once at the edge and handed down, so every stage spends from the same budget.
+ */
+public record Deadline(long atNanos, boolean bounded) {
+
+    private static final Deadline NONE = new Deadline(0, false);
+
+    public static Deadline none() {
+        return NONE;
+    }
+
+    public static Deadline afterNanos(long budgetNanos) {
+        return new Deadline(System.nanoTime() + budgetNanos, true);
+    }
+
+    /**
+     * Nanoseconds left, possibly negative, or {@link Long#MAX_VALUE} when unbounded.
+     */
+    public long remainingNanos() {
+        return bounded ? atNanos - System.nanoTime() : Long.MAX_VALUE;
+    }
+
+    public boolean expired() {
+        return bounded && atNanos - System.nanoTime() <= 0;
+    }
+}
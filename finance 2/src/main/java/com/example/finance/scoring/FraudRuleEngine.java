@@ -0,0 +1,158 @@
+package com.example.finance.scoring;
+
+import com.example.finance.entity.Type;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ordered threshold and ratio rules evaluated before the model is called.
+ * <p>
+ * Rules are compiled into parallel primitive arrays, one slot per rule, with unset bounds stored
+ * as infinities so every check is a plain comparison. {@link #match} walks them in order and
+ * returns the first rule whose conditions all hold; a transfer no rule matches goes to the model.
+ * Evaluation allocates nothing.
+ * <p>
+ * An ALLOW skips the model, velocity features included, so every ALLOW rule must bound the
+ * sender's transfers in the last hour; a burst of otherwise harmless-looking transfers is scored.
+ */
+public final class FraudRuleEngine {
+
+    public enum Decision {
+        ALLOW,
+        BLOCK,
+        SCORE
+    }
+
+    /**
+     * One rule as configured. Null bounds are not checked. The sender ratio is
+     * {@code amount / oldBalanceOrg}, taken as infinite when the sender had no balance.
+     * {@code maxSenderCount1h} bounds the sender's transfers in the last hour and is required for ALLOW.
+     */
+    public record Rule(
+            String name,
+            Decision decision,
+            Set<Type> types,
+            Double minAmount,
+            Double maxAmount,
+            Double minSenderRatio,
+            Double maxSenderRatio,
+            Double minOldBalanceOrg,
+            Double maxNewBalanceOrig,
+            Long maxSenderCount1h
+    ) {
+    }
+
+    public static final int NO_MATCH = -1;
+
+    private final String[] names;
+    private final Decision[] decisions;
+    private final int[] typeMasks;
+    private final double[] minAmount;
+    private final double[] maxAmount;
+    private final double[] minSenderRatio;
+    private final double[] maxSenderRatio;
+    private final double[] minOldBalanceOrg;
+    private final double[] maxNewBalanceOrig;
+    private final long[] maxSenderCount1h;
+
+    private final AtomicLongArray hits;
+    private final LongAdder evaluations = new LongAdder();
+
+    public FraudRuleEngine(List<Rule> rules) {
+        int n = rules.size();
+        names = new String[n];
+        decisions = new Decision[n];
+        typeMasks = new int[n];
+        minAmount = new double[n];
+        maxAmount = new double[n];
+        minSenderRatio = new double[n];
+        maxSenderRatio = new double[n];
+        minOldBalanceOrg = new double[n];
+        maxNewBalanceOrig = new double[n];
+        maxSenderCount1h = new long[n];
+        hits = new AtomicLongArray(n);
+
+        for (int i = 0; i < n; i++) {
+            Rule rule = rules.get(i);
+            if (rule.decision() == null || rule.decision() == Decision.SCORE) {
+                throw new IllegalArgumentException("Rule " + rule.name() + " must ALLOW or BLOCK");
+            }
+            if (rule.decision() == Decision.ALLOW && rule.maxSenderCount1h() == null) {
+                throw new IllegalArgumentException("ALLOW rule " + rule.name() + " must set maxSenderCount1h");
+            }
+            names[i] = rule.name() != null ? rule.name() : "rule-" + i;
+            decisions[i] = rule.decision();
+            typeMasks[i] = typeMask(rule.types());
+            minAmount[i] = lower(rule.minAmount());
+            maxAmount[i] = upper(rule.maxAmount());
+            minSenderRatio[i] = lower(rule.minSenderRatio());
+            maxSenderRatio[i] = upper(rule.maxSenderRatio());
+            minOldBalanceOrg[i] = lower(rule.minOldBalanceOrg());
+            maxNewBalanceOrig[i] = upper(rule.maxNewBalanceOrig());
+            maxSenderCount1h[i] = rule.maxSenderCount1h() == null ? Long.MAX_VALUE : rule.maxSenderCount1h();
+        }
+    }
+
+    /**
+     * Index of the first matching rule, or {@link #NO_MATCH}.
+     */
+    public int match(Type type, double amount, double oldBalanceOrg, double newBalanceOrig, long senderCount1h) {
+        evaluations.increment();
+        int typeBit = 1 << type.ordinal();
+        double senderRatio = oldBalanceOrg > 0 ? amount / oldBalanceOrg : Double.POSITIVE_INFINITY;
+        for (int i = 0; i < names.length; i++) {
+            if ((typeMasks[i] & typeBit) != 0
+                    && amount >= minAmount[i] && amount <= maxAmount[i]
+                    && senderRatio >= minSenderRatio[i] && senderRatio <= maxSenderRatio[i]
+                    && oldBalanceOrg >= minOldBalanceOrg[i]
+                    && newBalanceOrig <= maxNewBalanceOrig[i]
+                    && senderCount1h <= maxSenderCount1h[i]) {
+                hits.incrementAndGet(i);
+                return i;
+            }
+        }
+        return NO_MATCH;
+    }
+
+    public Decision decision(int rule) {
+        return rule == NO_MATCH ? Decision.SCORE : decisions[rule];
+    }
+
+    public String name(int rule) {
+        return names[rule];
+    }
+
+    public int ruleCount() {
+        return names.length;
+    }
+
+    public long hits(int rule) {
+        return hits.get(rule);
+    }
+
+    public long evaluations() {
+        return evaluations.sum();
+    }
+
+    private static int typeMask(Set<Type> types) {
+        if (types == null || types.isEmpty()) {
+            return -1;
+        }
+        int mask = 0;
+        for (Type type : types) {
+            mask |= 1 << type.ordinal();
+        }
+        return mask;
+    }
+
+    private static double lower(Double bound) {
+        return bound == null ? Double.NEGATIVE_INFINITY : bound;
+    }
+
+    private static double upper(Double bound) {
+        return bound == null ? Double.POSITIVE_INFINITY : bound;
+    }
+}
@@ -0,0 +1,279 @@
+package com.example.finance.scoring;
+
+import com.example.finance.entity.Type;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of scorer verdicts keyed by the transfer's type and quantized amount and balances.
+ * <p>
+ * A key is six {@code long}s: the type ordinal and each amount rounded to a multiple of
+ * {@code quantum}, so transfers that differ by less than the quantum share a verdict. Keys and
+ * verdicts live in flat primitive arrays organised as 4-way sets, each set guarded by one of a
+ * fixed number of stripe locks. Inserting into a full set evicts the entry closest to expiry.
+ * <p>
+ * Entries are stamped with the model version that produced them and are readable only while that
+ * version is live, i.e. still served by some replica. {@link #setLiveVersions} replaces the live
+ * set from the replicas' health checks, so a version that is no longer deployed stops answering
+ * within one probe interval, without waiting for a miss. While a rollout has replicas on two
+ * versions, both stay live and each keeps its own entries, instead of the cache flipping between
+ * them. A verdict from a version not yet seen by the health checks makes that version live too.
+ * Verdicts without a version are not cached.
+ */
+public final class FraudScoreCache {
+
+    /**
+     * A cached verdict.
+     */
+    public record Cached(boolean fraud, double probability, String confidence, String modelVersion) {
+    }
+
+    private static final int WAYS = 4;
+    private static final int KEY_WORDS = 6;
+    private static final int LOCKS = 64;
+
+    private final int setMask;
+    private final long ttlMillis;
+    private final double inverseQuantum;
+
+    private final long[] keys;
+    private final long[] expiresAt;
+    private final int[] generations;
+    private final double[] probabilities;
+    private final boolean[] frauds;
+    private final String[] confidences;
+    private final Object[] locks = new Object[LOCKS];
+
+    // Versions whose entries are readable, and the generation each one's entries are stamped with
+    private record Live(String[] versions, int[] generations) {
+    }
+
+    // Forgotten versions beyond this many are dropped, so one coming back starts with no entries
+    private static final int MAX_KNOWN_VERSIONS = 64;
+
+    private final Object versionLock = new Object();
+    private final Map<String, Integer> generationsByVersion = new HashMap<>();
+    private int nextGeneration = 1;
+    private volatile Live live = new Live(new String[0], new int[0]);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * @param maxEntries rounded up to a power of two, at least {@value #WAYS}
+     * @param quantum    amounts and balances closer than this map to the same key
+     */
+    public FraudScoreCache(int maxEntries, long ttlMillis, double quantum) {
+        if (maxEntries < 1 || ttlMillis < 1 || !(quantum > 0)) {
+            throw new IllegalArgumentException("maxEntries, ttlMillis and quantum must be positive");
+        }
+        int capacity = Math.max(WAYS, Integer.highestOneBit(Math.max(1, maxEntries - 1)) << 1);
+        this.setMask = capacity / WAYS - 1;
+        this.ttlMillis = ttlMillis;
+        this.inverseQuantum = 1.0 / quantum;
+        this.keys = new long[capacity * KEY_WORDS];
+        this.expiresAt = new long[capacity];
+        this.generations = new int[capacity];
+        this.probabilities = new double[capacity];
+        this.frauds = new boolean[capacity];
+        this.confidences = new String[capacity];
+        for (int i = 0; i < LOCKS; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * The cached verdict for this transfer under the current model version, or null.
+     */
+    public Cached get(Type type, double amount, double oldBalanceOrg, double newBalanceOrig,
+                      double oldBalanceDest, double newBalanceDest, long nowMillis) {
+        long k0 = type.ordinal();
+        long k1 = quantize(amount);
+        long k2 = quantize(oldBalanceOrg);
+        long k3 = quantize(newBalanceOrig);
+        long k4 = quantize(oldBalanceDest);
+        long k5 = quantize(newBalanceDest);
+        int set = set(k0, k1, k2, k3, k4, k5);
+        Live current = live;
+        synchronized (locks[set & (LOCKS - 1)]) {
+            for (int slot = set * WAYS; slot < set * WAYS + WAYS; slot++) {
+                if (expiresAt[slot] > nowMillis && matches(slot, k0, k1, k2, k3, k4, k5)) {
+                    int version = indexOf(current.generations(), generations[slot]);
+                    if (version >= 0) {
+                        hits.increment();
+                        return new Cached(frauds[slot], probabilities[slot], confidences[slot],
+                                current.versions()[version]);
+                    }
+                }
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(Type type, double amount, double oldBalanceOrg, double newBalanceOrig,
+                    double oldBalanceDest, double newBalanceDest,
+                    boolean fraud, double probability, String confidence, String modelVersion, long nowMillis) {
+        if (modelVersion == null) {
+            return;
+        }
+        int generation = generationFor(modelVersion);
+        long k0 = type.ordinal();
+        long k1 = quantize(amount);
+        long k2 = quantize(oldBalanceOrg);
+        long k3 = quantize(newBalanceOrig);
+        long k4 = quantize(oldBalanceDest);
+        long k5 = quantize(newBalanceDest);
+        int set = set(k0, k1, k2, k3, k4, k5);
+        int[] liveGenerations = live.generations();
+        synchronized (locks[set & (LOCKS - 1)]) {
+            int target = -1;
+            int soonest = -1;
+            for (int slot = set * WAYS; slot < set * WAYS + WAYS; slot++) {
+                // Entries of another live version are kept; expired ones and those of retired versions are free
+                boolean occupied = expiresAt[slot] > nowMillis && indexOf(liveGenerations, generations[slot]) >= 0;
+                if (occupied && generations[slot] == generation && matches(slot, k0, k1, k2, k3, k4, k5)) {
+                    target = slot;
+                    break;
+                }
+                if (!occupied && target < 0) {
+                    target = slot;
+                } else if (occupied && (soonest < 0 || expiresAt[slot] < expiresAt[soonest])) {
+                    soonest = slot;
+                }
+            }
+            if (target < 0) {
+                target = soonest;
+                evictions.increment();
+            }
+            int base = target * KEY_WORDS;
+            keys[base] = k0;
+            keys[base + 1] = k1;
+            keys[base + 2] = k2;
+            keys[base + 3] = k3;
+            keys[base + 4] = k4;
+            keys[base + 5] = k5;
+            expiresAt[target] = nowMillis + ttlMillis;
+            generations[target] = generation;
+            probabilities[target] = probability;
+            frauds[target] = fraud;
+            confidences[target] = confidence;
+        }
+    }
+
+    public int capacity() {
+        return expiresAt.length;
+    }
+
+    /**
+     * Replaces the live versions with those the scorer replicas currently report. Entries of a
+     * version that is no longer reported become unreadable. An empty report, e.g. no replica
+     * answered, leaves the live set as it is.
+     */
+    public void setLiveVersions(Collection<String> versions) {
+        if (versions.isEmpty()) {
+            return;
+        }
+        synchronized (versionLock) {
+            Live current = live;
+            Set<String> next = new LinkedHashSet<>(versions);
+            for (String version : current.versions()) {
+                if (!next.contains(version)) {
+                    invalidations.increment();
+                }
+            }
+            if (generationsByVersion.size() > MAX_KNOWN_VERSIONS) {
+                generationsByVersion.keySet().retainAll(next);
+            }
+            String[] liveVersions = next.toArray(String[]::new);
+            int[] liveGenerations = new int[liveVersions.length];
+            for (int i = 0; i < liveVersions.length; i++) {
+                liveGenerations[i] = generationsByVersion.computeIfAbsent(liveVersions[i], v -> nextGeneration++);
+            }
+            live = new Live(liveVersions, liveGenerations);
+        }
+    }
+
+    public Set<String> liveVersions() {
+        return Set.of(live.versions());
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * How many times a model version stopped being live, hiding its entries.
+     */
+    public long invalidations() {
+        return invalidations.sum();
+    }
+
+    private int generationFor(String modelVersion) {
+        Live current = live;
+        for (int i = 0; i < current.versions().length; i++) {
+            if (modelVersion.equals(current.versions()[i])) {
+                return current.generations()[i];
+            }
+        }
+        synchronized (versionLock) {
+            current = live;
+            int index = Arrays.asList(current.versions()).indexOf(modelVersion);
+            if (index >= 0) {
+                return current.generations()[index];
+            }
+            int generation = generationsByVersion.computeIfAbsent(modelVersion, v -> nextGeneration++);
+            String[] versions = Arrays.copyOf(current.versions(), current.versions().length + 1);
+            int[] generations = Arrays.copyOf(current.generations(), versions.length);
+            versions[versions.length - 1] = modelVersion;
+            generations[versions.length - 1] = generation;
+            live = new Live(versions, generations);
+            return generation;
+        }
+    }
+
+    private static int indexOf(int[] values, int value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private long quantize(double value) {
+        return Math.round(value * inverseQuantum);
+    }
+
+    private boolean matches(int slot, long k0, long k1, long k2, long k3, long k4, long k5) {
+        int base = slot * KEY_WORDS;
+        return keys[base] == k0 && keys[base + 1] == k1 && keys[base + 2] == k2
+                && keys[base + 3] == k3 && keys[base + 4] == k4 && keys[base + 5] == k5;
+    }
+
+    private int set(long k0, long k1, long k2, long k3, long k4, long k5) {
+        long h = k0;
+        h = LongObjectMap.mix(h ^ k1);
+        h = LongObjectMap.mix(h ^ k2);
+        h = LongObjectMap.mix(h ^ k3);
+        h = LongObjectMap.mix(h ^ k4);
+        h = LongObjectMap.mix(h ^ k5);
+        return (int) h & setMask;
+    }
+}
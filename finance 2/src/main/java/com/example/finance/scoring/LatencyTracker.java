@@ -0,0 +1,63 @@
+package com.example.finance.scoring;
+
+/**
+ * Tracks a latency percentile over a tumbling time window.
+ * <p>
+ * Samples go into a {@link LatencyHistogram}; when a window ends, its percentile becomes the
+ * reported value and the histogram is swapped for an empty one. Readers only see a volatile long,
+ * so the value can be consulted on every request. Windows with fewer than {@code minSamples}
+ * samples keep the previous value, and the value never drops below {@code floorNanos}.
+ */
+public final class LatencyTracker {
+
+    private final double quantile;
+    private final long windowNanos;
+    private final long floorNanos;
+    private final long minSamples;
+
+    private volatile LatencyHistogram current = new LatencyHistogram();
+    private LatencyHistogram spare = new LatencyHistogram();
+    private volatile long windowStart;
+    private volatile long value;
+
+    public LatencyTracker(double quantile, long windowNanos, long floorNanos, long initialNanos, long minSamples,
+                          long nowNanos) {
+        if (!(quantile > 0 && quantile <= 1) || windowNanos < 1) {
+            throw new IllegalArgumentException("Quantile must be in (0, 1] and the window positive");
+        }
+        this.quantile = quantile;
+        this.windowNanos = windowNanos;
+        this.floorNanos = floorNanos;
+        this.minSamples = minSamples;
+        this.windowStart = nowNanos;
+        this.value = Math.max(floorNanos, initialNanos);
+    }
+
+    public void record(long nanos, long nowNanos) {
+        current.record(nanos);
+        if (nowNanos - windowStart >= windowNanos) {
+            rotate(nowNanos);
+        }
+    }
+
+    /**
+     * The percentile of the last complete window.
+     */
+    public long percentileNanos() {
+        return value;
+    }
+
+    private synchronized void rotate(long nowNanos) {
+        if (nowNanos - windowStart < windowNanos) {
+            return;
+        }
+        LatencyHistogram finished = current;
+        spare.reset();
+        current = spare;
+        spare = finished;
+        windowStart = nowNanos;
+        if (finished.count() >= minSamples) {
+            value = Math.max(floorNanos, finished.percentile(quantile));
+        }
+    }
+}
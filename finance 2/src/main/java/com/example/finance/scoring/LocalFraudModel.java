@@ -0,0 +1,159 @@
+package com.example.finance.scoring;
+
+import com.example.finance.entity.Type;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * In-JVM evaluator for the exported fraud pipeline (StandardScaler on the numeric columns, one-hot
+ * encoded {@code type}, logistic regression). The model file is written by
+ * {@code anomaly-service/AnomalyMLModel/export_model.py}.
+ * <p>
+ * Scoring works on primitive feature vectors laid out as {@link #AMOUNT} .. {@link #NEW_BALANCE_DEST}
+ * and does not allocate. Instances are immutable and safe to share between threads.
+ */
+public final class LocalFraudModel {
+
+    public static final int AMOUNT = 0;
+    public static final int OLD_BALANCE_ORG = 1;
+    public static final int NEW_BALANCE_ORIG = 2;
+    public static final int OLD_BALANCE_DEST = 3;
+    public static final int NEW_BALANCE_DEST = 4;
+    public static final int FEATURE_COUNT = 5;
+
+    // Engineered columns the training notebook derives from the raw ones
+    private static final int FRAC_SENT = 5;
+    private static final int FRAC_RECEIVED = 6;
+    private static final double FRAC_EPSILON = 1e-6;
+
+    private static final String FORMAT = "standard-scaler+one-hot+logistic-regression";
+
+    private final String version;
+    private final int[] featureSources;
+    private final double[] means;
+    private final double[] weightsOverScales;
+    private final double[] typeWeights;
+    private final double intercept;
+    private final double threshold;
+
+    private LocalFraudModel(String version, int[] featureSources, double[] means, double[] weightsOverScales,
+                            double[] typeWeights, double intercept, double threshold) {
+        this.version = version;
+        this.featureSources = featureSources;
+        this.means = means;
+        this.weightsOverScales = weightsOverScales;
+        this.typeWeights = typeWeights;
+        this.intercept = intercept;
+        this.threshold = threshold;
+    }
+
+    public static LocalFraudModel load(InputStream json) throws IOException {
+        JsonNode root = new ObjectMapper().readTree(json);
+        if (!FORMAT.equals(root.path("format").asText())) {
+            throw new IOException("Unsupported fraud model format: " + root.path("format").asText());
+        }
+
+        JsonNode names = root.path("numericFeatures");
+        int count = names.size();
+        int[] sources = new int[count];
+        double[] means = new double[count];
+        double[] weightsOverScales = new double[count];
+        for (int i = 0; i < count; i++) {
+            sources[i] = featureSource(names.get(i).asText());
+            means[i] = root.path("means").get(i).asDouble();
+            double scale = root.path("scales").get(i).asDouble();
+            // Fold the scaler's division into the weight: w * (x - mean) / scale
+            weightsOverScales[i] = root.path("numericWeights").get(i).asDouble() / scale;
+        }
+
+        double[] typeWeights = new double[Type.values().length];
+        Iterator<Map.Entry<String, JsonNode>> fields = root.path("typeWeights").fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            typeWeights[Type.valueOf(field.getKey()).ordinal()] = field.getValue().asDouble();
+        }
+
+        return new LocalFraudModel(
+                root.path("version").asText(),
+                sources,
+                means,
+                weightsOverScales,
+                typeWeights,
+                root.path("intercept").asDouble(),
+                root.path("threshold").asDouble(0.5)
+        );
+    }
+
+    private static int featureSource(String name) throws IOException {
+        return switch (name) {
+            case "amount" -> AMOUNT;
+            case "oldbalanceOrg" -> OLD_BALANCE_ORG;
+            case "newbalanceOrig" -> NEW_BALANCE_ORIG;
+            case "oldbalanceDest" -> OLD_BALANCE_DEST;
+            case "newbalanceDest" -> NEW_BALANCE_DEST;
+            case "frac_sent" -> FRAC_SENT;
+            case "frac_received" -> FRAC_RECEIVED;
+            default -> throw new IOException("Unknown model feature: " + name);
+        };
+    }
+
+    public String version() {
+        return version;
+    }
+
+    public double threshold() {
+        return threshold;
+    }
+
+    /**
+     * Fraud probability for one transaction. {@code features} must hold at least
+     * {@link #FEATURE_COUNT} values starting at {@code offset}.
+     */
+    public double score(Type type, double[] features, int offset) {
+        double z = intercept + typeWeights[type.ordinal()];
+        for (int i = 0; i < featureSources.length; i++) {
+            z += (value(features, offset, featureSources[i]) - means[i]) * weightsOverScales[i];
+        }
+        return sigmoid(z);
+    }
+
+    public double score(Type type, double[] features) {
+        return score(type, features, 0);
+    }
+
+    /**
+     * Scores {@code types.length} transactions packed row-major into {@code features} and writes
+     * the probabilities into {@code out}.
+     */
+    public void scoreAll(Type[] types, double[] features, double[] out) {
+        for (int row = 0; row < types.length; row++) {
+            out[row] = score(types[row], features, row * FEATURE_COUNT);
+        }
+    }
+
+    public boolean isFraud(double probability) {
+        return probability > threshold;
+    }
+
+    private static double value(double[] features, int offset, int source) {
+        return switch (source) {
+            case FRAC_SENT -> features[offset + AMOUNT] / (features[offset + OLD_BALANCE_ORG] + FRAC_EPSILON);
+            case FRAC_RECEIVED -> features[offset + AMOUNT] / (features[offset + OLD_BALANCE_DEST] + FRAC_EPSILON);
+            default -> features[offset + source];
+        };
+    }
+
+    private static double sigmoid(double z) {
+        // Same branch split as scipy's expit, so large |z| saturates instead of overflowing
+        if (z >= 0) {
+            return 1.0 / (1.0 + Math.exp(-z));
+        }
+        double e = Math.exp(z);
+        return e / (1.0 + e);
+    }
+}
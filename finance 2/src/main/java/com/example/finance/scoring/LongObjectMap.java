@@ -0,0 +1,110 @@
+package com.example.finance.scoring;
+
+import java.util.function.Predicate;
+
+/**
+ * Open-addressing hash map from positive {@code long} keys to objects, with linear probing and
+ * {@code 0} marking an empty slot. Avoids boxing the key on every lookup.
+ * Not thread-safe; callers provide their own locking.
+ */
+final class LongObjectMap<V> {
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+
+    LongObjectMap(int initialCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(4, initialCapacity - 1)) << 1;
+        keys = new long[capacity];
+        values = new Object[capacity];
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                return (V) values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Inserts a key that is not already present.
+     */
+    void put(long key, V value) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Keys must be positive");
+        }
+        if ((size + 1) * 4 > keys.length * 3) {
+            resize(keys.length * 2);
+        }
+        insert(keys, values, key, value);
+        size++;
+    }
+
+    /**
+     * Removes every entry whose value matches and returns how many were removed.
+     */
+    @SuppressWarnings("unchecked")
+    int removeIf(Predicate<V> predicate) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        long[] newKeys = new long[oldKeys.length];
+        Object[] newValues = new Object[oldKeys.length];
+        int removed = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == 0) {
+                continue;
+            }
+            if (predicate.test((V) oldValues[i])) {
+                removed++;
+            } else {
+                insert(newKeys, newValues, oldKeys[i], oldValues[i]);
+            }
+        }
+        keys = newKeys;
+        values = newValues;
+        size -= removed;
+        return removed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                insert(keys, values, oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static void insert(long[] keys, Object[] values, long key, Object value) {
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (keys[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+
+    private static int slot(long key, int mask) {
+        // The low bits pick a stripe in striped users, so probe with the bits above them
+        return (int) (mix(key) >>> 6) & mask;
+    }
+}
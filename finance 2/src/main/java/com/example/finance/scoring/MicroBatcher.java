@@ -0,0 +1,180 @@
+package com.example.finance.scoring;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent single-item calls into batches.
+ * <p>
+ * Callers {@link #submit} one item and get a future for their own result. A dispatcher thread
+ * collects queued items until either {@code maxBatchSize} is reached or {@code maxLinger} has
+ * passed since the first item of the batch arrived, then hands the batch to {@code batchFunction}
+ * on a worker thread. The batch function must return one result per input, in input order.
+ */
+@Slf4j
+public class MicroBatcher<Q, R> implements AutoCloseable {
+
+    private final Function<List<Q>, List<R>> batchFunction;
+    private final Function<Throwable, R> errorResult;
+    private final int maxBatchSize;
+    private final long maxLingerNanos;
+    private final BlockingQueue<Pending<Q, R>> queue;
+    private final Semaphore inFlightBatches;
+    private final ExecutorService workers;
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+    public MicroBatcher(String name,
+                        Function<List<Q>, List<R>> batchFunction,
+                        Function<Throwable, R> errorResult,
+                        int maxBatchSize,
+                        Duration maxLinger,
+                        int queueCapacity,
+                        int maxInFlightBatches) {
+        if (maxBatchSize < 1 || queueCapacity < 1 || maxInFlightBatches < 1) {
+            throw new IllegalArgumentException("Batch size, queue capacity and in-flight batches must be positive");
+        }
+        this.batchFunction = batchFunction;
+        this.errorResult = errorResult;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLingerNanos = maxLinger.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.inFlightBatches = new Semaphore(maxInFlightBatches);
+        this.workers = Executors.newFixedThreadPool(maxInFlightBatches, daemonThreads(name + "-worker"));
+        this.dispatcher = daemonThreads(name + "-dispatcher").newThread(this::dispatchLoop);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Queues one item. The returned future always completes normally; failures are reported
+     * through the {@code errorResult} factory so callers see the same shape as a scored item.
+     */
+    public CompletableFuture<R> submit(Q item) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        if (!running) {
+            future.complete(errorResult.apply(new IllegalStateException("Batcher is shut down")));
+        } else if (!queue.offer(new Pending<>(item, future))) {
+            future.complete(errorResult.apply(new RejectedExecutionException("Batch queue is full")));
+        }
+        return future;
+    }
+
+    public int queuedItems() {
+        return queue.size();
+    }
+
+    private void dispatchLoop() {
+        List<Pending<Q, R>> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending<Q, R> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long lingerDeadline = System.nanoTime() + maxLingerNanos;
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = lingerDeadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    Pending<Q, R> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                inFlightBatches.acquire();
+                List<Pending<Q, R>> toSend = List.copyOf(batch);
+                batch.clear();
+                workers.execute(() -> {
+                    try {
+                        execute(toSend);
+                    } finally {
+                        inFlightBatches.release();
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failAll(batch, e);
+                return;
+            } catch (RuntimeException e) {
+                log.error("Batch dispatch failed: {}", e.getMessage(), e);
+                failAll(batch, e);
+                batch.clear();
+            }
+        }
+    }
+
+    private void execute(List<Pending<Q, R>> batch) {
+        List<Q> items = new ArrayList<>(batch.size());
+        for (Pending<Q, R> pending : batch) {
+            items.add(pending.item());
+        }
+        try {
+            List<R> results = batchFunction.apply(items);
+            if (results == null || results.size() != batch.size()) {
+                throw new IllegalStateException("Batch returned " + (results == null ? 0 : results.size())
+                        + " results for " + batch.size() + " items");
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future().complete(results.get(i));
+            }
+        } catch (RuntimeException e) {
+            failAll(batch, e);
+        }
+    }
+
+    private void failAll(List<Pending<Q, R>> batch, Throwable cause) {
+        for (Pending<Q, R> pending : batch) {
+            pending.future().complete(errorResult.apply(cause));
+        }
+    }
+
+    /**
+     * Stops accepting items, flushes what is already queued and waits for in-flight batches.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            dispatcher.join(TimeUnit.SECONDS.toMillis(10));
+            workers.shutdown();
+            workers.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Pending<Q, R>> leftovers = new ArrayList<>();
+        queue.drainTo(leftovers);
+        failAll(leftovers, new IllegalStateException("Batcher is shut down"));
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record Pending<Q, R>(Q item, CompletableFuture<R> future) {
+    }
+}
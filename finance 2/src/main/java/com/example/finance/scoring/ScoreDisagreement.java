@@ -0,0 +1,90 @@
+package com.example.finance.scoring;
+
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running comparison of two models' verdicts on the same transfers.
+ * <p>
+ * Each pair updates a 3x3 decision matrix (approve, review, block for the primary against the
+ * candidate), a count of flipped fraud flags, and the sum and absolute sum of the probability
+ * difference, so the candidate's mean shift and mean disagreement can be read at any time without
+ * keeping the samples.
+ */
+public final class ScoreDisagreement {
+
+    public static final int APPROVE = 0;
+    public static final int REVIEW = 1;
+    public static final int BLOCK = 2;
+    private static final String[] DECISIONS = {"approve", "review", "block"};
+
+    private final LongAdder[] decisions = new LongAdder[9];
+    private final LongAdder fraudFlips = new LongAdder();
+    private final DoubleAdder probabilityDelta = new DoubleAdder();
+    private final DoubleAdder absoluteProbabilityDelta = new DoubleAdder();
+
+    public ScoreDisagreement() {
+        for (int i = 0; i < decisions.length; i++) {
+            decisions[i] = new LongAdder();
+        }
+    }
+
+    public static String decisionName(int decision) {
+        return DECISIONS[decision];
+    }
+
+    public void record(int primaryDecision, boolean primaryFraud, double primaryProbability,
+                       int candidateDecision, boolean candidateFraud, double candidateProbability) {
+        decisions[primaryDecision * 3 + candidateDecision].increment();
+        if (primaryFraud != candidateFraud) {
+            fraudFlips.increment();
+        }
+        double delta = candidateProbability - primaryProbability;
+        probabilityDelta.add(delta);
+        absoluteProbabilityDelta.add(Math.abs(delta));
+    }
+
+    /**
+     * Transfers the primary decided as {@code primaryDecision} and the candidate as {@code candidateDecision}.
+     */
+    public long decisions(int primaryDecision, int candidateDecision) {
+        return decisions[primaryDecision * 3 + candidateDecision].sum();
+    }
+
+    public long compared() {
+        long total = 0;
+        for (LongAdder count : decisions) {
+            total += count.sum();
+        }
+        return total;
+    }
+
+    public long decisionDisagreements() {
+        long total = 0;
+        for (int primary = 0; primary < 3; primary++) {
+            for (int candidate = 0; candidate < 3; candidate++) {
+                if (primary != candidate) {
+                    total += decisions(primary, candidate);
+                }
+            }
+        }
+        return total;
+    }
+
+    public long fraudFlips() {
+        return fraudFlips.sum();
+    }
+
+    /**
+     * Mean of candidate minus primary probability; positive when the candidate scores higher.
+     */
+    public double meanProbabilityDelta() {
+        long compared = compared();
+        return compared == 0 ? 0 : probabilityDelta.sum() / compared;
+    }
+
+    public double meanAbsoluteProbabilityDelta() {
+        long compared = compared();
+        return compared == 0 ? 0 : absoluteProbabilityDelta.sum() / compared;
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.finance.scoring;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Client-side balancing over the scorer replicas.
+ * <p>
+ * {@link #acquire} picks the admitted replica with the fewest outstanding requests, starting the
+ * scan at a rotating offset so ties are spread round-robin, and counts the request against it
+ * until {@link #release}. A replica is ejected after {@code ejectAfterFailures} consecutive failed
+ * calls or a failed health probe, and readmitted by the next successful probe. When every replica
+ * is ejected, selection falls back to all of them rather than failing outright.
+ * <p>
+ * A pool that awaits its first probe starts with every replica out of rotation, so nothing counts
+ * as healthy before a probe has said so. Pools nobody probes admit their replicas up front.
+ */
+@Slf4j
+public final class ScorerReplicaPool {
+
+    public static final class Replica {
+        private final String url;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile boolean admitted;
+
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder ejections = new LongAdder();
+
+        Replica(String url, boolean admitted) {
+            this.url = url;
+            this.admitted = admitted;
+        }
+
+        public String url() {
+            return url;
+        }
+
+        public int outstanding() {
+            return outstanding.get();
+        }
+
+        public boolean admitted() {
+            return admitted;
+        }
+
+        public long calls() {
+            return calls.sum();
+        }
+
+        public long errors() {
+            return errors.sum();
+        }
+
+        public double totalSeconds() {
+            return totalNanos.sum() / 1e9;
+        }
+
+        public long ejections() {
+            return ejections.sum();
+        }
+    }
+
+    private final Replica[] replicas;
+    private final int ejectAfterFailures;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ScorerReplicaPool(List<String> urls, int ejectAfterFailures) {
+        this(urls, ejectAfterFailures, false);
+    }
+
+    public ScorerReplicaPool(List<String> urls, int ejectAfterFailures, boolean awaitFirstProbe) {
+        if (urls.isEmpty() || ejectAfterFailures < 1) {
+            throw new IllegalArgumentException("At least one replica URL and a positive failure limit are required");
+        }
+        this.replicas = urls.stream()
+                .map(url -> url.endsWith("/") ? url.substring(0, url.length() - 1) : url)
+                .map(url -> new Replica(url, !awaitFirstProbe))
+                .toArray(Replica[]::new);
+        this.ejectAfterFailures = ejectAfterFailures;
+    }
+
+    /**
+     * Picks a replica for one request. The caller must pass it to {@link #release} when done.
+     */
+    public Replica acquire() {
+        Replica chosen = pick(true, null);
+        if (chosen == null) {
+            chosen = pick(false, null);
+        }
+        chosen.outstanding.incrementAndGet();
+        return chosen;
+    }
+
+    /**
+     * Picks an admitted replica other than {@code excluded}, or returns null if there is none.
+     */
+    public Replica acquireOther(Replica excluded) {
+        Replica best = pick(true, excluded);
+        if (best != null) {
+            best.outstanding.incrementAndGet();
+        }
+        return best;
+    }
+
+    /**
+     * Returns a replica taken by {@link #acquire} whose call was never sent.
+     */
+    public void abandon(Replica replica) {
+        replica.outstanding.decrementAndGet();
+    }
+
+    public void release(Replica replica, boolean failed, long elapsedNanos) {
+        replica.outstanding.decrementAndGet();
+        replica.calls.increment();
+        replica.totalNanos.add(elapsedNanos);
+        if (!failed) {
+            replica.consecutiveFailures.set(0);
+            return;
+        }
+        replica.errors.increment();
+        if (replica.consecutiveFailures.incrementAndGet() >= ejectAfterFailures) {
+            eject(replica, ejectAfterFailures + " consecutive failed calls");
+        }
+    }
+
+    /**
+     * Applies the outcome of a background {@code /health} probe.
+     */
+    public void probed(Replica replica, boolean healthy) {
+        if (!healthy) {
+            eject(replica, "failed health probe");
+            return;
+        }
+        synchronized (replica) {
+            if (!replica.admitted) {
+                replica.consecutiveFailures.set(0);
+                replica.admitted = true;
+                log.info("Scorer replica {} admitted", replica.url);
+            }
+        }
+    }
+
+    public List<Replica> replicas() {
+        return List.of(replicas);
+    }
+
+    public int admittedCount() {
+        int admitted = 0;
+        for (Replica replica : replicas) {
+            if (replica.admitted) {
+                admitted++;
+            }
+        }
+        return admitted;
+    }
+
+    private Replica pick(boolean admittedOnly, Replica excluded) {
+        int start = Math.floorMod(next.getAndIncrement(), replicas.length);
+        Replica best = null;
+        int bestOutstanding = Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.length; i++) {
+            Replica replica = replicas[(start + i) % replicas.length];
+            if (replica == excluded || admittedOnly && !replica.admitted) {
+                continue;
+            }
+            int outstanding = replica.outstanding.get();
+            if (outstanding < bestOutstanding) {
+                best = replica;
+                bestOutstanding = outstanding;
+            }
+        }
+        return best;
+    }
+
+    private void eject(Replica replica, String reason) {
+        synchronized (replica) {
+            if (replica.admitted) {
+                replica.admitted = false;
+                replica.ejections.increment();
+                log.warn("Scorer replica {} ejected: {}", replica.url, reason);
+            }
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.finance.scoring;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Directed sender-to-receiver graph of recent transfers, for fan-in, fan-out and cycle checks.
+ * <p>
+ * Each account keeps its outgoing and incoming edges in parallel primitive arrays (counterparty
+ * id, weight, last transfer second). An edge's weight gains 1 per transfer and halves every
+ * {@code halfLifeSeconds}; an edge counts as live while its decayed weight is at least
+ * {@code liveWeight}. Memory is bounded by {@code maxNodes} accounts and {@code maxEdgesPerNode}
+ * edges per direction; a full edge list overwrites its weakest edge.
+ */
+public final class TransferGraph {
+
+    private static final int INITIAL_EDGES = 4;
+
+    private final LongObjectMap<Node> nodes = new LongObjectMap<>(1024);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int maxNodes;
+    private final int maxEdgesPerNode;
+    private final double decayPerSecond;
+    private final double liveWeight;
+    private final long retentionSeconds;
+    private final LongAdder untracked = new LongAdder();
+    private long lastEvictionSecond;
+
+    public TransferGraph(int maxNodes, int maxEdgesPerNode, long halfLifeSeconds, double liveWeight) {
+        if (maxNodes < 1 || maxEdgesPerNode < 1 || halfLifeSeconds < 1 || liveWeight <= 0 || liveWeight > 1) {
+            throw new IllegalArgumentException("Invalid transfer graph limits");
+        }
+        this.maxNodes = maxNodes;
+        this.maxEdgesPerNode = maxEdgesPerNode;
+        this.decayPerSecond = Math.log(2) / halfLifeSeconds;
+        this.liveWeight = liveWeight;
+        // A single transfer's edge stops being live after this long
+        this.retentionSeconds = (long) Math.ceil(Math.log(1 / liveWeight) / decayPerSecond);
+    }
+
+    /**
+     * Adds one transfer.
+     *
+     * @return true if it created a new live edge, i.e. the sender had no recent transfer to this receiver
+     */
+    public boolean addTransfer(long senderId, long receiverId, long epochSecond) {
+        if (senderId <= 0 || receiverId <= 0 || senderId == receiverId) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            Node sender = node(senderId, epochSecond);
+            Node receiver = node(receiverId, epochSecond);
+            if (sender == null || receiver == null) {
+                untracked.increment();
+                return false;
+            }
+            boolean created = sender.out.add(receiverId, epochSecond, this);
+            receiver.in.add(senderId, epochSecond, this);
+            return created;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Distinct receivers the account sent to recently. */
+    public int fanOut(long accountId, long nowSecond) {
+        lock.readLock().lock();
+        try {
+            Node node = nodes.get(accountId);
+            return node == null ? 0 : node.out.liveCount(nowSecond, this);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Distinct senders the account received from recently. */
+    public int fanIn(long accountId, long nowSecond) {
+        lock.readLock().lock();
+        try {
+            Node node = nodes.get(accountId);
+            return node == null ? 0 : node.in.liveCount(nowSecond, this);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Length in edges of the shortest live path from {@code fromId} to {@code toId}, or -1 if there
+     * is none within {@code maxHops}. Stops after visiting {@code maxVisited} accounts so a dense
+     * neighbourhood cannot make the search expensive.
+     */
+    public int shortestPath(long fromId, long toId, int maxHops, int maxVisited, long nowSecond) {
+        if (fromId == toId) {
+            return 0;
+        }
+        lock.readLock().lock();
+        try {
+            long[] frontier = new long[Math.min(maxVisited, 64)];
+            int frontierSize = 0;
+            long[] visited = new long[maxVisited];
+            int visitedCount = 0;
+            frontier[frontierSize++] = fromId;
+            visited[visitedCount++] = fromId;
+
+            for (int hop = 1; hop <= maxHops && frontierSize > 0; hop++) {
+                long[] next = new long[frontier.length];
+                int nextSize = 0;
+                for (int f = 0; f < frontierSize; f++) {
+                    Node node = nodes.get(frontier[f]);
+                    if (node == null) {
+                        continue;
+                    }
+                    Edges out = node.out;
+                    for (int e = 0; e < out.size; e++) {
+                        if (!out.isLive(e, nowSecond, this)) {
+                            continue;
+                        }
+                        long target = out.ids[e];
+                        if (target == toId) {
+                            return hop;
+                        }
+                        if (contains(visited, visitedCount, target)) {
+                            continue;
+                        }
+                        if (visitedCount == visited.length) {
+                            return -1;
+                        }
+                        visited[visitedCount++] = target;
+                        if (nextSize == next.length) {
+                            next = Arrays.copyOf(next, next.length * 2);
+                        }
+                        next[nextSize++] = target;
+                    }
+                }
+                frontier = next;
+                frontierSize = nextSize;
+            }
+            return -1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int nodeCount() {
+        lock.readLock().lock();
+        try {
+            return nodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Transfers that were not added because the graph was at {@code maxNodes}. */
+    public long untrackedTransfers() {
+        return untracked.sum();
+    }
+
+    private Node node(long accountId, long nowSecond) {
+        Node node = nodes.get(accountId);
+        if (node != null) {
+            node.lastSecond = Math.max(node.lastSecond, nowSecond);
+            return node;
+        }
+        if (nodes.size() >= maxNodes) {
+            // At most one sweep a minute; between sweeps new accounts are simply not tracked
+            if (nowSecond - lastEvictionSecond < 60) {
+                return null;
+            }
+            lastEvictionSecond = nowSecond;
+            if (nodes.removeIf(n -> nowSecond - n.lastSecond > retentionSeconds) == 0) {
+                return null;
+            }
+        }
+        node = new Node(nowSecond);
+        nodes.put(accountId, node);
+        return node;
+    }
+
+    private double decayed(double weight, long sinceSecond, long nowSecond) {
+        long age = nowSecond - sinceSecond;
+        return age <= 0 ? weight : weight * Math.exp(-decayPerSecond * age);
+    }
+
+    private static boolean contains(long[] values, int count, long value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Node {
+        final Edges out = new Edges();
+        final Edges in = new Edges();
+        long lastSecond;
+
+        Node(long lastSecond) {
+            this.lastSecond = lastSecond;
+        }
+    }
+
+    /**
+     * One direction of an account's adjacency. Guarded by the graph's lock.
+     */
+    private static final class Edges {
+        long[] ids = new long[INITIAL_EDGES];
+        double[] weights = new double[INITIAL_EDGES];
+        long[] seconds = new long[INITIAL_EDGES];
+        int size;
+
+        boolean add(long counterpartyId, long nowSecond, TransferGraph graph) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == counterpartyId) {
+                    boolean wasLive = isLive(i, nowSecond, graph);
+                    weights[i] = graph.decayed(weights[i], seconds[i], nowSecond) + 1;
+                    seconds[i] = Math.max(seconds[i], nowSecond);
+                    return !wasLive;
+                }
+            }
+            int slot;
+            if (size < graph.maxEdgesPerNode) {
+                if (size == ids.length) {
+                    int capacity = Math.min(graph.maxEdgesPerNode, ids.length * 2);
+                    ids = Arrays.copyOf(ids, capacity);
+                    weights = Arrays.copyOf(weights, capacity);
+                    seconds = Arrays.copyOf(seconds, capacity);
+                }
+                slot = size++;
+            } else {
+                slot = weakest(nowSecond, graph);
+            }
+            ids[slot] = counterpartyId;
+            weights[slot] = 1;
+            seconds[slot] = nowSecond;
+            return true;
+        }
+
+        boolean isLive(int i, long nowSecond, TransferGraph graph) {
+            return graph.decayed(weights[i], seconds[i], nowSecond) >= graph.liveWeight;
+        }
+
+        int liveCount(long nowSecond, TransferGraph graph) {
+            int live = 0;
+            for (int i = 0; i < size; i++) {
+                if (isLive(i, nowSecond, graph)) {
+                    live++;
+                }
+            }
+            return live;
+        }
+
+        private int weakest(long nowSecond, TransferGraph graph) {
+            int weakest = 0;
+            double lowest = Double.MAX_VALUE;
+            for (int i = 0; i < size; i++) {
+                double weight = graph.decayed(weights[i], seconds[i], nowSecond);
+                if (weight < lowest) {
+                    lowest = weight;
+                    weakest = i;
+                }
+            }
+            return weakest;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.finance.scoring;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-account transfer velocity: how many transfers an account sent and received, and for how
+ * much, over the last minute, hour and day.
+ * <p>
+ * Each window is a ring of time buckets (1m as 6 x 10s, 1h as 12 x 5m, 24h as 24 x 1h), so a
+ * window's totals are exact to within one bucket. Counters live in primitive arrays owned by the
+ * account, and accounts are held in striped open-addressing maps keyed by the raw {@code long}
+ * id, so recording and reading never box. Once {@code maxAccounts} is reached, accounts idle for
+ * longer than the widest window are evicted to make room.
+ */
+public final class VelocityStore {
+
+    public static final int WINDOW_1M = 0;
+    public static final int WINDOW_1H = 1;
+    public static final int WINDOW_24H = 2;
+    public static final int WINDOW_COUNT = 3;
+
+    private static final int[] BUCKET_SECONDS = {10, 300, 3600};
+    private static final int[] BUCKETS = {6, 12, 24};
+    private static final int[] OFFSETS = {0, 6, 18};
+    private static final int SLOTS_PER_DIRECTION = 42;
+    private static final int INCOMING = SLOTS_PER_DIRECTION;
+    private static final long RETENTION_SECONDS = 86_400;
+
+    private static final int STRIPES = 64;
+    private static final int INITIAL_STRIPE_CAPACITY = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final int maxAccounts;
+    private final AtomicInteger accounts = new AtomicInteger();
+    private final LongAdder untracked = new LongAdder();
+
+    public VelocityStore(int maxAccounts) {
+        if (maxAccounts < 1) {
+            throw new IllegalArgumentException("maxAccounts must be positive");
+        }
+        this.maxAccounts = maxAccounts;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Adds one transfer to the sender's outgoing and the receiver's incoming windows.
+     */
+    public void record(long senderId, long receiverId, double amount, long epochMillis) {
+        long second = Math.floorDiv(epochMillis, 1000);
+        add(senderId, 0, amount, second);
+        add(receiverId, INCOMING, amount, second);
+    }
+
+    /**
+     * Copies an account's totals as of {@code nowMillis} into {@code counts} and {@code sums},
+     * indexed by {@link #WINDOW_1M}, {@link #WINDOW_1H} and {@link #WINDOW_24H}. Unknown accounts
+     * read as zero.
+     */
+    public void read(long accountId, boolean incoming, long nowMillis, long[] counts, double[] sums) {
+        for (int w = 0; w < WINDOW_COUNT; w++) {
+            counts[w] = 0;
+            sums[w] = 0.0;
+        }
+        if (accountId <= 0) {
+            return;
+        }
+        long second = Math.floorDiv(nowMillis, 1000);
+        Stripe stripe = stripeFor(accountId);
+        synchronized (stripe) {
+            Account account = stripe.accounts.get(accountId);
+            if (account == null) {
+                return;
+            }
+            int base = incoming ? INCOMING : 0;
+            for (int w = 0; w < WINDOW_COUNT; w++) {
+                long current = Math.floorDiv(second, BUCKET_SECONDS[w]);
+                long oldest = current - BUCKETS[w];
+                for (int b = 0; b < BUCKETS[w]; b++) {
+                    int slot = base + OFFSETS[w] + b;
+                    long stamp = account.stamps[slot];
+                    if (stamp > oldest && stamp <= current) {
+                        counts[w] += account.counts[slot];
+                        sums[w] += account.sums[slot];
+                    }
+                }
+            }
+        }
+    }
+
+    public int trackedAccounts() {
+        return accounts.get();
+    }
+
+    /**
+     * Transfers that could not be tracked because the store was at {@code maxAccounts}.
+     */
+    public long untrackedUpdates() {
+        return untracked.sum();
+    }
+
+    private void add(long accountId, int base, double amount, long second) {
+        if (accountId <= 0) {
+            return;
+        }
+        Stripe stripe = stripeFor(accountId);
+        synchronized (stripe) {
+            Account account = stripe.accounts.get(accountId);
+            if (account == null) {
+                if (accounts.get() >= maxAccounts && !evictIdle(stripe, second)) {
+                    untracked.increment();
+                    return;
+                }
+                account = new Account();
+                stripe.accounts.put(accountId, account);
+                accounts.incrementAndGet();
+            }
+            account.lastSecond = Math.max(account.lastSecond, second);
+            for (int w = 0; w < WINDOW_COUNT; w++) {
+                long bucket = Math.floorDiv(second, BUCKET_SECONDS[w]);
+                int slot = base + OFFSETS[w] + (int) Math.floorMod(bucket, BUCKETS[w]);
+                long stamp = account.stamps[slot];
+                if (stamp == bucket) {
+                    account.counts[slot]++;
+                    account.sums[slot] += amount;
+                } else if (stamp < bucket) {
+                    // The slot still holds a bucket that has rotated out of the window
+                    account.stamps[slot] = bucket;
+                    account.counts[slot] = 1;
+                    account.sums[slot] = amount;
+                }
+                // stamp > bucket: the event is older than what the ring now covers; nothing to add
+            }
+        }
+    }
+
+    /**
+     * Called when the store is full: drops the stripe's idle accounts, at most once a minute per stripe.
+     *
+     * @return true if anything was freed
+     */
+    private boolean evictIdle(Stripe stripe, long nowSecond) {
+        if (nowSecond - stripe.lastEvictionSecond < 60) {
+            return false;
+        }
+        stripe.lastEvictionSecond = nowSecond;
+        int dropped = stripe.accounts.removeIf(account -> nowSecond - account.lastSecond >= RETENTION_SECONDS);
+        accounts.addAndGet(-dropped);
+        return dropped > 0;
+    }
+
+    private Stripe stripeFor(long accountId) {
+        return stripes[(int) (LongObjectMap.mix(accountId) & (STRIPES - 1))];
+    }
+
+    private static final class Account {
+        final long[] stamps = new long[2 * SLOTS_PER_DIRECTION];
+        final int[] counts = new int[2 * SLOTS_PER_DIRECTION];
+        final double[] sums = new double[2 * SLOTS_PER_DIRECTION];
+        long lastSecond;
+
+        Account() {
+            Arrays.fill(stamps, Long.MIN_VALUE);
+        }
+    }
+
+    private static final class Stripe {
+        final LongObjectMap<Account> accounts = new LongObjectMap<>(INITIAL_STRIPE_CAPACITY);
+        long lastEvictionSecond;
+    }
+}
@@ -0,0 +1,8 @@
+-- Indexes behind the paginated anomaly queries (GET /api/v1/anomalies).
+-- Pages are read newest first by id, so each filter column is paired with id.
+-- CONCURRENTLY keeps the table writable while the indexes build; run outside a transaction block.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_anomalies_user_id ON anomalies (user_id, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_anomalies_resolved_id ON anomalies (resolved, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_anomalies_detected_at ON anomalies (detected_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_anomalies_transaction_id ON anomalies (transaction_id);
@@ -0,0 +1,12 @@
+-- One-off upgrade for databases created while ids were GenerationType.IDENTITY.
+-- Creates the pooled sequences the entities now use and moves them past the existing ids,
+-- so Hibernate's pooled optimizer never hands out an id that is already taken.
+-- Run once against the finance database before starting the new version.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS transactions_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS anomalies_seq INCREMENT BY 50;
+
+SELECT setval('users_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM users));
+SELECT setval('transactions_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM transactions));
+SELECT setval('anomalies_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM anomalies));
@@ -0,0 +1,13 @@
+-- Indexes behind GET /api/v1/users/me/transactions.
+-- Each history query filters on one side of the transfer and seeks on (timestamp, id) newest first,
+-- so both indexes lead with the account column followed by the sort key.
+-- CONCURRENTLY keeps the table writable while the indexes build; run outside a transaction block.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_sender_history ON transactions (user_id, timestamp, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_receiver_history ON transactions (receiver_id, timestamp, id);
+
+-- Rows written before the service defaulted the timestamp sort as the oldest history entries.
+UPDATE transactions SET timestamp = to_timestamp(0) WHERE timestamp IS NULL;
+
+-- Time-range reads: the velocity store rebuild at startup and bounded exports.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_timestamp ON transactions (timestamp);
@@ -0,0 +1,11 @@
+-- Server time each transaction row was written.
+-- The timestamp column can be supplied by the client, so velocity windows and transfer graph edges
+-- are recorded and rebuilt at startup from recorded_at instead; the rebuild selects rows by it.
+
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS recorded_at timestamp;
+
+-- Older rows only have the client timestamp; never place one in the future.
+UPDATE transactions SET recorded_at = LEAST(timestamp, now()) WHERE recorded_at IS NULL;
+
+-- CONCURRENTLY keeps the table writable while the index builds; run outside a transaction block.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_recorded_at ON transactions (recorded_at);
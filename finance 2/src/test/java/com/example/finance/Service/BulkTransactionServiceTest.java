@@ -0,0 +1,196 @@
+package com.example.finance.Service;
+
+import com.example.finance.dto.BatchTransactionResponse;
+import com.example.finance.dto.BatchTransactionResponse.ItemResult;
+import com.example.finance.dto.TransactionRequest;
+import com.example.finance.entity.Role;
+import com.example.finance.entity.Type;
+import com.example.finance.entity.User;
+import com.example.finance.repository.AnomalyRepository;
+import com.example.finance.repository.TransactionRepository;
+import com.example.finance.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs bulk transfers against H2 with a stubbed scorer: items fail independently, and a chunk that
+ * cannot be written leaves no balance or transaction behind.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ledger;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "jwt.secret=ZmluYW5jZS1hbm9tYWx5LWxlZGdlci10ZXN0LXNlY3JldC1rZXktMzItYnl0ZXM=",
+        // The scorer is mocked; nothing listens for health probes
+        "fraud.detection.health.enabled=false",
+        "transaction.conflict.max-attempts=10"
+})
+class BulkTransactionServiceTest {
+
+    // The stub scorer blocks exactly this amount
+    private static final BigDecimal BLOCKED_AMOUNT = new BigDecimal("66.60");
+
+    @Autowired
+    private BulkTransactionService bulkTransactionService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AnomalyRepository anomalyRepository;
+
+    @Autowired
+    private AnomalyRecorder anomalyRecorder;
+
+    @MockitoBean
+    private FraudDetectionService fraudDetectionService;
+
+    private User alice;
+    private User bob;
+    private User carol;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        // Graph hits from an earlier test are written behind; let them land before clearing
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (anomalyRecorder.getRecorded() > anomalyRecorder.getFlushed() + anomalyRecorder.getFailed()
+                && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        anomalyRepository.deleteAll();
+        transactionRepository.deleteAll();
+        userRepository.deleteAll();
+        alice = account("alice", "100.00");
+        bob = account("bob", "50.00");
+        carol = account("carol", "0.00");
+
+        when(fraudDetectionService.applyVelocity(any(), anyLong(), anyLong()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(fraudDetectionService.checkFraudBatch(
+                ArgumentMatchers.<List<FraudDetectionService.FraudPredictionRequest>>any())).thenAnswer(invocation -> {
+            List<FraudDetectionService.FraudPredictionRequest> requests = invocation.getArgument(0);
+            List<FraudDetectionService.FraudPredictionResponse> responses = new ArrayList<>();
+            for (FraudDetectionService.FraudPredictionRequest request : requests) {
+                FraudDetectionService.FraudPredictionResponse response = new FraudDetectionService.FraudPredictionResponse();
+                boolean blocked = request.getAmount().compareTo(BLOCKED_AMOUNT) == 0;
+                response.setFraud(blocked);
+                response.setFraudProbability(blocked ? 0.99 : 0.01);
+                response.setConfidence("high");
+                responses.add(response);
+            }
+            return responses;
+        });
+    }
+
+    @Test
+    void failedItemsDoNotStopTheRestOfTheBatch() {
+        BatchTransactionResponse response = bulkTransactionService.createTransactions(List.of(
+                transfer("alice", "bob", "30.00", null),
+                transfer("alice", "bob", "500.00", null),
+                transfer("alice", "nobody", "1.00", null),
+                transfer("alice", "bob", BLOCKED_AMOUNT.toPlainString(), null),
+                transfer("bob", "carol", "10.00", null)));
+
+        assertThat(response.getSubmitted()).isEqualTo(5);
+        assertThat(response.getSucceeded()).isEqualTo(2);
+        assertThat(response.getFailed()).isEqualTo(3);
+        assertThat(response.getResults()).extracting(ItemResult::isSuccess)
+                .containsExactly(true, false, false, false, true);
+        assertThat(response.getResults()).extracting(ItemResult::getError).containsExactly(
+                null, "Insufficient balance", "Receiver not found", "Transaction blocked due to fraud detection", null);
+        // Planned against the balance the first item left behind
+        assertThat(response.getResults().get(4).getTransaction().getOldBalanceOrg()).isEqualByComparingTo("80.00");
+
+        assertThat(balance(alice)).isEqualByComparingTo("70.00");
+        assertThat(balance(bob)).isEqualByComparingTo("70.00");
+        assertThat(balance(carol)).isEqualByComparingTo("10.00");
+        assertThat(transactionRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void commitBatchRollsBackEveryTransferWhenOneCannotBeWritten() {
+        List<LedgerService.PlannedTransfer> transfers = List.of(
+                planned(transfer("alice", "bob", "10.00", null), "100.00", "50.00"),
+                // Longer than the description column, so the insert fails after both balances were changed
+                planned(transfer("alice", "bob", "20.00", "x".repeat(300)), "90.00", "60.00"));
+
+        assertThatThrownBy(() -> ledgerService.commitBatch(expected("100.00", "50.00"), transfers))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(balance(alice)).isEqualByComparingTo("100.00");
+        assertThat(balance(bob)).isEqualByComparingTo("50.00");
+        assertThat(transactionRepository.count()).isZero();
+    }
+
+    @Test
+    void commitBatchRejectsTheWholeBatchWhenABalanceMoved() {
+        List<LedgerService.PlannedTransfer> transfers = List.of(
+                planned(transfer("alice", "bob", "10.00", null), "100.00", "50.00"));
+
+        assertThatThrownBy(() -> ledgerService.commitBatch(expected("100.00", "49.00"), transfers))
+                .isInstanceOf(LedgerService.BalanceConflictException.class);
+
+        assertThat(balance(alice)).isEqualByComparingTo("100.00");
+        assertThat(balance(bob)).isEqualByComparingTo("50.00");
+        assertThat(transactionRepository.count()).isZero();
+    }
+
+    private User account(String name, String balance) {
+        return userRepository.save(User.builder()
+                .email(name + "@example.com")
+                .username(name)
+                .password("x")
+                .role(Role.USER)
+                .balance(new BigDecimal(balance))
+                .build());
+    }
+
+    private BigDecimal balance(User user) {
+        return userRepository.findById(user.getId()).orElseThrow().getBalance();
+    }
+
+    private Map<Long, BigDecimal> expected(String aliceBalance, String bobBalance) {
+        return Map.of(alice.getId(), new BigDecimal(aliceBalance), bob.getId(), new BigDecimal(bobBalance));
+    }
+
+    private LedgerService.PlannedTransfer planned(TransactionRequest request, String aliceBefore, String bobBefore) {
+        BigDecimal senderBefore = new BigDecimal(aliceBefore);
+        BigDecimal receiverBefore = new BigDecimal(bobBefore);
+        return new LedgerService.PlannedTransfer(request, alice.getId(), bob.getId(),
+                senderBefore, senderBefore.subtract(request.getAmount()),
+                receiverBefore, receiverBefore.add(request.getAmount()));
+    }
+
+    private static TransactionRequest transfer(String from, String to, String amount, String description) {
+        TransactionRequest request = new TransactionRequest();
+        request.setSenderEmail(from + "@example.com");
+        request.setReceiverEmail(to + "@example.com");
+        request.setAmount(new BigDecimal(amount));
+        request.setType(Type.TRANSFER);
+        request.setDescription(description);
+        return request;
+    }
+}
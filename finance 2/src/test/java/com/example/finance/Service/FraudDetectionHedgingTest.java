@@ -0,0 +1,239 @@
+package com.example.finance.Service;
+
+import com.example.finance.entity.Type;
+import com.example.finance.scoring.CircuitBreaker;
+import com.example.finance.scoring.Deadline;
+import com.example.finance.scoring.FraudRuleEngine;
+import com.example.finance.scoring.FraudScoreCache;
+import com.example.finance.scoring.LocalFraudModel;
+import com.example.finance.scoring.ScorerReplicaPool;
+import com.example.finance.scoring.VelocityStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.core5.io.CloseMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Hedged single-call scoring against two loopback scorers. The pool's first pick is always the
+ * first replica, so each test decides which of them is the primary by how it orders them.
+ */
+class FraudDetectionHedgingTest {
+
+    // Without latency samples the hedge fires after the initial delay
+    private static final long HEDGE_DELAY_MS = 50;
+
+    /**
+     * A scorer replica answering {@code /predict} after a delay with a fixed probability, or 500.
+     */
+    private static final class Scorer implements AutoCloseable {
+        private final HttpServer server;
+        private final ExecutorService executor = Executors.newFixedThreadPool(4);
+        private final AtomicInteger calls = new AtomicInteger();
+        private final double probability;
+        private volatile long delayMillis;
+        private volatile int status = 200;
+
+        Scorer(double probability, long delayMillis) throws IOException {
+            this.probability = probability;
+            this.delayMillis = delayMillis;
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 16);
+            server.setExecutor(executor);
+            server.createContext("/predict", exchange -> {
+                calls.incrementAndGet();
+                exchange.getRequestBody().readAllBytes();
+                try {
+                    Thread.sleep(this.delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = ("{\"is_fraud\": false, \"fraud_probability\": " + probability
+                        + ", \"confidence\": \"high\", \"model_version\": \"v1\"}").getBytes(StandardCharsets.UTF_8);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    exchange.sendResponseHeaders(status, body.length);
+                    out.write(body);
+                } catch (IOException e) {
+                    // The client cancelled the call and closed the connection
+                }
+            });
+            server.start();
+        }
+
+        String url() {
+            return "http://127.0.0.1:" + server.getAddress().getPort();
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    private CloseableHttpAsyncClient client;
+    private LocalFraudModel localFraudModel;
+    private Scorer slow;
+    private Scorer fast;
+    private ScorerReplicaPool pool;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        client = HttpAsyncClients.createDefault();
+        client.start();
+        try (InputStream in = getClass().getResourceAsStream("/model/fraud_model.json")) {
+            localFraudModel = LocalFraudModel.load(in);
+        }
+        slow = new Scorer(0.77, 5_000);
+        fast = new Scorer(0.33, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close(CloseMode.IMMEDIATE);
+        slow.close();
+        fast.close();
+    }
+
+    @Test
+    void aSlowPrimaryIsHedgedToTheOtherReplicaAndTheFastAnswerWins() throws InterruptedException {
+        FraudDetectionService service = service(1.0, slow, fast);
+
+        long start = System.nanoTime();
+        FraudDetectionService.FraudPredictionResponse response = service.checkFraud(transfer());
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(response.getFraudProbability()).isEqualTo(0.33);
+        assertThat(response.getError()).isNull();
+        assertThat(elapsedMillis).isGreaterThanOrEqualTo(HEDGE_DELAY_MS).isLessThan(slow.delayMillis);
+        assertThat(slow.calls.get()).isEqualTo(1);
+        assertThat(fast.calls.get()).isEqualTo(1);
+        assertThat(service.getHedgesSent()).isEqualTo(1);
+        assertThat(service.getHedgeWins()).isEqualTo(1);
+
+        // The losing call is cancelled and hands its replica back long before the slow answer
+        assertThat(service.getCancelledCalls()).isEqualTo(1);
+        awaitTrue(() -> pool.replicas().get(0).outstanding() == 0);
+        assertThat(service.getWastedSeconds()).isGreaterThan(0).isLessThan(slow.delayMillis / 1000.0);
+        // A cancelled call says nothing about the replica's health
+        assertThat(pool.replicas().get(0).errors()).isZero();
+    }
+
+    @Test
+    void aPrimaryAnsweringWithinTheDelayIsNotHedged() {
+        // The first call also pays for the connection and class loading, so give it room
+        FraudDetectionService service = service(1.0, 2_000, fast, slow);
+
+        FraudDetectionService.FraudPredictionResponse response = service.checkFraud(transfer());
+
+        assertThat(response.getFraudProbability()).isEqualTo(0.33);
+        assertThat(slow.calls.get()).isZero();
+        assertThat(service.getHedgesSent()).isZero();
+        assertThat(service.getCancelledCalls()).isZero();
+    }
+
+    @Test
+    void noHedgeIsSentBeyondTheMaxRatio() {
+        slow.delayMillis = 300;
+        FraudDetectionService service = service(0.0, slow, fast);
+
+        FraudDetectionService.FraudPredictionResponse response = service.checkFraud(transfer());
+
+        assertThat(response.getFraudProbability()).isEqualTo(0.77);
+        assertThat(fast.calls.get()).isZero();
+        assertThat(service.getHedgesSent()).isZero();
+    }
+
+    @Test
+    void aFailedHedgeDoesNotBeatASlowSuccessfulPrimary() {
+        slow.delayMillis = 300;
+        fast.status = 500;
+        FraudDetectionService service = service(1.0, slow, fast);
+
+        FraudDetectionService.FraudPredictionResponse response = service.checkFraud(transfer());
+
+        assertThat(response.getFraudProbability()).isEqualTo(0.77);
+        assertThat(response.getError()).isNull();
+        assertThat(service.getHedgesSent()).isEqualTo(1);
+        assertThat(service.getHedgeWins()).isZero();
+    }
+
+    @Test
+    void bothCallsAreCancelledWhenTheDeadlinePasses() throws Exception {
+        Scorer alsoSlow = new Scorer(0.5, 5_000);
+        try {
+            FraudDetectionService service = service(1.0, slow, alsoSlow);
+
+            FraudDetectionService.FraudPredictionResponse response = service.checkFraud(
+                    transfer(), Deadline.afterNanos(TimeUnit.MILLISECONDS.toNanos(200)));
+
+            assertThat(response.getError()).isEqualTo(FraudDetectionService.DEADLINE_EXCEEDED);
+            assertThat(service.getHedgesSent()).isEqualTo(1);
+            assertThat(service.getCancelledCalls()).isEqualTo(2);
+            awaitTrue(() -> pool.replicas().get(0).outstanding() == 0 && pool.replicas().get(1).outstanding() == 0);
+            // Both calls are cut off at the deadline rather than left to finish
+            assertThat(service.getWastedSeconds()).isGreaterThan(0.2).isLessThan(1.0);
+        } finally {
+            alsoSlow.close();
+        }
+    }
+
+    private FraudDetectionService service(double maxRatio, Scorer first, Scorer second) {
+        return service(maxRatio, HEDGE_DELAY_MS, first, second);
+    }
+
+    private FraudDetectionService service(double maxRatio, long hedgeDelayMillis, Scorer first, Scorer second) {
+        pool = new ScorerReplicaPool(List.of(first.url(), second.url()), 3);
+        CircuitBreaker breaker = new CircuitBreaker("test", 50, 20, 0.5,
+                TimeUnit.SECONDS.toNanos(10), TimeUnit.SECONDS.toNanos(10), 3, 32);
+        FraudDetectionService service = new FraudDetectionService(
+                mock(RestTemplate.class), client, new ObjectMapper(), localFraudModel,
+                mock(VelocityStore.class), new FraudRuleEngine(List.of()), mock(TransferMetrics.class),
+                mock(FraudScoreCache.class), breaker, pool, mock(ShadowScorer.class));
+        ReflectionTestUtils.setField(service, "backend", "remote");
+        ReflectionTestUtils.setField(service, "degradedMode", "review");
+        ReflectionTestUtils.setField(service, "degradedAllowBelowAmount", new BigDecimal("1000"));
+        ReflectionTestUtils.setField(service, "hedgeEnabled", true);
+        ReflectionTestUtils.setField(service, "hedgePercentile", 0.95);
+        ReflectionTestUtils.setField(service, "hedgeWindowSeconds", 10L);
+        ReflectionTestUtils.setField(service, "hedgeMinDelayMs", 5L);
+        ReflectionTestUtils.setField(service, "hedgeInitialDelayMs", hedgeDelayMillis);
+        ReflectionTestUtils.setField(service, "hedgeMaxRatio", maxRatio);
+        service.init();
+        return service;
+    }
+
+    private static FraudDetectionService.FraudPredictionRequest transfer() {
+        return TransactionService.scoringRequest(
+                Type.TRANSFER, new BigDecimal("10.00"), new BigDecimal("500.00"), new BigDecimal("0.00"));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
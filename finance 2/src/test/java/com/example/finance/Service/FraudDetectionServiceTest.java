@@ -0,0 +1,149 @@
+package com.example.finance.Service;
+
+import com.example.finance.entity.Type;
+import com.example.finance.scoring.CircuitBreaker;
+import com.example.finance.scoring.Deadline;
+import com.example.finance.scoring.FraudRuleEngine;
+import com.example.finance.scoring.FraudScoreCache;
+import com.example.finance.scoring.LocalFraudModel;
+import com.example.finance.scoring.ScorerReplicaPool;
+import com.example.finance.scoring.VelocityStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * What a transfer gets when the scorer gives no verdict. A call that fails is decided by the
+ * degraded policy, never approved by the error response. A transfer whose deadline has already
+ * passed never reaches the scorer, and its verdict is never weaker than either the local model's
+ * or the degraded policy's.
+ */
+class FraudDetectionServiceTest {
+
+    private final LocalFraudModel localFraudModel = mock(LocalFraudModel.class);
+    private final CloseableHttpAsyncClient asyncHttpClient = mock(CloseableHttpAsyncClient.class);
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private final CircuitBreaker circuitBreaker = mock(CircuitBreaker.class);
+
+    @Test
+    void anExpiredDeadlineStillBlocksWhatTheLocalModelBlocks() {
+        FraudDetectionService service = service("allow-below-limit", 0.97);
+
+        FraudDetectionService.FraudPredictionResponse response = service.checkFraud(transfer("10.00"), expired());
+
+        assertThat(TransactionService.shouldBlock(response)).isTrue();
+        assertThat(response.getError()).isEqualTo(FraudDetectionService.DEADLINE_EXCEEDED);
+        assertThat(service.getDeadlinesExceeded()).isEqualTo(1);
+        verifyNoInteractions(asyncHttpClient);
+    }
+
+    @Test
+    void anExpiredDeadlineIsNeverLaxerThanTheDegradedPolicy() {
+        FraudDetectionService service = service("review", 0.01);
+
+        FraudDetectionService.FraudPredictionResponse response = service.checkFraud(transfer("10.00"), expired());
+
+        assertThat(TransactionService.shouldBlock(response)).isFalse();
+        assertThat(TransactionService.requiresManualReview(response)).isTrue();
+        assertThat(response.getConfidence()).isEqualTo("degraded");
+    }
+
+    @Test
+    void aSmallTransferTheLocalModelClearsIsAllowedWhereThePolicyAllowsIt() {
+        FraudDetectionService service = service("allow-below-limit", 0.01);
+
+        FraudDetectionService.FraudPredictionResponse response = service.checkFraud(transfer("10.00"), expired());
+
+        assertThat(TransactionService.requiresManualReview(response)).isFalse();
+        assertThat(response.getError()).isEqualTo(FraudDetectionService.DEADLINE_EXCEEDED);
+    }
+
+    @Test
+    void anUnreachableScorerIsDecidedByTheDegradedPolicy() {
+        FraudDetectionService service = service("block", 0.01);
+        when(circuitBreaker.tryAcquire(anyLong())).thenReturn(true);
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        FraudDetectionService.FraudPredictionResponse response = service.checkFraud(transfer("10.00"));
+
+        assertThat(TransactionService.shouldBlock(response)).isTrue();
+        assertThat(response.getError()).isEqualTo(FraudDetectionService.SERVICE_UNAVAILABLE);
+        assertThat(response.getConfidence()).isEqualTo("degraded");
+        // Still reported to the breaker as a failure
+        verify(circuitBreaker).onResult(eq(true), anyLong(), anyLong());
+    }
+
+    @Test
+    void aScorerErrorIsNeverApproved() {
+        FraudDetectionService service = service("review", 0.01);
+        when(circuitBreaker.tryAcquire(anyLong())).thenReturn(true);
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
+                .thenReturn(ResponseEntity.status(500).body("{\"error\": \"boom\"}"));
+
+        FraudDetectionService.FraudPredictionResponse response = service.checkFraud(transfer("10.00"));
+
+        assertThat(TransactionService.requiresManualReview(response)).isTrue();
+        assertThat(response.getError()).isNotNull();
+    }
+
+    @Test
+    void aFailedBatchCallIsDecidedByTheDegradedPolicy() {
+        FraudDetectionService service = service("block", 0.01);
+        when(circuitBreaker.tryAcquire(anyLong())).thenReturn(true);
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
+                .thenThrow(new ResourceAccessException("Read timed out"));
+
+        List<FraudDetectionService.FraudPredictionResponse> responses =
+                service.checkFraudBatch(List.of(transfer("10.00"), transfer("20.00")));
+
+        assertThat(responses).allMatch(TransactionService::shouldBlock);
+    }
+
+    private FraudDetectionService service(String degradedMode, double localProbability) {
+        when(localFraudModel.score(eq(Type.TRANSFER), any(double[].class))).thenReturn(localProbability);
+        when(localFraudModel.isFraud(localProbability)).thenReturn(localProbability > 0.5);
+        FraudDetectionService service = new FraudDetectionService(
+                restTemplate, asyncHttpClient, new ObjectMapper(), localFraudModel,
+                mock(VelocityStore.class), new FraudRuleEngine(List.of()), mock(TransferMetrics.class),
+                mock(FraudScoreCache.class), circuitBreaker,
+                new ScorerReplicaPool(List.of("http://scorer"), 3), mock(ShadowScorer.class));
+        ReflectionTestUtils.setField(service, "backend", "remote");
+        ReflectionTestUtils.setField(service, "degradedMode", degradedMode);
+        ReflectionTestUtils.setField(service, "degradedAllowBelowAmount", new BigDecimal("1000"));
+        ReflectionTestUtils.setField(service, "hedgePercentile", 0.95);
+        ReflectionTestUtils.setField(service, "hedgeWindowSeconds", 10L);
+        ReflectionTestUtils.setField(service, "hedgeMinDelayMs", 5L);
+        ReflectionTestUtils.setField(service, "hedgeInitialDelayMs", 50L);
+        service.init();
+        return service;
+    }
+
+    private static Deadline expired() {
+        return Deadline.afterNanos(-1);
+    }
+
+    private static FraudDetectionService.FraudPredictionRequest transfer(String amount) {
+        return TransactionService.scoringRequest(
+                Type.TRANSFER, new BigDecimal(amount), new BigDecimal("500.00"), new BigDecimal("0.00"));
+    }
+}
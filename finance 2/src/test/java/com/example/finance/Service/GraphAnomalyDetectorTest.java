@@ -0,0 +1,125 @@
+package com.example.finance.Service;
+
+import com.example.finance.entity.Transaction;
+import com.example.finance.entity.User;
+import com.example.finance.scoring.TransferGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class GraphAnomalyDetectorTest {
+
+    private final AnomalyRecorder anomalyRecorder = mock(AnomalyRecorder.class);
+    private final AtomicLong transactionIds = new AtomicLong();
+    private GraphAnomalyDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        detector = new GraphAnomalyDetector(new TransferGraph(1_000, 64, 86_400, 0.25), anomalyRecorder);
+        ReflectionTestUtils.setField(detector, "enabled", true);
+        ReflectionTestUtils.setField(detector, "fanOutThreshold", 3);
+        ReflectionTestUtils.setField(detector, "fanInThreshold", 3);
+        ReflectionTestUtils.setField(detector, "maxCycleLength", 4);
+        ReflectionTestUtils.setField(detector, "maxVisited", 256);
+    }
+
+    @Test
+    void reportsFanOutOnceTheThresholdIsReached() {
+        detector.onCommitted(transfer(1, 2));
+        detector.onCommitted(transfer(1, 3));
+        verify(anomalyRecorder, never()).record(anyLong(), anyLong(), anyString(), anyDouble(), anyString());
+
+        detector.onCommitted(transfer(1, 4));
+
+        verify(anomalyRecorder).record(eq(3L), eq(1L), eq(GraphAnomalyDetector.GRAPH_FAN_OUT), eq(1.0), anyString());
+        assertThat(detector.getFanOutHits()).isEqualTo(1);
+        assertThat(detector.getFanInHits()).isZero();
+    }
+
+    @Test
+    void reportsFanInOnTheReceiver() {
+        detector.onCommitted(transfer(1, 9));
+        detector.onCommitted(transfer(2, 9));
+        detector.onCommitted(transfer(3, 9));
+
+        verify(anomalyRecorder).record(eq(3L), eq(9L), eq(GraphAnomalyDetector.GRAPH_FAN_IN), eq(1.0), anyString());
+        assertThat(detector.getFanInHits()).isEqualTo(1);
+    }
+
+    @Test
+    void reportsTheTransferThatClosesACycle() {
+        detector.onCommitted(transfer(1, 2));
+        detector.onCommitted(transfer(2, 3));
+        detector.onCommitted(transfer(3, 1));
+
+        verify(anomalyRecorder).record(eq(3L), eq(3L), eq(GraphAnomalyDetector.GRAPH_CYCLE), eq(1.0),
+                eq("Transfer closes a cycle of 3 transfers"));
+        assertThat(detector.getCycleHits()).isEqualTo(1);
+    }
+
+    @Test
+    void cyclesLongerThanTheLimitAreNotReported() {
+        for (long account = 1; account < 5; account++) {
+            detector.onCommitted(transfer(account, account + 1));
+        }
+        detector.onCommitted(transfer(5, 1));
+
+        assertThat(detector.getCycleHits()).isZero();
+    }
+
+    @Test
+    void repeatTransfersOverALiveEdgeAreNotRechecked() {
+        detector.onCommitted(transfer(1, 2));
+        detector.onCommitted(transfer(2, 1));
+        detector.onCommitted(transfer(2, 1));
+
+        verify(anomalyRecorder, times(1)).record(anyLong(), anyLong(), eq(GraphAnomalyDetector.GRAPH_CYCLE),
+                anyDouble(), anyString());
+    }
+
+    @Test
+    void clientTimestampsDoNotAgeEdges() {
+        Timestamp longAgo = Timestamp.valueOf("2001-01-01 00:00:00");
+        detector.onCommitted(transfer(1, 2, longAgo));
+        detector.onCommitted(transfer(2, 1, longAgo));
+
+        assertThat(detector.getCycleHits()).isEqualTo(1);
+    }
+
+    @Test
+    void disabledDetectorIgnoresTransfers() {
+        ReflectionTestUtils.setField(detector, "enabled", false);
+        detector.onCommitted(transfer(1, 2));
+        detector.onCommitted(transfer(2, 1));
+
+        assertThat(detector.getCycleHits()).isZero();
+    }
+
+    private Transaction transfer(long senderId, long receiverId) {
+        return transfer(senderId, receiverId, new Timestamp(System.currentTimeMillis()));
+    }
+
+    // Written now, whatever timestamp the client supplied
+    private Transaction transfer(long senderId, long receiverId, Timestamp timestamp) {
+        return Transaction.builder()
+                .id(transactionIds.incrementAndGet())
+                .sender(User.builder().id(senderId).build())
+                .receiver(User.builder().id(receiverId).build())
+                .timestamp(timestamp)
+                .recordedAt(new Timestamp(System.currentTimeMillis()))
+                .build();
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.finance.Service;
+
+import com.example.finance.dto.TransactionRequest;
+import com.example.finance.entity.Role;
+import com.example.finance.entity.Transaction;
+import com.example.finance.entity.Type;
+import com.example.finance.entity.User;
+import com.example.finance.repository.AnomalyRepository;
+import com.example.finance.repository.TransactionRepository;
+import com.example.finance.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Hammers a handful of accounts from many threads and checks that no update is lost:
+ * total money is conserved and every balance matches its transaction history.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ledger;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "jwt.secret=ZmluYW5jZS1hbm9tYWx5LWxlZGdlci10ZXN0LXNlY3JldC1rZXktMzItYnl0ZXM=",
+        // The scorer is mocked; nothing listens for health probes
+        "fraud.detection.health.enabled=false",
+        "transaction.conflict.max-attempts=10"
+})
+class LedgerConcurrencyTest {
+
+    private static final int ACCOUNTS = 4;
+    private static final int THREADS = 8;
+    private static final int TRANSFERS_PER_THREAD = 25;
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000.00");
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AnomalyRepository anomalyRepository;
+
+    @Autowired
+    private AnomalyRecorder anomalyRecorder;
+
+    @Autowired
+    private LedgerStats ledgerStats;
+
+    @MockitoBean
+    private FraudDetectionService fraudDetectionService;
+
+    private final List<String> emails = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        // Graph hits from an earlier test are written behind; let them land before clearing
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (anomalyRecorder.getRecorded() > anomalyRecorder.getFlushed() + anomalyRecorder.getFailed()
+                && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        anomalyRepository.deleteAll();
+        transactionRepository.deleteAll();
+        userRepository.deleteAll();
+        emails.clear();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            User user = userRepository.save(User.builder()
+                    .email("account" + i + "@example.com")
+                    .username("account" + i)
+                    .password("x")
+                    .role(Role.USER)
+                    .balance(OPENING_BALANCE)
+                    .build());
+            emails.add(user.getEmail());
+        }
+
+        FraudDetectionService.FraudPredictionResponse clean = new FraudDetectionService.FraudPredictionResponse();
+        clean.setConfidence("high");
+        when(fraudDetectionService.checkFraud(anyString(), any(), any(), any(), any(), any())).thenReturn(clean);
+        when(fraudDetectionService.checkFraud(
+                ArgumentMatchers.<FraudDetectionService.FraudPredictionRequest>any())).thenReturn(clean);
+        when(fraudDetectionService.checkFraud(
+                ArgumentMatchers.<FraudDetectionService.FraudPredictionRequest>any(), any())).thenReturn(clean);
+    }
+
+    @Test
+    void concurrentTransfersConserveBalances() throws Exception {
+        AtomicInteger committed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    int from = random.nextInt(ACCOUNTS);
+                    int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                    TransactionRequest request = new TransactionRequest();
+                    request.setSenderEmail(emails.get(from));
+                    request.setReceiverEmail(emails.get(to));
+                    request.setAmount(BigDecimal.valueOf(random.nextInt(1, 200)));
+                    request.setTimestamp(new Timestamp(System.currentTimeMillis()));
+                    request.setType(Type.TRANSFER);
+                    try {
+                        transactionService.createTransaction(request);
+                        committed.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        // Insufficient balance or retries exhausted; neither may move money
+                        rejected.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        List<User> users = userRepository.findAll();
+        BigDecimal total = users.stream().map(User::getBalance).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertThat(total).isEqualByComparingTo(OPENING_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS)));
+        assertThat(users).allSatisfy(user -> assertThat(user.getBalance()).isNotNegative());
+
+        List<Transaction> transactions = transactionRepository.findAll();
+        assertThat(transactions).hasSize(committed.get());
+
+        Map<Long, BigDecimal> expected = new HashMap<>();
+        for (User user : users) {
+            expected.put(user.getId(), OPENING_BALANCE);
+        }
+        for (Transaction transaction : transactions) {
+            expected.merge(transaction.getSender().getId(), transaction.getAmount().negate(), BigDecimal::add);
+            expected.merge(transaction.getReceiver().getId(), transaction.getAmount(), BigDecimal::add);
+        }
+        for (User user : users) {
+            assertThat(user.getBalance()).as(user.getEmail()).isEqualByComparingTo(expected.get(user.getId()));
+        }
+
+        assertThat(committed.get()).isPositive();
+        assertThat(committed.get() + rejected.get()).isEqualTo(THREADS * TRANSFERS_PER_THREAD);
+        assertThat(ledgerStats.lockAcquisitions()).isGreaterThanOrEqualTo(committed.get());
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.finance.Service;
+
+import com.example.finance.scoring.FraudScoreCache;
+import com.example.finance.scoring.ScorerReplicaPool;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScorerHealthProberTest {
+
+    /**
+     * A scorer replica whose {@code /health} answer can be changed between probes.
+     */
+    private static final class Replica implements AutoCloseable {
+        private final HttpServer server;
+        private volatile int status = 200;
+        private volatile String body;
+
+        Replica(String body) throws IOException {
+            this.body = body;
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 16);
+            server.createContext("/health", exchange -> {
+                byte[] bytes = this.body.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(status, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            });
+            server.start();
+        }
+
+        String url() {
+            return "http://127.0.0.1:" + server.getAddress().getPort();
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+        }
+    }
+
+    private CloseableHttpAsyncClient client;
+    private Replica first;
+    private Replica second;
+    private ScorerReplicaPool pool;
+    private FraudScoreCache cache;
+    private ScorerHealthProber prober;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        client = HttpAsyncClients.createDefault();
+        client.start();
+        first = new Replica(health("v1"));
+        second = new Replica(health("v2"));
+        pool = new ScorerReplicaPool(List.of(first.url(), second.url()), 3, true);
+        cache = new FraudScoreCache(64, 60_000, 0.01);
+        prober = new ScorerHealthProber(pool, client, cache, new ObjectMapper());
+        ReflectionTestUtils.setField(prober, "timeoutMs", 1_000L);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        first.close();
+        second.close();
+        client.close();
+    }
+
+    @Test
+    void liveVersionsFollowWhatTheReplicasServe() throws InterruptedException {
+        probeUntil(() -> cache.liveVersions().equals(Set.of("v1", "v2")));
+
+        // The rollout finishes: v1 is gone from the fleet without any cache miss
+        first.body = health("v2");
+        probeUntil(() -> cache.liveVersions().equals(Set.of("v2")));
+        assertThat(cache.invalidations()).isEqualTo(1);
+    }
+
+    @Test
+    void anUnhealthyReplicaNoLongerKeepsItsVersionLive() throws InterruptedException {
+        probeUntil(() -> cache.liveVersions().equals(Set.of("v1", "v2")));
+
+        first.status = 500;
+        probeUntil(() -> cache.liveVersions().equals(Set.of("v2")));
+        assertThat(pool.replicas().get(0).admitted()).isFalse();
+    }
+
+    @Test
+    void aReplicaIsOnlyAdmittedOnceItReportsALoadedModel() throws InterruptedException {
+        first.body = "{\"status\": \"healthy\", \"model_loaded\": false, \"model_version\": null}";
+        assertThat(pool.admittedCount()).isZero();
+
+        probeUntil(() -> pool.replicas().get(1).admitted());
+        assertThat(pool.replicas().get(0).admitted()).isFalse();
+        assertThat(cache.liveVersions()).containsExactly("v2");
+
+        first.body = health("v2");
+        probeUntil(() -> pool.replicas().get(0).admitted());
+    }
+
+    @Test
+    void aBodyThatIsNotHealthJsonIsUnhealthy() throws InterruptedException {
+        first.body = "OK";
+        probeUntil(() -> pool.replicas().get(1).admitted());
+        assertThat(pool.replicas().get(0).admitted()).isFalse();
+    }
+
+    private void probeUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            prober.probeAll();
+            Thread.sleep(50);
+            if (condition.getAsBoolean()) {
+                return;
+            }
+        }
+        throw new AssertionError("Condition not reached; live versions " + cache.liveVersions());
+    }
+
+    private static String health(String version) {
+        return "{\"status\": \"healthy\", \"model_loaded\": true, \"model_version\": \"" + version + "\"}";
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.finance.Service;
+
+import com.example.finance.entity.Role;
+import com.example.finance.entity.Transaction;
+import com.example.finance.entity.Type;
+import com.example.finance.entity.User;
+import com.example.finance.scoring.TransferGraph;
+import com.example.finance.scoring.VelocityStore;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The startup rebuild replays transfers into the velocity windows and the transfer graph at the
+ * server time their rows were written, the same clock the live path records them at, whatever
+ * timestamp the client supplied.
+ */
+@DataJpaTest
+class ScoringStateLoaderTest {
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final VelocityStore velocityStore = new VelocityStore(1_000);
+    private final TransferGraph transferGraph = new TransferGraph(1_000, 64, TimeUnit.HOURS.toSeconds(24), 0.25);
+    private ScoringStateLoader loader;
+    private User alice;
+    private User bob;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        loader = new ScoringStateLoader(velocityStore, transferGraph, transactionManager);
+        ReflectionTestUtils.setField(loader, "entityManager", entityManager);
+        ReflectionTestUtils.setField(loader, "rebuildOnStartup", true);
+        ReflectionTestUtils.setField(loader, "rebuildHours", 48L);
+        ReflectionTestUtils.setField(loader, "fetchSize", 100);
+        alice = user("alice");
+        bob = user("bob");
+        now = System.currentTimeMillis();
+    }
+
+    @Test
+    void velocityIsReplayedAtTheRecordedServerTime() {
+        // Back-dated by the client a month, written 20 seconds ago
+        transfer(now - TimeUnit.DAYS.toMillis(30), now - TimeUnit.SECONDS.toMillis(20));
+        // Dated now by the client, but written before the rebuild window
+        transfer(now, now - TimeUnit.HOURS.toMillis(60));
+
+        loader.rebuild();
+
+        long[] counts = new long[VelocityStore.WINDOW_COUNT];
+        double[] sums = new double[VelocityStore.WINDOW_COUNT];
+        velocityStore.read(alice.getId(), false, now, counts, sums);
+        assertThat(counts[VelocityStore.WINDOW_1M]).isEqualTo(1);
+        assertThat(counts[VelocityStore.WINDOW_24H]).isEqualTo(1);
+        velocityStore.read(bob.getId(), true, now, counts, sums);
+        assertThat(counts[VelocityStore.WINDOW_1M]).isEqualTo(1);
+    }
+
+    @Test
+    void graphEdgesAreAgedByTheRecordedServerTime() {
+        // A month old by the client's clock, which would have decayed the edge away
+        transfer(now - TimeUnit.DAYS.toMillis(30), now - TimeUnit.SECONDS.toMillis(20));
+
+        loader.rebuild();
+
+        assertThat(transferGraph.fanOut(alice.getId(), now / 1000)).isEqualTo(1);
+        assertThat(transferGraph.fanIn(bob.getId(), now / 1000)).isEqualTo(1);
+    }
+
+    private User user(String name) {
+        return testEntityManager.persist(User.builder()
+                .email(name + "@example.com")
+                .username(name)
+                .password("x")
+                .role(Role.USER)
+                .balance(new BigDecimal("100.00"))
+                .build());
+    }
+
+    private void transfer(long clientMillis, long recordedMillis) {
+        testEntityManager.persist(Transaction.builder()
+                .sender(alice)
+                .receiver(bob)
+                .amount(new BigDecimal("10.00"))
+                .timestamp(new Timestamp(clientMillis))
+                .recordedAt(new Timestamp(recordedMillis))
+                .type(Type.TRANSFER)
+                .build());
+        testEntityManager.flush();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.finance.Service;
+
+import com.example.finance.entity.Type;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShadowScorerTest {
+
+    private static final int MAX_IN_FLIGHT = 2;
+
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+    private HttpServer candidate;
+    private ShadowScorer shadowScorer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // A slow candidate, so every request the scorer allows is outstanding at once
+        candidate = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 64);
+        candidate.setExecutor(Executors.newFixedThreadPool(8));
+        candidate.createContext("/predict", exchange -> {
+            peak.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            concurrent.decrementAndGet();
+            byte[] body = "{\"is_fraud\": false, \"fraud_probability\": 0.2, \"confidence\": \"high\"}"
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        candidate.start();
+
+        shadowScorer = new ShadowScorer(new ObjectMapper());
+        ReflectionTestUtils.setField(shadowScorer, "enabled", true);
+        ReflectionTestUtils.setField(shadowScorer, "shadowUrl", "http://127.0.0.1:" + candidate.getAddress().getPort());
+        ReflectionTestUtils.setField(shadowScorer, "sampleRate", 1.0);
+        ReflectionTestUtils.setField(shadowScorer, "queueCapacity", 64);
+        ReflectionTestUtils.setField(shadowScorer, "maxInFlight", MAX_IN_FLIGHT);
+        ReflectionTestUtils.setField(shadowScorer, "timeoutMs", 5_000L);
+        shadowScorer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        shadowScorer.stop();
+        candidate.stop(0);
+    }
+
+    @Test
+    void comparesEverySampleWithoutExceedingItsOwnConnectionCap() throws InterruptedException {
+        FraudDetectionService.FraudPredictionResponse primary = new FraudDetectionService.FraudPredictionResponse();
+        primary.setFraud(false);
+        primary.setFraudProbability(0.1);
+        for (int i = 0; i < 10; i++) {
+            shadowScorer.offer(TransactionService.scoringRequest(
+                    Type.TRANSFER, new BigDecimal("10.00"), new BigDecimal("100.00"), BigDecimal.ZERO), primary);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (shadowScorer.getDisagreement().compared() < 10 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(shadowScorer.getDisagreement().compared()).isEqualTo(10);
+        assertThat(shadowScorer.getFailed()).isZero();
+        assertThat(peak.get()).isBetween(1, MAX_IN_FLIGHT);
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.finance.Service;
+
+import com.example.finance.entity.Role;
+import com.example.finance.entity.Transaction;
+import com.example.finance.entity.Type;
+import com.example.finance.entity.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({TransactionHistoryService.class, TransactionExportService.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class TransactionExportServiceTest {
+
+    @Autowired
+    private TransactionExportService exportService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Transaction> transactions = new ArrayList<>();
+
+    /**
+     * Records how many bytes had reached the client at each flush.
+     */
+    private static final class FlushRecordingStream extends ByteArrayOutputStream {
+        private final List<Integer> flushedSizes = new ArrayList<>();
+
+        @Override
+        public void flush() {
+            flushedSizes.add(size());
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        User alice = user("alice");
+        User bob = user("bob");
+        transactions.add(transfer(alice, bob, "10.00", "2026-01-01T10:00:00Z", "rent"));
+        transactions.add(transfer(bob, alice, "2.50", "2026-01-02T10:00:00Z", "split \"dinner\", drinks"));
+        transactions.add(transfer(alice, bob, "7.25", "2026-01-03T10:00:00Z", null));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerRowInIdOrder() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.export(TransactionExportService.Format.NDJSON, null, null, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(rows).isEqualTo(3);
+        assertThat(lines).hasSize(3);
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode row = objectMapper.readTree(lines[i]);
+            assertThat(row.path("id").asLong()).isEqualTo(transactions.get(i).getId());
+            assertThat(row.path("senderId").asLong()).isEqualTo(transactions.get(i).getSender().getId());
+            assertThat(row.path("type").asText()).isEqualTo("TRANSFER");
+            assertThat(row.path("amount").decimalValue()).isEqualByComparingTo(transactions.get(i).getAmount());
+        }
+    }
+
+    @Test
+    void csvEscapesDescriptionsAndKeepsTheRangeHalfOpen() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.export(TransactionExportService.Format.CSV,
+                Instant.parse("2026-01-02T10:00:00Z"), Instant.parse("2026-01-03T10:00:00Z"), out);
+
+        assertThat(rows).isEqualTo(1);
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\n")).containsExactly(
+                TransactionExportService.CSV_HEADER,
+                transactions.get(1).getId() + "," + transactions.get(1).getSender().getId() + ","
+                        + transactions.get(1).getReceiver().getId() + ",TRANSFER,2.50,,,,,2026-01-02T10:00:00Z,"
+                        + "\"split \"\"dinner\"\", drinks\"");
+    }
+
+    @Test
+    void emptyRangeWritesNoRowsButKeepsTheCsvHeader() throws Exception {
+        Instant from = Instant.parse("2030-01-01T00:00:00Z");
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        assertThat(exportService.export(TransactionExportService.Format.NDJSON, from, null, ndjson)).isZero();
+        assertThat(ndjson.size()).isZero();
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        assertThat(exportService.export(TransactionExportService.Format.CSV, from, null, csv)).isZero();
+        assertThat(csv.toString(StandardCharsets.UTF_8)).isEqualTo(TransactionExportService.CSV_HEADER + "\n");
+    }
+
+    @Test
+    void flushesToTheClientWhileStreaming() throws Exception {
+        ReflectionTestUtils.setField(exportService, "flushEveryRows", 1);
+        FlushRecordingStream out = new FlushRecordingStream();
+        try {
+            exportService.export(TransactionExportService.Format.NDJSON, null, null, out);
+        } finally {
+            ReflectionTestUtils.setField(exportService, "flushEveryRows", 5000);
+        }
+
+        // One flush per row, then the final one, each with more output than the last
+        assertThat(out.flushedSizes).hasSize(4);
+        assertThat(out.flushedSizes.get(0)).isPositive().isLessThan(out.flushedSizes.get(1));
+        assertThat(out.flushedSizes.get(1)).isLessThan(out.flushedSizes.get(2));
+        assertThat(out.flushedSizes.get(3)).isEqualTo(out.size());
+    }
+
+    private User user(String name) {
+        return entityManager.persist(User.builder()
+                .email(name + "@example.com")
+                .username(name)
+                .password("x")
+                .role(Role.USER)
+                .balance(BigDecimal.ZERO)
+                .build());
+    }
+
+    private Transaction transfer(User sender, User receiver, String amount, String timestamp, String description) {
+        return entityManager.persist(Transaction.builder()
+                .sender(sender)
+                .receiver(receiver)
+                .amount(new BigDecimal(amount))
+                .timestamp(Timestamp.from(Instant.parse(timestamp)))
+                .description(description)
+                .type(Type.TRANSFER)
+                .build());
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.finance.Service;
+
+import com.example.finance.dto.TransactionHistoryItem;
+import com.example.finance.dto.TransactionHistoryPage;
+import com.example.finance.entity.Role;
+import com.example.finance.entity.Transaction;
+import com.example.finance.entity.Type;
+import com.example.finance.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({TransactionHistoryService.class, TransactionExportService.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class TransactionHistoryServiceTest {
+
+    @Autowired
+    private TransactionHistoryService historyService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User alice;
+    private User bob;
+    private User carol;
+    private final List<Transaction> aliceHistory = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        alice = user("alice");
+        bob = user("bob");
+        carol = user("carol");
+        // Oldest first; the two 11:00 rows tie on timestamp and are ordered by id
+        aliceHistory.add(transfer(alice, bob, "2026-01-01 10:00:00"));
+        aliceHistory.add(transfer(bob, alice, "2026-01-01 11:00:00"));
+        aliceHistory.add(transfer(alice, carol, "2026-01-01 11:00:00"));
+        aliceHistory.add(transfer(carol, alice, "2026-01-01 12:00:00"));
+        aliceHistory.add(transfer(alice, bob, "2026-01-01 13:00:00"));
+        transfer(bob, carol, "2026-01-01 14:00:00");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void pagesWalkSentAndReceivedNewestFirstWithoutGapsOrRepeats() {
+        TransactionHistoryPage first = historyService.getHistory(alice.getId(), null, 3);
+        // The page boundary falls between the two rows sharing 11:00
+        assertThat(ids(first)).containsExactly(id(4), id(3), id(2));
+        assertThat(first.getNextCursor()).isNotNull();
+
+        TransactionHistoryPage second = historyService.getHistory(alice.getId(), first.getNextCursor(), 3);
+        assertThat(ids(second)).containsExactly(id(1), id(0));
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void exactlyFullLastPageHasNoCursor() {
+        TransactionHistoryPage first = historyService.getHistory(bob.getId(), null, 2);
+        assertThat(first.getItems()).hasSize(2);
+        assertThat(first.getNextCursor()).isNotNull();
+
+        TransactionHistoryPage second = historyService.getHistory(bob.getId(), first.getNextCursor(), 2);
+        assertThat(second.getItems()).hasSize(2);
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void userWithoutTransactionsGetsAnEmptyLastPage() {
+        User dave = user("dave");
+
+        TransactionHistoryPage page = historyService.getHistory(dave.getId(), null, null);
+
+        assertThat(page.getItems()).isEmpty();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThatThrownBy(() -> historyService.getHistory(alice.getId(), "not-a-cursor", 3))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Long id(int index) {
+        return aliceHistory.get(index).getId();
+    }
+
+    private static List<Long> ids(TransactionHistoryPage page) {
+        return page.getItems().stream().map(TransactionHistoryItem::id).toList();
+    }
+
+    private User user(String name) {
+        return entityManager.persist(User.builder()
+                .email(name + "@example.com")
+                .username(name)
+                .password("x")
+                .role(Role.USER)
+                .balance(BigDecimal.ZERO)
+                .build());
+    }
+
+    private Transaction transfer(User sender, User receiver, String timestamp) {
+        return entityManager.persist(Transaction.builder()
+                .sender(sender)
+                .receiver(receiver)
+                .amount(BigDecimal.TEN)
+                .timestamp(Timestamp.valueOf(timestamp))
+                .type(Type.TRANSFER)
+                .build());
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.finance.Service;
+
+import com.example.finance.dto.TransactionRequest;
+import com.example.finance.dto.TransactionResponse;
+import com.example.finance.dto.TransactionStatusResponse;
+import com.example.finance.dto.TransactionStatusResponse.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionSubmissionServiceTest {
+
+    private final TransactionService transactionService = mock(TransactionService.class);
+    private TransactionSubmissionService submissions;
+
+    @BeforeEach
+    void setUp() {
+        submissions = new TransactionSubmissionService(transactionService);
+        ReflectionTestUtils.setField(submissions, "queueCapacity", 1);
+        ReflectionTestUtils.setField(submissions, "workerCount", 1);
+        ReflectionTestUtils.setField(submissions, "statusRetentionMinutes", 60L);
+        ReflectionTestUtils.setField(submissions, "shutdownTimeoutSeconds", 5L);
+        submissions.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        submissions.stop();
+    }
+
+    @Test
+    void completedSubmissionCarriesTheResult() throws InterruptedException {
+        TransactionResponse result = TransactionResponse.builder().id(7L).amount(new BigDecimal("25.00")).build();
+        when(transactionService.createTransaction(any(TransactionRequest.class))).thenReturn(result);
+
+        String trackingId = submissions.submit(new TransactionRequest()).orElseThrow();
+
+        TransactionStatusResponse status = awaitFinished(trackingId);
+        assertThat(status.getStatus()).isEqualTo(Status.COMPLETED);
+        assertThat(status.getResult()).isSameAs(result);
+        assertThat(status.getError()).isNull();
+        assertThat(status.getCompletedAt()).isAfterOrEqualTo(status.getSubmittedAt());
+    }
+
+    @Test
+    void failedSubmissionCarriesTheError() throws InterruptedException {
+        when(transactionService.createTransaction(any(TransactionRequest.class)))
+                .thenThrow(new RuntimeException("Insufficient balance"));
+
+        String trackingId = submissions.submit(new TransactionRequest()).orElseThrow();
+
+        TransactionStatusResponse status = awaitFinished(trackingId);
+        assertThat(status.getStatus()).isEqualTo(Status.FAILED);
+        assertThat(status.getError()).isEqualTo("Insufficient balance");
+        assertThat(status.getResult()).isNull();
+    }
+
+    @Test
+    void rejectsWhenTheQueueIsFull() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(transactionService.createTransaction(any(TransactionRequest.class))).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return TransactionResponse.builder().build();
+        });
+
+        String processing = submissions.submit(new TransactionRequest()).orElseThrow();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(submissions.submit(new TransactionRequest())).isPresent();
+        assertThat(submissions.submit(new TransactionRequest())).isEmpty();
+        assertThat(submissions.getStatus(processing)).get()
+                .extracting(TransactionStatusResponse::getStatus).isEqualTo(Status.PROCESSING);
+        release.countDown();
+    }
+
+    @Test
+    void unknownTrackingIdHasNoStatus() {
+        assertThat(submissions.getStatus("missing")).isEmpty();
+    }
+
+    private TransactionStatusResponse awaitFinished(String trackingId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            TransactionStatusResponse status = submissions.getStatus(trackingId).orElseThrow();
+            if (status.getStatus() == Status.COMPLETED || status.getStatus() == Status.FAILED) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Submission " + trackingId + " did not finish");
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.finance.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DefaultPropertiesPostProcessorTest {
+
+    @Test
+    void suppliesDefaultsWithoutOverridingConfiguredValues() {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("configured",
+                Map.of("management.endpoints.web.exposure.include", "health")));
+
+        new DefaultPropertiesPostProcessor().postProcessEnvironment(environment, new SpringApplication());
+
+        assertThat(environment.getProperty("management.endpoints.web.exposure.include")).isEqualTo("health");
+        assertThat(environment.getProperty("spring.jpa.open-in-view")).isEqualTo("false");
+        assertThat(environment.getProperty("management.metrics.tags.application")).isEqualTo("finance-anomaly-backend");
+        assertThat(environment.getPropertySources().stream().reduce((first, second) -> second).orElseThrow().getName())
+                .isEqualTo(DefaultPropertiesPostProcessor.PROPERTY_SOURCE_NAME);
+    }
+}
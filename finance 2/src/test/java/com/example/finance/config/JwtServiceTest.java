@@ -0,0 +1,79 @@
+package com.example.finance.config;
+
+import com.example.finance.entity.Role;
+import com.example.finance.entity.User;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "ZmluYW5jZS1hbm9tYWx5LWxlZGdlci10ZXN0LXNlY3JldC1rZXktMzItYnl0ZXM=";
+
+    private TokenDenyList denyList;
+    private JwtService jwtService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        denyList = new TokenDenyList();
+        ReflectionTestUtils.setField(denyList, "maxEntries", 100);
+        jwtService = new JwtService(denyList);
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "cacheMaxEntries", 100);
+        jwtService.init();
+        user = User.builder().id(42L).email("alice@example.com").username("alice").role(Role.USER).build();
+    }
+
+    @Test
+    void logoutRejectsACachedTokenAndEvictsIt() {
+        String token = jwtService.generateToken(user);
+        assertThat(jwtService.validateToken(token)).isPresent();
+        assertThat(verifiedTokens()).containsKey(token);
+
+        assertThat(jwtService.revokeToken(token)).isTrue();
+
+        assertThat(verifiedTokens()).doesNotContainKey(token);
+        assertThat(jwtService.validateToken(token)).isEmpty();
+        assertThat(jwtService.isTokenValid(token, user)).isFalse();
+    }
+
+    @Test
+    void revokingOneTokenLeavesTheUsersOtherTokensValid() {
+        String loggedOut = jwtService.generateToken(user);
+        String other = jwtService.generateToken(user);
+
+        assertThat(jwtService.revokeToken(loggedOut)).isTrue();
+
+        assertThat(jwtService.validateToken(loggedOut)).isEmpty();
+        assertThat(jwtService.validateToken(other)).isPresent();
+    }
+
+    @Test
+    void denyListEntryRejectsATokenAlreadyInTheCache() {
+        String token = jwtService.generateToken(user);
+        Claims claims = jwtService.validateToken(token).orElseThrow();
+
+        // Revoked behind the cache's back, e.g. by another logout path
+        denyList.revoke(claims.getId(), claims.getExpiration().getTime());
+
+        assertThat(jwtService.validateToken(token)).isEmpty();
+        assertThat(verifiedTokens()).doesNotContainKey(token);
+    }
+
+    @Test
+    void revokingAnInvalidTokenIsANoOp() {
+        assertThat(jwtService.revokeToken("not.a.jwt")).isTrue();
+        assertThat(denyList.size()).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Claims> verifiedTokens() {
+        return (Map<String, Claims>) ReflectionTestUtils.getField(jwtService, "verifiedTokens");
+    }
+}
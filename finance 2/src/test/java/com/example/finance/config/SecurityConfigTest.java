@@ -0,0 +1,87 @@
+package com.example.finance.config;
+
+import com.example.finance.Service.AnomalyService;
+import com.example.finance.controller.AnomalyController;
+import com.example.finance.dto.AnomalyPage;
+import com.example.finance.entity.Role;
+import com.example.finance.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Who may read anomalies: they cover every user, so only ADMIN tokens get through.
+ */
+@WebMvcTest(controllers = AnomalyController.class, properties = {
+        "jwt.secret=ZmluYW5jZS1hbm9tYWx5LWxlZGdlci10ZXN0LXNlY3JldC1rZXktMzItYnl0ZXM=",
+        "jwt.stateless.enabled=true"
+})
+@Import({SecurityConfig.class, JwtAuthFilter.class, JwtService.class, TokenDenyList.class,
+        SecurityConfigTest.Meters.class})
+class SecurityConfigTest {
+
+    @TestConfiguration
+    static class Meters {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @MockitoBean
+    private AnomalyService anomalyService;
+
+    @MockitoBean
+    private UserDetailsService userDetailsService;
+
+    @Test
+    void aUserTokenCannotReadAnomalies() throws Exception {
+        String token = token(Role.USER);
+
+        mockMvc.perform(get("/api/v1/anomalies").header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/v1/anomalies").param("userId", "1").header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/v1/anomalies/7").header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void anAdminTokenCanReadAnomalies() throws Exception {
+        when(anomalyService.findAnomalies(any(), any(), any(), any(), any(), any()))
+                .thenReturn(AnomalyPage.builder().items(List.of()).build());
+
+        mockMvc.perform(get("/api/v1/anomalies").header("Authorization", "Bearer " + token(Role.ADMIN)))
+                .andExpect(status().isOk());
+    }
+
+    private String token(Role role) {
+        return jwtService.generateToken(User.builder()
+                .id(role == Role.ADMIN ? 1L : 2L)
+                .email(role.name().toLowerCase() + "@example.com")
+                .username(role.name().toLowerCase())
+                .role(role)
+                .build());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.finance.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenDenyListTest {
+
+    private TokenDenyList denyList;
+
+    @BeforeEach
+    void setUp() {
+        denyList = new TokenDenyList();
+        ReflectionTestUtils.setField(denyList, "maxEntries", 2);
+    }
+
+    @Test
+    void revokedTokenIsDeniedUntilItExpires() throws InterruptedException {
+        String revoked = UUID.randomUUID().toString();
+        String other = UUID.randomUUID().toString();
+
+        assertThat(denyList.revoke(revoked, System.currentTimeMillis() + 100)).isTrue();
+        assertThat(denyList.isRevoked(revoked)).isTrue();
+        assertThat(denyList.isRevoked(other)).isFalse();
+
+        Thread.sleep(150);
+        assertThat(denyList.isRevoked(revoked)).isFalse();
+    }
+
+    @Test
+    void alreadyExpiredTokenIsNotStored() {
+        assertThat(denyList.revoke(UUID.randomUUID().toString(), System.currentTimeMillis() - 1)).isTrue();
+        assertThat(denyList.size()).isZero();
+    }
+
+    @Test
+    void malformedIdsAreNeitherStoredNorDenied() {
+        assertThat(denyList.revoke("not-a-uuid", System.currentTimeMillis() + 60_000)).isFalse();
+        assertThat(denyList.isRevoked("not-a-uuid")).isFalse();
+        assertThat(denyList.isRevoked(null)).isFalse();
+    }
+
+    @Test
+    void fullListPurgesExpiredEntriesButRefusesWhenAllAreLive() throws InterruptedException {
+        long now = System.currentTimeMillis();
+        assertThat(denyList.revoke(UUID.randomUUID().toString(), now + 50)).isTrue();
+        assertThat(denyList.revoke(UUID.randomUUID().toString(), now + 60_000)).isTrue();
+        assertThat(denyList.revoke(UUID.randomUUID().toString(), now + 60_000)).isFalse();
+
+        // A full list forces a purge at most once a second
+        Thread.sleep(1_100);
+        String live = UUID.randomUUID().toString();
+        assertThat(denyList.revoke(live, System.currentTimeMillis() + 60_000)).isTrue();
+        assertThat(denyList.size()).isEqualTo(2);
+        assertThat(denyList.isRevoked(live)).isTrue();
+    }
+}
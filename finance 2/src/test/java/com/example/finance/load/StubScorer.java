@@ -0,0 +1,106 @@
+package com.example.finance.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-process stand-in for the Python scorer serving {@code /predict}, {@code /predict/batch} and
+ * {@code /health} on an ephemeral loopback port. Each scoring call sleeps for the base latency
+ * plus uniform jitter, and fails with a 500 at the configured error rate. Responses have the same
+ * shape as the Flask service's, with a low, non-blocking fraud probability.
+ */
+final class StubScorer implements AutoCloseable {
+
+    private static final String VERDICT = "{\"is_fraud\": false, \"fraud_probability\": 0.02, \"confidence\": \"high\", \"model_version\": \"stub\"}";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final long latencyNanos;
+    private final long jitterNanos;
+    private final double errorRate;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    StubScorer(long latencyMicros, long jitterMicros, double errorRate, int threads) throws IOException {
+        this.latencyNanos = TimeUnit.MICROSECONDS.toNanos(latencyMicros);
+        this.jitterNanos = TimeUnit.MICROSECONDS.toNanos(jitterMicros);
+        this.errorRate = errorRate;
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        server.setExecutor(executor);
+        server.createContext("/health", exchange -> respond(exchange, 200, "{\"status\": \"healthy\", \"model_loaded\": true, \"model_version\": \"stub\"}"));
+        server.createContext("/predict", this::predict);
+        server.start();
+    }
+
+    String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    long calls() {
+        return calls.sum();
+    }
+
+    long failures() {
+        return failures.sum();
+    }
+
+    private void predict(HttpExchange exchange) throws IOException {
+        calls.increment();
+        byte[] body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = in.readAllBytes();
+        }
+        long delay = latencyNanos + (jitterNanos > 0 ? ThreadLocalRandom.current().nextLong(jitterNanos) : 0);
+        if (delay > 0) {
+            LockSupport.parkNanos(delay);
+        }
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            failures.increment();
+            respond(exchange, 500, "{\"error\": \"stub failure\"}");
+            return;
+        }
+        if (exchange.getRequestURI().getPath().equals("/predict/batch")) {
+            JsonNode transactions = objectMapper.readTree(body).path("transactions");
+            StringBuilder results = new StringBuilder("{\"results\": [");
+            for (int i = 0; i < transactions.size(); i++) {
+                results.append(i == 0 ? "" : ", ").append(VERDICT);
+            }
+            respond(exchange, 200, results.append("]}").toString());
+        } else {
+            respond(exchange, 200, VERDICT);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
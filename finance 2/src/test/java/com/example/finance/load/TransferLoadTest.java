@@ -0,0 +1,233 @@
+package com.example.finance.load;
+
+import com.example.finance.entity.User;
+import com.example.finance.repository.UserRepository;
+import com.example.finance.scoring.LatencyHistogram;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load run against the real HTTP stack, H2 and an in-process {@link StubScorer}, so it
+ * needs neither Postgres nor the Python service. Registers and logs in {@code load.users} users,
+ * then sends {@code POST /api/v1/transaction} at a fixed rate and prints throughput and latency
+ * percentiles for each phase.
+ * <p>
+ * Excluded from the normal build; run it with
+ * <pre>
+ * mvn -Pload test -Dload.rate=500 -Dload.duration-seconds=60 -Dload.stub.latency-us=5000
+ * </pre>
+ * Transfers are sent open-loop: each request has a due time, and latency is measured from that
+ * time, so when the service falls behind the queueing delay shows up in the percentiles instead of
+ * silently lowering the offered rate. {@code load.max-in-flight} caps outstanding requests.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "jwt.secret=ZmluYW5jZS1hbm9tYWx5LWxlZGdlci10ZXN0LXNlY3JldC1rZXktMzItYnl0ZXM=",
+        "fraud.detection.state.rebuild-on-startup=false",
+        // The scoring client logs every payload at INFO, which would dominate a load run
+        "logging.level.com.example.finance=WARN"
+})
+class TransferLoadTest {
+
+    private static final int USERS = Integer.getInteger("load.users", 50);
+    private static final int RATE = Integer.getInteger("load.rate", 200);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup-seconds", 5);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.duration-seconds", 30);
+    private static final int MAX_IN_FLIGHT = Integer.getInteger("load.max-in-flight", 512);
+    private static final long STUB_LATENCY_MICROS = Long.getLong("load.stub.latency-us", 2000);
+    private static final long STUB_JITTER_MICROS = Long.getLong("load.stub.jitter-us", 1000);
+    private static final double STUB_ERROR_RATE = Double.parseDouble(System.getProperty("load.stub.error-rate", "0"));
+    private static final int STUB_THREADS = Integer.getInteger("load.stub.threads", 64);
+
+    private static StubScorer scorer;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final class Phase {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder succeeded = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder transportErrors = new LongAdder();
+        long elapsedNanos;
+    }
+
+    @DynamicPropertySource
+    static void scorerUrl(DynamicPropertyRegistry registry) throws IOException {
+        scorer = new StubScorer(STUB_LATENCY_MICROS, STUB_JITTER_MICROS, STUB_ERROR_RATE, STUB_THREADS);
+        registry.add("fraud.detection.api.url", scorer::url);
+    }
+
+    @AfterAll
+    static void stopScorer() {
+        if (scorer != null) {
+            scorer.close();
+        }
+    }
+
+    @Test
+    void transfersAtTargetRate() throws Exception {
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(16);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(clientExecutor)
+                .build();
+        try {
+            String runId = Long.toString(System.currentTimeMillis(), 36);
+            List<String> emails = new ArrayList<>(USERS);
+            List<String> tokens = new ArrayList<>(USERS);
+            Phase register = new Phase();
+            Phase login = new Phase();
+            for (int i = 0; i < USERS; i++) {
+                String email = "load-" + runId + "-" + i + "@example.com";
+                String credentials = objectMapper.writeValueAsString(
+                        Map.of("email", email, "username", "load" + i, "password", "load-password"));
+                send(client, register, post("/api/auth/register", credentials, null));
+                HttpResponse<String> response = send(client, login, post("/api/auth/login", credentials, null));
+                emails.add(email);
+                tokens.add(objectMapper.readTree(response.body()).path("token").asText());
+            }
+
+            // Enough balance that no transfer of the run fails on insufficient funds
+            List<User> users = userRepository.findByEmailIn(emails);
+            for (User user : users) {
+                user.setBalance(new BigDecimal("1000000000.00"));
+            }
+            userRepository.saveAll(users);
+
+            runTransfers(client, emails, tokens, WARMUP_SECONDS);
+            long scorerCallsBefore = scorer.calls();
+            long scorerFailuresBefore = scorer.failures();
+            Phase transfers = runTransfers(client, emails, tokens, DURATION_SECONDS);
+
+            StringBuilder report = new StringBuilder();
+            report.append(String.format("load: %d users, target %d/s for %ds, stub scorer %dus +%dus jitter, %.1f%% errors%n",
+                    USERS, RATE, DURATION_SECONDS, STUB_LATENCY_MICROS, STUB_JITTER_MICROS, STUB_ERROR_RATE * 100));
+            append(report, "register", register);
+            append(report, "login", login);
+            append(report, "transfer", transfers);
+            report.append(String.format("%-9s %d calls, %d failed%n", "scorer",
+                    scorer.calls() - scorerCallsBefore, scorer.failures() - scorerFailuresBefore));
+            System.out.print(report);
+
+            assertThat(register.rejected.sum() + login.rejected.sum()).isZero();
+            assertThat(transfers.transportErrors.sum()).isZero();
+            assertThat(transfers.succeeded.sum()).isPositive();
+        } finally {
+            clientExecutor.shutdownNow();
+        }
+    }
+
+    private Phase runTransfers(HttpClient client, List<String> emails, List<String> tokens, int seconds)
+            throws InterruptedException {
+        Phase phase = new Phase();
+        long total = (long) RATE * seconds;
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / RATE;
+        Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long due = start + i * intervalNanos;
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            inFlight.acquire();
+
+            int from = random.nextInt(emails.size());
+            int to = (from + 1 + random.nextInt(emails.size() - 1)) % emails.size();
+            String body = "{\"senderEmail\":\"" + emails.get(from) + "\",\"receiverEmail\":\"" + emails.get(to)
+                    + "\",\"amount\":" + random.nextInt(100, 5000) / 100.0
+                    + ",\"type\":\"TRANSFER\",\"description\":\"load\"}";
+            client.sendAsync(post("/api/v1/transaction", body, tokens.get(from)), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, e) -> {
+                        phase.latency.record(System.nanoTime() - due);
+                        count(phase, response, e);
+                        inFlight.release();
+                    });
+        }
+        inFlight.acquire(MAX_IN_FLIGHT);
+        phase.elapsedNanos = System.nanoTime() - start;
+        return phase;
+    }
+
+    private static <T> void count(Phase phase, HttpResponse<T> response, Throwable error) {
+        if (error != null) {
+            phase.transportErrors.increment();
+        } else if (response.statusCode() / 100 == 2) {
+            phase.succeeded.increment();
+        } else {
+            phase.rejected.increment();
+        }
+    }
+
+    private static HttpResponse<String> send(HttpClient client, Phase phase, HttpRequest request)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        phase.elapsedNanos += System.nanoTime() - start;
+        phase.latency.record(System.nanoTime() - start);
+        count(phase, response, null);
+        return response;
+    }
+
+    private HttpRequest post(String path, String json, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private static void append(StringBuilder report, String name, Phase phase) {
+        long requests = phase.succeeded.sum() + phase.rejected.sum() + phase.transportErrors.sum();
+        double seconds = phase.elapsedNanos / 1e9;
+        report.append(String.format("%-9s %d requests in %.2fs (%.1f/s), %d ok, %d rejected, %d transport errors%n",
+                name, requests, seconds, requests / Math.max(seconds, 1e-9),
+                phase.succeeded.sum(), phase.rejected.sum(), phase.transportErrors.sum()));
+        report.append(String.format("%-9s latency ms p50 %.2f  p90 %.2f  p99 %.2f  p99.9 %.2f  max %.2f%n", "",
+                phase.latency.percentile(0.50) / 1e6, phase.latency.percentile(0.90) / 1e6,
+                phase.latency.percentile(0.99) / 1e6, phase.latency.percentile(0.999) / 1e6,
+                phase.latency.percentile(1.0) / 1e6));
+    }
+}
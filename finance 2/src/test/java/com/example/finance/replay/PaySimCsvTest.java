@@ -0,0 +1,109 @@
+package com.example.finance.replay;
+
+import com.example.finance.entity.Type;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PaySimCsvTest {
+
+    private static final String HEADER =
+            "step,type,amount,nameOrig,oldbalanceOrg,newbalanceOrig,nameDest,oldbalanceDest,newbalanceDest,isFraud,isFlaggedFraud\n";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void everyRowIsReadExactlyOnceWhateverTheSegmentSize() throws IOException {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < 500; i++) {
+            csv.append(i % 7).append(i % 2 == 0 ? ",TRANSFER," : ",CASH_OUT,")
+                    .append(i).append(".25,C").append(i).append(",1000.0,0.0,M").append(i)
+                    .append(",0,1.5e3,").append(i % 10 == 0 ? 1 : 0).append(",0")
+                    .append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        Path file = write(csv.toString());
+
+        for (long segmentBytes : new long[]{1, 17, 333, 4096, 1 << 20}) {
+            List<Double> amounts = new ArrayList<>();
+            int[] frauds = new int[1];
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                PaySimCsv.Layout layout = PaySimCsv.readLayout(channel);
+                for (long[] segment : PaySimCsv.segments(layout, channel.size(), segmentBytes)) {
+                    long skipped = PaySimCsv.parse(channel, layout, segment[0], segment[1],
+                            (type, amount, oldOrg, newOrig, oldDest, newDest, isFraud) -> {
+                                assertThat(newDest).isEqualTo(1500.0);
+                                amounts.add(amount);
+                                frauds[0] += isFraud;
+                                return true;
+                            });
+                    assertThat(skipped).isZero();
+                }
+            }
+            assertThat(amounts).as("segment size %d", segmentBytes).hasSize(500);
+            assertThat(amounts.stream().mapToDouble(Double::doubleValue).sum())
+                    .isEqualTo(500 * 499 / 2.0 + 500 * 0.25);
+            assertThat(frauds[0]).isEqualTo(50);
+        }
+    }
+
+    @Test
+    void malformedRowsAreSkippedAndColumnsFollowTheHeader() throws IOException {
+        Path file = write("""
+                isFraud,newbalanceDest,oldbalanceDest,newbalanceOrig,oldbalanceOrg,amount,type
+                1,0,0,0,181.0,181.0,TRANSFER
+                0,0,0,0,abc,1.0,PAYMENT
+                0,0,0,0,5,1.0,WIRE
+                0,10,0,4,5,1,PAYMENT""");
+        List<Type> types = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            PaySimCsv.Layout layout = PaySimCsv.readLayout(channel);
+            long skipped = PaySimCsv.parse(channel, layout, layout.dataStart(), channel.size(),
+                    (type, amount, oldOrg, newOrig, oldDest, newDest, isFraud) -> {
+                        types.add(type);
+                        return true;
+                    });
+            assertThat(skipped).isEqualTo(2);
+        }
+        assertThat(types).containsExactly(Type.TRANSFER, Type.PAYMENT);
+    }
+
+    @Test
+    void parsesDecimalsLikeDoubleParseDouble() {
+        for (String value : new String[]{"0", "0.0", "181.0", "9839.64", "-12.5", "1.5e3", "2E-2",
+                "123456789.123456789", "0.1", "170136.0", "92445516.64"}) {
+            ByteBuffer buffer = ByteBuffer.wrap(value.getBytes(StandardCharsets.US_ASCII));
+            assertThat(PaySimCsv.parseDouble(buffer, 0, buffer.limit()))
+                    .as(value).isEqualTo(Double.parseDouble(value));
+        }
+        ByteBuffer empty = ByteBuffer.allocate(0);
+        assertThat(PaySimCsv.parseDouble(empty, 0, 0)).isNaN();
+    }
+
+    @Test
+    void rejectsSegmentsTooLargeToMap() throws IOException {
+        Path file = write(HEADER);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            PaySimCsv.Layout layout = PaySimCsv.readLayout(channel);
+            assertThat(PaySimCsv.segments(layout, 3L << 30, PaySimCsv.MAX_SEGMENT_BYTES)).hasSize(2);
+            assertThatThrownBy(() -> PaySimCsv.segments(layout, 3L << 30, PaySimCsv.MAX_SEGMENT_BYTES + 1))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(dir.resolve("paysim.csv"), content, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.finance.replay;
+
+import com.example.finance.Service.FraudDetectionService;
+import com.example.finance.scoring.FraudRuleEngine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PaySimReplayTest {
+
+    private static final String CSV = """
+            step,type,amount,nameOrig,oldbalanceOrg,newbalanceOrig,nameDest,oldbalanceDest,newbalanceDest,isFraud,isFlaggedFraud
+            1,CASH_OUT,500.0,C1,500.0,0.0,C2,0.0,500.0,1,0
+            1,PAYMENT,9.5,C3,1000.0,990.5,M4,0.0,0.0,0,0
+            1,TRANSFER,181.0,C5,181.0,0.0,C6,0.0,0.0,1,0
+            1,PAYMENT,20.0,C7,100.0,80.0,M8,0.0,0.0,0,0
+            """;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void scoresThroughTheConfiguredRulesAndModel() throws Exception {
+        Path file = write(CSV);
+        PaySimReplay.Options options = PaySimReplay.parse(new String[]{"--file", file.toString(), "--threads", "2",
+                "--fraud.rules.enabled=true",
+                "--fraud.rules.definitions[0].name=full-balance-cash-out",
+                "--fraud.rules.definitions[0].decision=BLOCK",
+                "--fraud.rules.definitions[0].types=CASH_OUT",
+                "--fraud.rules.definitions[0].min-sender-ratio=1.0"});
+
+        try (ConfigurableApplicationContext context = PaySimReplay.scoringContext(options)) {
+            FraudRuleEngine rules = context.getBean(FraudRuleEngine.class);
+            PaySimReplay.Result result = PaySimReplay.run(options, context.getBean(FraudDetectionService.class));
+
+            assertThat(rules.ruleCount()).isEqualTo(1);
+            assertThat(result.rows).isEqualTo(4);
+            assertThat(result.ruleBlocked).isEqualTo(1);
+            assertThat(result.ruleAllowed).isZero();
+            assertThat(result.scored).isEqualTo(3);
+            assertThat(result.scorerErrors).isZero();
+            assertThat(result.blocked.total()).isEqualTo(4);
+            assertThat(result.blocked.truePositives).isPositive();
+            assertThat(PaySimReplay.report(options, "local", rules, result))
+                    .contains("rows        4 in", "1 blocked, 3 scored", "full-balance-cash-out");
+        }
+    }
+
+    @Test
+    void reportsAFailingWorker() throws IOException {
+        Path file = write(CSV);
+        FraudDetectionService fraudDetectionService = mock(FraudDetectionService.class);
+        when(fraudDetectionService.checkFraud(any(FraudDetectionService.FraudPredictionRequest.class)))
+                .thenThrow(new IllegalStateException("scorer exploded"));
+        PaySimReplay.Options options = PaySimReplay.parse(new String[]{file.toString(), "--threads", "2"});
+
+        assertThatThrownBy(() -> PaySimReplay.run(options, fraudDetectionService))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Replay worker failed")
+                .hasRootCauseMessage("scorer exploded");
+    }
+
+    @Test
+    void passesPropertiesThroughAndRejectsUnmappableSegments() {
+        PaySimReplay.Options options = PaySimReplay.parse(new String[]{"paysim.csv", "--no-rules",
+                "--model", "/tmp/model.json", "--fraud.detection.backend=remote"});
+
+        assertThat(options.properties()).containsExactly("--fraud.rules.enabled=false",
+                "--fraud.detection.local.model=file:/tmp/model.json", "--fraud.detection.backend=remote");
+        assertThat(options.segmentBytes()).isEqualTo(64L << 20);
+        assertThat(PaySimReplay.parse(new String[]{"paysim.csv", "--segment-mb", "2047"}).segmentBytes())
+                .isEqualTo(2047L << 20);
+        assertThatThrownBy(() -> PaySimReplay.parse(new String[]{"paysim.csv", "--segment-mb", "4096"}))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("segment-mb");
+        assertThatThrownBy(() -> PaySimReplay.parse(new String[]{"paysim.csv", "--scorer", "local"}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(dir.resolve("paysim.csv"), content, StandardCharsets.US_ASCII);
+    }
+}
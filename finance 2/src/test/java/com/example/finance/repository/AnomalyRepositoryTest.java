@@ -0,0 +1,119 @@
+package com.example.finance.repository;
+
+import com.example.finance.dto.AnomalyDTO;
+import com.example.finance.dto.AnomalyDTOMapper;
+import com.example.finance.entity.Anomaly;
+import com.example.finance.entity.Role;
+import com.example.finance.entity.Transaction;
+import com.example.finance.entity.Type;
+import com.example.finance.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class AnomalyRepositoryTest {
+
+    @Autowired
+    private AnomalyRepository anomalyRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User alice;
+    private Transaction rent;
+
+    @BeforeEach
+    void setUp() {
+        alice = entityManager.persist(User.builder()
+                .email("alice@example.com")
+                .username("alice")
+                .password("x")
+                .role(Role.USER)
+                .balance(BigDecimal.ZERO)
+                .build());
+        User bob = entityManager.persist(User.builder()
+                .email("bob@example.com")
+                .username("bob")
+                .password("x")
+                .role(Role.USER)
+                .balance(BigDecimal.ZERO)
+                .build());
+        rent = entityManager.persist(Transaction.builder()
+                .sender(alice)
+                .receiver(bob)
+                .amount(new BigDecimal("900.00"))
+                .timestamp(Timestamp.valueOf("2026-01-01 10:00:00"))
+                .description("October rent")
+                .type(Type.TRANSFER)
+                .build());
+    }
+
+    @Test
+    void projectionMapsEveryFieldToItsOwnColumn() {
+        Anomaly anomaly = persistAnomaly("FRAUD_PREDICTED", 0.93, "Fraud probability 0.9300 (confidence high)", true);
+        entityManager.clear();
+
+        AnomalyDTO dto = anomalyRepository.findProjectedById(anomaly.getId()).orElseThrow();
+
+        assertThat(dto.getId()).isEqualTo(anomaly.getId());
+        assertThat(dto.getUserId()).isEqualTo(alice.getId());
+        assertThat(dto.getUsername()).isEqualTo("alice@example.com");
+        assertThat(dto.getTransactionId()).isEqualTo(rent.getId());
+        assertThat(dto.getAnomalyType()).isEqualTo("FRAUD_PREDICTED");
+        assertThat(dto.getScore()).isEqualTo(0.93);
+        assertThat(dto.getDescription()).isEqualTo("Fraud probability 0.9300 (confidence high)");
+        assertThat(dto.getDetectedAt()).isEqualTo(Timestamp.valueOf("2026-01-02 03:04:05"));
+        assertThat(dto.getResolved()).isTrue();
+    }
+
+    @Test
+    void projectionAgreesWithTheEntityMapper() {
+        Anomaly anomaly = persistAnomaly("GRAPH_CYCLE", 3.0, "Funds returned to sender in 3 hops", false);
+        entityManager.clear();
+
+        AnomalyDTO projected = anomalyRepository.findProjectedById(anomaly.getId()).orElseThrow();
+        AnomalyDTO mapped = new AnomalyDTOMapper().apply(entityManager.find(Anomaly.class, anomaly.getId()));
+
+        assertThat(projected).usingRecursiveComparison().isEqualTo(mapped);
+    }
+
+    @Test
+    void findPageSeeksBackwardsFromTheCursor() {
+        Anomaly first = persistAnomaly("FRAUD_PREDICTED", 0.91, "first", false);
+        Anomaly second = persistAnomaly("HIGH_FRAUD_PROBABILITY", 0.75, "second", true);
+        Anomaly third = persistAnomaly("FRAUD_PREDICTED", 0.95, "third", false);
+        entityManager.clear();
+
+        List<AnomalyDTO> page = anomalyRepository.findPage(alice.getId(), null, null, null, null, 2);
+        assertThat(page).extracting(AnomalyDTO::getId).containsExactly(third.getId(), second.getId());
+        assertThat(page).extracting(AnomalyDTO::getDescription).containsExactly("third", "second");
+
+        List<AnomalyDTO> next = anomalyRepository.findPage(alice.getId(), null, null, null, second.getId(), 2);
+        assertThat(next).extracting(AnomalyDTO::getId).containsExactly(first.getId());
+
+        List<AnomalyDTO> unresolved = anomalyRepository.findPage(null, false, null, null, null, 10);
+        assertThat(unresolved).extracting(AnomalyDTO::getAnomalyType)
+                .containsExactly("FRAUD_PREDICTED", "FRAUD_PREDICTED");
+    }
+
+    private Anomaly persistAnomaly(String type, double score, String description, boolean resolved) {
+        return entityManager.persistAndFlush(Anomaly.builder()
+                .transaction(rent)
+                .user(alice)
+                .anomalyType(type)
+                .score(score)
+                .description(description)
+                .detectedAt(Timestamp.valueOf("2026-01-02 03:04:05"))
+                .resolved(resolved)
+                .build());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.finance.scoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static CircuitBreaker breaker() {
+        // 10-call window, opens at 50% failures after 4 calls, 200ms slow-call limit, 1s open, 2 trial calls
+        return new CircuitBreaker("test", 10, 4, 0.5, 200 * MS, 1000 * MS, 2, 3);
+    }
+
+    private static void call(CircuitBreaker breaker, boolean failed, long elapsed, long now) {
+        assertThat(breaker.tryAcquire(now)).isTrue();
+        breaker.onResult(failed, elapsed, now + elapsed);
+    }
+
+    @Test
+    void opensOnceTheFailureRateIsReachedAndFailsFast() {
+        CircuitBreaker breaker = breaker();
+        call(breaker, false, MS, 0);
+        call(breaker, true, MS, 0);
+        call(breaker, false, MS, 0);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        call(breaker, true, MS, 0);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire(500 * MS)).isFalse();
+        assertThat(breaker.rejectedOpen()).isEqualTo(1);
+        assertThat(breaker.transitionsTo(CircuitBreaker.State.OPEN)).isEqualTo(1);
+    }
+
+    @Test
+    void slowCallsCountAsFailures() {
+        CircuitBreaker breaker = breaker();
+        for (int i = 0; i < 4; i++) {
+            call(breaker, false, 300 * MS, 0);
+        }
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void closesAfterSuccessfulTrialCallsAndReopensOnAFailedOne() {
+        CircuitBreaker breaker = breaker();
+        for (int i = 0; i < 4; i++) {
+            call(breaker, true, MS, 0);
+        }
+
+        long later = 1_001 * MS;
+        assertThat(breaker.tryAcquire(later)).isTrue();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire(later)).isTrue();
+        // Only two trial calls at a time
+        assertThat(breaker.tryAcquire(later)).isFalse();
+        breaker.onResult(true, MS, later);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        breaker.onResult(false, MS, later);
+
+        long muchLater = 2_100 * MS;
+        call(breaker, false, MS, muchLater);
+        call(breaker, false, MS, muchLater);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.transitionsTo(CircuitBreaker.State.HALF_OPEN)).isEqualTo(2);
+        assertThat(breaker.inFlight()).isZero();
+    }
+
+    @Test
+    void bulkheadRefusesCallsBeyondTheConcurrencyLimit() {
+        CircuitBreaker breaker = breaker();
+        assertThat(breaker.tryAcquire(0)).isTrue();
+        assertThat(breaker.tryAcquire(0)).isTrue();
+        assertThat(breaker.tryAcquire(0)).isTrue();
+        assertThat(breaker.tryAcquire(0)).isFalse();
+        assertThat(breaker.rejectedBulkhead()).isEqualTo(1);
+        assertThat(breaker.inFlight()).isEqualTo(3);
+
+        breaker.onResult(false, MS, MS);
+        assertThat(breaker.tryAcquire(MS)).isTrue();
+    }
+}
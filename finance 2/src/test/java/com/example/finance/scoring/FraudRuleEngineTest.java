@@ -0,0 +1,97 @@
+package com.example.finance.scoring;
+
+import com.example.finance.entity.Type;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FraudRuleEngineTest {
+
+    @Test
+    void amountBoundsAreInclusive() {
+        FraudRuleEngine engine = new FraudRuleEngine(List.of(
+                block("mid-size", null, 100.0, 200.0, null, null)));
+
+        assertThat(engine.match(Type.TRANSFER, 99.99, 1_000, 0, 0)).isEqualTo(FraudRuleEngine.NO_MATCH);
+        assertThat(engine.match(Type.TRANSFER, 100.0, 1_000, 0, 0)).isZero();
+        assertThat(engine.match(Type.TRANSFER, 200.0, 1_000, 0, 0)).isZero();
+        assertThat(engine.match(Type.TRANSFER, 200.01, 1_000, 0, 0)).isEqualTo(FraudRuleEngine.NO_MATCH);
+    }
+
+    @Test
+    void zeroBalanceSenderHasAnInfiniteRatio() {
+        FraudRuleEngine engine = new FraudRuleEngine(List.of(
+                block("drains-balance", null, null, null, 1.0, null),
+                block("capped-ratio", null, null, null, null, 0.5)));
+
+        // No balance: the ratio is infinite, so it meets any minimum and exceeds any maximum
+        assertThat(engine.match(Type.TRANSFER, 10, 0, 0, 0)).isZero();
+        assertThat(engine.match(Type.TRANSFER, 100, 100, 0, 0)).isZero();
+        assertThat(engine.match(Type.TRANSFER, 50, 100, 50, 0)).isEqualTo(1);
+        assertThat(engine.match(Type.TRANSFER, 60, 100, 40, 0)).isEqualTo(FraudRuleEngine.NO_MATCH);
+    }
+
+    @Test
+    void typeMaskLimitsRulesToTheirTypes() {
+        FraudRuleEngine engine = new FraudRuleEngine(List.of(
+                block("cash-out-only", Set.of(Type.CASH_OUT), null, null, null, null),
+                block("any-type", null, 1_000.0, null, null, null)));
+
+        assertThat(engine.match(Type.CASH_OUT, 1, 10, 9, 0)).isZero();
+        assertThat(engine.match(Type.TRANSFER, 1, 10, 9, 0)).isEqualTo(FraudRuleEngine.NO_MATCH);
+        for (Type type : Type.values()) {
+            assertThat(engine.match(type, 1_000, 10_000, 9_000, 0)).isEqualTo(type == Type.CASH_OUT ? 0 : 1);
+        }
+    }
+
+    @Test
+    void firstMatchingRuleWinsAndIsCounted() {
+        FraudRuleEngine engine = new FraudRuleEngine(List.of(
+                allow("small", 10.0, 0),
+                block("everything", null, null, null, null, null)));
+
+        int rule = engine.match(Type.PAYMENT, 5, 100, 95, 0);
+
+        assertThat(rule).isZero();
+        assertThat(engine.decision(rule)).isEqualTo(FraudRuleEngine.Decision.ALLOW);
+        assertThat(engine.name(rule)).isEqualTo("small");
+        assertThat(engine.hits(0)).isEqualTo(1);
+        assertThat(engine.hits(1)).isZero();
+        assertThat(engine.decision(FraudRuleEngine.NO_MATCH)).isEqualTo(FraudRuleEngine.Decision.SCORE);
+        assertThat(engine.evaluations()).isEqualTo(1);
+    }
+
+    @Test
+    void allowStopsMatchingOnceTheSenderIsBusy() {
+        FraudRuleEngine engine = new FraudRuleEngine(List.of(allow("small", 10.0, 3)));
+
+        assertThat(engine.match(Type.PAYMENT, 5, 100, 95, 3)).isZero();
+        assertThat(engine.match(Type.PAYMENT, 5, 100, 95, 4)).isEqualTo(FraudRuleEngine.NO_MATCH);
+    }
+
+    @Test
+    void rejectsRulesThatCannotDecide() {
+        assertThatThrownBy(() -> new FraudRuleEngine(List.of(new FraudRuleEngine.Rule("score",
+                FraudRuleEngine.Decision.SCORE, null, null, null, null, null, null, null, null))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new FraudRuleEngine(List.of(new FraudRuleEngine.Rule("unbounded-allow",
+                FraudRuleEngine.Decision.ALLOW, null, null, 10.0, null, null, null, null, null))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("maxSenderCount1h");
+    }
+
+    private static FraudRuleEngine.Rule block(String name, Set<Type> types, Double minAmount, Double maxAmount,
+                                              Double minSenderRatio, Double maxSenderRatio) {
+        return new FraudRuleEngine.Rule(name, FraudRuleEngine.Decision.BLOCK, types, minAmount, maxAmount,
+                minSenderRatio, maxSenderRatio, null, null, null);
+    }
+
+    private static FraudRuleEngine.Rule allow(String name, Double maxAmount, long maxSenderCount1h) {
+        return new FraudRuleEngine.Rule(name, FraudRuleEngine.Decision.ALLOW, null, null, maxAmount,
+                null, null, null, null, maxSenderCount1h);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.finance.scoring;
+
+import com.example.finance.entity.Type;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FraudScoreCacheTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Test
+    void transfersWithinTheQuantumShareAVerdict() {
+        FraudScoreCache cache = new FraudScoreCache(1024, 60_000, 1.0);
+        cache.put(Type.TRANSFER, 100.2, 5000, 4899.8, 10, 110.2, true, 0.93, "high", "v1", NOW);
+
+        FraudScoreCache.Cached hit = cache.get(Type.TRANSFER, 99.9, 5000.4, 4900.1, 10, 110, NOW + 1);
+        assertThat(hit).isNotNull();
+        assertThat(hit.fraud()).isTrue();
+        assertThat(hit.probability()).isEqualTo(0.93);
+        assertThat(hit.modelVersion()).isEqualTo("v1");
+
+        assertThat(cache.get(Type.CASH_OUT, 100.2, 5000, 4899.8, 10, 110.2, NOW + 1)).isNull();
+        assertThat(cache.get(Type.TRANSFER, 102, 5000, 4898, 10, 112, NOW + 1)).isNull();
+        assertThat(cache.hits()).isEqualTo(1);
+        assertThat(cache.misses()).isEqualTo(2);
+    }
+
+    @Test
+    void entriesExpireAfterTheTtl() {
+        FraudScoreCache cache = new FraudScoreCache(64, 1_000, 0.01);
+        cache.put(Type.PAYMENT, 12.5, 100, 87.5, 0, 0, false, 0.01, "high", "v1", NOW);
+
+        assertThat(cache.get(Type.PAYMENT, 12.5, 100, 87.5, 0, 0, NOW + 999)).isNotNull();
+        assertThat(cache.get(Type.PAYMENT, 12.5, 100, 87.5, 0, 0, NOW + 1_000)).isNull();
+    }
+
+    @Test
+    void versionsServedSideBySideKeepTheirEntries() {
+        FraudScoreCache cache = new FraudScoreCache(64, 60_000, 0.01);
+        // A rollout in progress: replicas answer from v1 and v2 in turn
+        for (int i = 0; i < 3; i++) {
+            cache.put(Type.TRANSFER, 1, 2, 1, 0, 1, false, 0.1, "high", "v1", NOW);
+            cache.put(Type.TRANSFER, 5, 9, 4, 0, 5, false, 0.2, "high", "v2", NOW);
+        }
+
+        assertThat(cache.get(Type.TRANSFER, 1, 2, 1, 0, 1, NOW).modelVersion()).isEqualTo("v1");
+        assertThat(cache.get(Type.TRANSFER, 5, 9, 4, 0, 5, NOW).modelVersion()).isEqualTo("v2");
+        assertThat(cache.liveVersions()).containsExactlyInAnyOrder("v1", "v2");
+        assertThat(cache.invalidations()).isZero();
+
+        // Unversioned verdicts are never cached
+        cache.put(Type.TRANSFER, 7, 9, 2, 0, 7, false, 0.2, "high", null, NOW);
+        assertThat(cache.get(Type.TRANSFER, 7, 9, 2, 0, 7, NOW)).isNull();
+    }
+
+    @Test
+    void aRetiredVersionIsHiddenAsSoonAsTheReplicasStopReportingIt() {
+        FraudScoreCache cache = new FraudScoreCache(64, 60_000, 0.01);
+        cache.setLiveVersions(List.of("v1"));
+        cache.put(Type.TRANSFER, 1, 2, 1, 0, 1, false, 0.1, "high", "v1", NOW);
+
+        // Every replica now reports v2; no miss or new verdict is needed to notice
+        cache.setLiveVersions(List.of("v2"));
+
+        assertThat(cache.get(Type.TRANSFER, 1, 2, 1, 0, 1, NOW)).isNull();
+        assertThat(cache.invalidations()).isEqualTo(1);
+        assertThat(cache.liveVersions()).containsExactly("v2");
+
+        // A report without versions changes nothing
+        cache.setLiveVersions(List.of());
+        assertThat(cache.liveVersions()).containsExactly("v2");
+
+        // A replica rolled back to v1 brings its entries back: they were v1's verdicts all along
+        cache.setLiveVersions(List.of("v1", "v2"));
+        assertThat(cache.get(Type.TRANSFER, 1, 2, 1, 0, 1, NOW).modelVersion()).isEqualTo("v1");
+    }
+
+    @Test
+    void entriesOfARetiredVersionMakeRoomForNewOnes() {
+        FraudScoreCache cache = new FraudScoreCache(4, 60_000, 0.01);
+        for (int i = 0; i < 4; i++) {
+            cache.put(Type.TRANSFER, i, 10, 10 - i, 0, i, false, 0.1, "high", "v1", NOW);
+        }
+        cache.setLiveVersions(List.of("v2"));
+        long evictions = cache.evictions();
+
+        for (int i = 0; i < 4; i++) {
+            cache.put(Type.TRANSFER, i, 10, 10 - i, 0, i, true, 0.9, "high", "v2", NOW);
+        }
+
+        assertThat(cache.evictions()).isEqualTo(evictions);
+        assertThat(cache.get(Type.TRANSFER, 3, 10, 7, 0, 3, NOW).fraud()).isTrue();
+    }
+
+    @Test
+    void staysWithinItsCapacity() {
+        FraudScoreCache cache = new FraudScoreCache(256, 60_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            cache.put(Type.TRANSFER, i, 1_000_000, 1_000_000 - i, 0, i, false, 0.1, "high", "v1", NOW + i);
+        }
+        assertThat(cache.capacity()).isEqualTo(256);
+        assertThat(cache.evictions()).isGreaterThanOrEqualTo(10_000 - 256);
+
+        int live = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (cache.get(Type.TRANSFER, i, 1_000_000, 1_000_000 - i, 0, i, NOW + 10_000) != null) {
+                live++;
+            }
+        }
+        assertThat(live).isLessThanOrEqualTo(256).isGreaterThan(0);
+    }
+}
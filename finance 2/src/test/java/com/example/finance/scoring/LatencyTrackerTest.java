@@ -0,0 +1,47 @@
+package com.example.finance.scoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyTrackerTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long WINDOW = 1_000 * MS;
+
+    @Test
+    void reportsThePercentileOfTheLastCompleteWindow() {
+        LatencyTracker tracker = new LatencyTracker(0.9, WINDOW, MS, 50 * MS, 10, 0);
+        assertThat(tracker.percentileNanos()).isEqualTo(50 * MS);
+
+        for (int i = 1; i <= 100; i++) {
+            tracker.record(i * MS, i);
+        }
+        // Still inside the first window
+        assertThat(tracker.percentileNanos()).isEqualTo(50 * MS);
+
+        tracker.record(MS, WINDOW);
+        // Log-linear buckets are within about 6% of the true value
+        assertThat(tracker.percentileNanos()).isBetween(90 * MS, 96 * MS);
+    }
+
+    @Test
+    void sparseWindowsKeepThePreviousValueAndTheFloorHolds() {
+        LatencyTracker tracker = new LatencyTracker(0.5, WINDOW, 20 * MS, 0, 10, 0);
+        assertThat(tracker.percentileNanos()).isEqualTo(20 * MS);
+
+        for (int i = 0; i < 5; i++) {
+            tracker.record(500 * MS, i);
+        }
+        tracker.record(500 * MS, WINDOW);
+        assertThat(tracker.percentileNanos()).isEqualTo(20 * MS);
+
+        for (int i = 0; i < 20; i++) {
+            tracker.record(MS, WINDOW + i);
+        }
+        tracker.record(MS, 2 * WINDOW);
+        assertThat(tracker.percentileNanos()).isEqualTo(20 * MS);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.finance.scoring;
+
+import com.example.finance.entity.Type;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Checks the in-JVM evaluator against probabilities produced by the Python pipeline.
+ * Regenerate both the model and the fixtures with {@code export_model.py} after retraining.
+ * <p>
+ * The fixtures must come from sklearn's {@code predict_proba}: {@code export_model.py} marks them
+ * with a {@code # sklearn=... model=...} line. A missing fixture file, or one without that line,
+ * fails the parity checks; nothing derived from the exported parameters stands in for it.
+ */
+class LocalFraudModelParityTest {
+
+    private static final Pattern PROVENANCE = Pattern.compile("# sklearn=(\\S+) model=(\\S+)");
+
+    private static LocalFraudModel model;
+    private static String fixtureModelVersion;
+    private static List<ParityCase> cases;
+    private static String fixtureProblem;
+
+    private record ParityCase(Type type, double[] features, double probability, boolean fraud) {
+    }
+
+    @BeforeAll
+    static void load() throws IOException {
+        try (InputStream in = LocalFraudModelParityTest.class.getResourceAsStream("/model/fraud_model.json")) {
+            model = LocalFraudModel.load(in);
+        }
+        InputStream fixtures = LocalFraudModelParityTest.class.getResourceAsStream("/model/parity_cases.csv");
+        if (fixtures == null) {
+            fixtureProblem = "No parity_cases.csv; run export_model.py to create it from fraud_detection_pipeline.pkl";
+            return;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(fixtures, StandardCharsets.UTF_8))) {
+            Matcher provenance = PROVENANCE.matcher(String.valueOf(reader.readLine()));
+            if (!provenance.matches()) {
+                fixtureProblem = "parity_cases.csv has no '# sklearn=... model=...' line; regenerate it with export_model.py";
+                return;
+            }
+            fixtureModelVersion = provenance.group(2);
+            reader.readLine();
+            cases = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] columns = line.split(",");
+                double[] features = new double[LocalFraudModel.FEATURE_COUNT];
+                for (int i = 0; i < features.length; i++) {
+                    features[i] = Double.parseDouble(columns[i + 1]);
+                }
+                cases.add(new ParityCase(Type.valueOf(columns[0]), features,
+                        Double.parseDouble(columns[6]), "1".equals(columns[7])));
+            }
+        }
+    }
+
+    private static void requireSklearnFixtures() {
+        assertThat(fixtureProblem).as("sklearn parity fixtures").isNull();
+    }
+
+    @Test
+    void fixturesCoverEveryTypeAndBothClasses() {
+        requireSklearnFixtures();
+        assertThat(cases).hasSizeGreaterThan(100);
+        assertThat(cases.stream().map(ParityCase::type).distinct()).hasSize(Type.values().length);
+        assertThat(cases).anyMatch(ParityCase::fraud).anyMatch(c -> !c.fraud());
+    }
+
+    @Test
+    void fixturesWereExportedFromTheBundledModel() {
+        requireSklearnFixtures();
+        assertThat(fixtureModelVersion).isEqualTo(model.version());
+    }
+
+    @Test
+    void probabilitiesMatchPythonPipeline() {
+        requireSklearnFixtures();
+        for (ParityCase parityCase : cases) {
+            double probability = model.score(parityCase.type(), parityCase.features());
+            assertThat(probability).as("%s %s", parityCase.type(), java.util.Arrays.toString(parityCase.features()))
+                    .isCloseTo(parityCase.probability(), within(1e-9));
+            assertThat(model.isFraud(probability)).isEqualTo(parityCase.fraud());
+        }
+    }
+
+    @Test
+    void packedBatchMatchesSingleRowScoring() {
+        Random random = new Random(42);
+        int rows = 200;
+        Type[] types = new Type[rows];
+        double[] packed = new double[rows * LocalFraudModel.FEATURE_COUNT];
+        for (int row = 0; row < rows; row++) {
+            types[row] = Type.values()[row % Type.values().length];
+            for (int i = 0; i < LocalFraudModel.FEATURE_COUNT; i++) {
+                packed[row * LocalFraudModel.FEATURE_COUNT + i] = random.nextDouble() * 5e6;
+            }
+        }
+        double[] out = new double[rows];
+        model.scoreAll(types, packed, out);
+        double[] features = new double[LocalFraudModel.FEATURE_COUNT];
+        for (int row = 0; row < rows; row++) {
+            System.arraycopy(packed, row * LocalFraudModel.FEATURE_COUNT, features, 0, LocalFraudModel.FEATURE_COUNT);
+            assertThat(out[row]).isEqualTo(model.score(types[row], features));
+        }
+    }
+
+    @Test
+    void reportsExportedModelVersion() {
+        assertThat(model.version()).isNotBlank();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.finance.scoring;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LongObjectMapTest {
+
+    @Test
+    void growsWithoutLosingEntries() {
+        LongObjectMap<String> map = new LongObjectMap<>(4);
+        for (long key = 1; key <= 10_000; key++) {
+            map.put(key, "v" + key);
+        }
+
+        assertThat(map.size()).isEqualTo(10_000);
+        for (long key = 1; key <= 10_000; key++) {
+            assertThat(map.get(key)).isEqualTo("v" + key);
+        }
+        assertThat(map.get(10_001)).isNull();
+    }
+
+    @Test
+    void collidingKeysProbeToTheirOwnSlots() {
+        // Capacity 8 holds 6 entries before growing; find keys that share a home slot
+        LongObjectMap<Long> map = new LongObjectMap<>(8);
+        long first = 1;
+        long second = collidingKey(first, 8, first + 1);
+        long third = collidingKey(first, 8, second + 1);
+        map.put(first, first);
+        map.put(second, second);
+        map.put(third, third);
+
+        assertThat(map.get(first)).isEqualTo(first);
+        assertThat(map.get(second)).isEqualTo(second);
+        assertThat(map.get(third)).isEqualTo(third);
+        assertThat(map.get(collidingKey(first, 8, third + 1))).isNull();
+    }
+
+    @Test
+    void removeIfKeepsProbeChainsIntact() {
+        LongObjectMap<Long> map = new LongObjectMap<>(8);
+        long first = 1;
+        long second = collidingKey(first, 8, first + 1);
+        long third = collidingKey(first, 8, second + 1);
+        map.put(first, first);
+        map.put(second, second);
+        map.put(third, third);
+        map.put(4, 4L);
+
+        // Removing the head of the chain must not hide the keys probed past it
+        int removed = map.removeIf(value -> value == first || value == 4L);
+
+        assertThat(removed).isEqualTo(2);
+        assertThat(map.size()).isEqualTo(2);
+        assertThat(map.get(first)).isNull();
+        assertThat(map.get(4)).isNull();
+        assertThat(map.get(second)).isEqualTo(second);
+        assertThat(map.get(third)).isEqualTo(third);
+        map.put(first, 10L);
+        assertThat(map.get(first)).isEqualTo(10L);
+    }
+
+    @Test
+    void rejectsNonPositiveKeys() {
+        LongObjectMap<String> map = new LongObjectMap<>(4);
+        assertThatThrownBy(() -> map.put(0, "zero")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> map.put(-1, "negative")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static long collidingKey(long key, int capacity, long from) {
+        long home = (LongObjectMap.mix(key) >>> 6) & (capacity - 1);
+        for (long candidate = from; ; candidate++) {
+            if (((LongObjectMap.mix(candidate) >>> 6) & (capacity - 1)) == home) {
+                return candidate;
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.finance.scoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MicroBatcherTest {
+
+    private static final int CALLERS = 32;
+    private static final int CALLS_PER_CALLER = 40;
+    private static final Duration LINGER = Duration.ofMillis(2);
+    // Room for a batch ahead in the scorer plus scheduling noise on a busy build machine
+    private static final double LATENCY_MARGIN_MILLIS = 50;
+
+    /**
+     * Stands in for the single-process Python scorer: every HTTP call pays a fixed overhead
+     * (request parsing, DataFrame setup) plus a small per-row cost, and calls are serialized.
+     */
+    private static final class FakeScorer {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        synchronized List<Double> score(List<Integer> amounts) {
+            calls.incrementAndGet();
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(1500 + 20L * amounts.size()));
+            List<Double> results = new ArrayList<>(amounts.size());
+            for (Integer amount : amounts) {
+                results.add(amount / 100_000.0);
+            }
+            return results;
+        }
+    }
+
+    @Test
+    void eachCallerGetsItsOwnResult() throws Exception {
+        FakeScorer scorer = new FakeScorer();
+        try (MicroBatcher<Integer, Double> batcher = new MicroBatcher<>(
+                "test", scorer::score, e -> -1.0, 16, Duration.ofMillis(2), 1024, 2)) {
+            List<CompletableFuture<Double>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(batcher.submit(i));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                assertThat(futures.get(i).get(5, TimeUnit.SECONDS)).isEqualTo(i / 100_000.0);
+            }
+            assertThat(scorer.calls.get()).isLessThan(200);
+        }
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() {
+        try (MicroBatcher<Integer, Double> batcher = new MicroBatcher<>(
+                "test", items -> {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(200));
+                    return items.stream().map(i -> 0.0).toList();
+                }, e -> -1.0, 1, Duration.ZERO, 1, 1)) {
+            List<CompletableFuture<Double>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(batcher.submit(i));
+            }
+            assertThat(futures).anyMatch(f -> f.getNow(0.0) == -1.0);
+        }
+    }
+
+    @Test
+    void batchingBeatsOneRequestPerTransaction() throws Exception {
+        FakeScorer unbatchedScorer = new FakeScorer();
+        Result unbatched = drive(amount -> unbatchedScorer.score(List.of(amount)).get(0));
+
+        FakeScorer batchedScorer = new FakeScorer();
+        Result batched;
+        try (MicroBatcher<Integer, Double> batcher = new MicroBatcher<>(
+                "test", batchedScorer::score, e -> -1.0, 32, LINGER, 4096, 2)) {
+            batched = drive(amount -> batcher.submit(amount).join());
+        }
+
+        assertThat(batched.throughput()).isGreaterThan(unbatched.throughput());
+        assertThat(batchedScorer.calls.get()).isLessThan(unbatchedScorer.calls.get());
+        // Lingering for a batch must not cost the tail what it gains in throughput
+        assertThat(batched.p99Millis()).isLessThan(LINGER.toMillis() + LATENCY_MARGIN_MILLIS);
+        assertThat(batched.p99Millis()).isLessThan(unbatched.p99Millis());
+    }
+
+    private Result drive(Function<Integer, Double> call) throws Exception {
+        long[] latencies = new long[CALLERS * CALLS_PER_CALLER];
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> done = new ArrayList<>();
+        for (int c = 0; c < CALLERS; c++) {
+            int caller = c;
+            done.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < CALLS_PER_CALLER; i++) {
+                    int amount = caller * CALLS_PER_CALLER + i;
+                    long t0 = System.nanoTime();
+                    double result = call.apply(amount);
+                    latencies[amount] = System.nanoTime() - t0;
+                    assertThat(result).isEqualTo(amount / 100_000.0);
+                }
+            }, callers));
+        }
+        CompletableFuture.allOf(done.toArray(new CompletableFuture[0])).get(2, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - start;
+        callers.shutdown();
+
+        Arrays.sort(latencies);
+        return new Result(
+                latencies.length / (elapsed / 1e9),
+                latencies[(int) (latencies.length * 0.99)] / 1e6);
+    }
+
+    private record Result(double throughput, double p99Millis) {
+    }
+}
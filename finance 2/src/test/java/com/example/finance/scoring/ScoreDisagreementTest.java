@@ -0,0 +1,34 @@
+package com.example.finance.scoring;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ScoreDisagreementTest {
+
+    @Test
+    void tracksDecisionMatrixFlipsAndProbabilityShift() {
+        ScoreDisagreement disagreement = new ScoreDisagreement();
+        disagreement.record(ScoreDisagreement.APPROVE, false, 0.10, ScoreDisagreement.APPROVE, false, 0.20);
+        disagreement.record(ScoreDisagreement.APPROVE, false, 0.30, ScoreDisagreement.REVIEW, true, 0.60);
+        disagreement.record(ScoreDisagreement.BLOCK, true, 0.95, ScoreDisagreement.REVIEW, true, 0.85);
+
+        assertThat(disagreement.compared()).isEqualTo(3);
+        assertThat(disagreement.decisions(ScoreDisagreement.APPROVE, ScoreDisagreement.APPROVE)).isEqualTo(1);
+        assertThat(disagreement.decisions(ScoreDisagreement.APPROVE, ScoreDisagreement.REVIEW)).isEqualTo(1);
+        assertThat(disagreement.decisions(ScoreDisagreement.BLOCK, ScoreDisagreement.REVIEW)).isEqualTo(1);
+        assertThat(disagreement.decisionDisagreements()).isEqualTo(2);
+        assertThat(disagreement.fraudFlips()).isEqualTo(1);
+        assertThat(disagreement.meanProbabilityDelta()).isCloseTo((0.10 + 0.30 - 0.10) / 3, within(1e-9));
+        assertThat(disagreement.meanAbsoluteProbabilityDelta()).isCloseTo((0.10 + 0.30 + 0.10) / 3, within(1e-9));
+    }
+
+    @Test
+    void emptyComparisonReportsZero() {
+        ScoreDisagreement disagreement = new ScoreDisagreement();
+        assertThat(disagreement.compared()).isZero();
+        assertThat(disagreement.meanProbabilityDelta()).isZero();
+        assertThat(disagreement.meanAbsoluteProbabilityDelta()).isZero();
+    }
+}
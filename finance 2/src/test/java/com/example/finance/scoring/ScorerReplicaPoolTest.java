@@ -0,0 +1,71 @@
+package com.example.finance.scoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScorerReplicaPoolTest {
+
+    @Test
+    void picksTheReplicaWithTheFewestOutstandingRequests() {
+        ScorerReplicaPool pool = new ScorerReplicaPool(List.of("http://a", "http://b/", "http://c"), 3);
+        ScorerReplicaPool.Replica first = pool.acquire();
+        ScorerReplicaPool.Replica second = pool.acquire();
+        ScorerReplicaPool.Replica third = pool.acquire();
+        assertThat(List.of(first.url(), second.url(), third.url()))
+                .containsExactlyInAnyOrder("http://a", "http://b", "http://c");
+
+        pool.release(second, false, 1_000);
+        assertThat(pool.acquire()).isSameAs(second);
+        assertThat(second.calls()).isEqualTo(1);
+    }
+
+    @Test
+    void ejectsAfterConsecutiveFailuresAndReadmitsOnAHealthyProbe() {
+        ScorerReplicaPool pool = new ScorerReplicaPool(List.of("http://a", "http://b"), 2);
+        ScorerReplicaPool.Replica a = pool.acquire();
+        ScorerReplicaPool.Replica b = pool.acquire();
+
+        pool.release(a, true, 1_000);
+        // b still has a request outstanding, so a is picked again
+        assertThat(pool.acquire()).isSameAs(a);
+        pool.release(a, true, 1_000);
+        assertThat(a.admitted()).isFalse();
+        assertThat(a.ejections()).isEqualTo(1);
+        for (int i = 0; i < 10; i++) {
+            assertThat(pool.acquire()).isSameAs(b);
+        }
+
+        pool.probed(a, true);
+        assertThat(a.admitted()).isTrue();
+        assertThat(pool.acquire()).isSameAs(a);
+        assertThat(a.errors()).isEqualTo(2);
+    }
+
+    @Test
+    void aProbedPoolAdmitsNothingBeforeTheFirstHealthyProbe() {
+        ScorerReplicaPool pool = new ScorerReplicaPool(List.of("http://a", "http://b"), 3, true);
+        ScorerReplicaPool.Replica a = pool.replicas().get(0);
+        ScorerReplicaPool.Replica b = pool.replicas().get(1);
+        assertThat(pool.admittedCount()).isZero();
+
+        pool.probed(b, true);
+        assertThat(pool.admittedCount()).isEqualTo(1);
+        assertThat(pool.acquireOther(b)).isNull();
+        assertThat(pool.acquire()).isSameAs(b);
+        // Starting out of rotation is not an ejection
+        assertThat(a.ejections()).isZero();
+    }
+
+    @Test
+    void fallsBackToEjectedReplicasWhenNoneIsAdmitted() {
+        ScorerReplicaPool pool = new ScorerReplicaPool(List.of("http://a"), 1);
+        ScorerReplicaPool.Replica a = pool.replicas().get(0);
+        pool.probed(a, false);
+
+        assertThat(pool.admittedCount()).isZero();
+        assertThat(pool.acquire()).isSameAs(a);
+    }
+}
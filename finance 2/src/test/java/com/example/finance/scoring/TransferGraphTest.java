@@ -0,0 +1,94 @@
+package com.example.finance.scoring;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransferGraphTest {
+
+    private static final long T0 = 1_700_000_000L;
+    private static final long HOUR = 3_600;
+
+    @Test
+    void onlyNewEdgesAreReportedAsNew() {
+        TransferGraph graph = new TransferGraph(100, 16, 24 * HOUR, 0.25);
+
+        assertThat(graph.addTransfer(1, 2, T0)).isTrue();
+        assertThat(graph.addTransfer(1, 2, T0 + 60)).isFalse();
+        assertThat(graph.addTransfer(2, 1, T0 + 60)).isTrue();
+        assertThat(graph.addTransfer(3, 3, T0)).isFalse();
+    }
+
+    @Test
+    void fanOutAndFanInCountLiveDistinctCounterparties() {
+        TransferGraph graph = new TransferGraph(100, 16, 24 * HOUR, 0.25);
+        for (long receiver = 2; receiver <= 6; receiver++) {
+            graph.addTransfer(1, receiver, T0);
+        }
+        graph.addTransfer(1, 2, T0);
+        graph.addTransfer(7, 2, T0);
+
+        assertThat(graph.fanOut(1, T0)).isEqualTo(5);
+        assertThat(graph.fanIn(2, T0)).isEqualTo(2);
+        assertThat(graph.fanIn(3, T0)).isEqualTo(1);
+        assertThat(graph.fanOut(99, T0)).isZero();
+        // One transfer's weight falls below 0.25 after two half-lives, two transfers' after three
+        assertThat(graph.fanOut(1, T0 + 47 * HOUR)).isEqualTo(5);
+        assertThat(graph.fanOut(1, T0 + 49 * HOUR)).isEqualTo(1);
+        assertThat(graph.fanOut(1, T0 + 73 * HOUR)).isZero();
+    }
+
+    @Test
+    void fullEdgeListReplacesItsWeakestEdge() {
+        TransferGraph graph = new TransferGraph(100, 2, 24 * HOUR, 0.25);
+        graph.addTransfer(1, 2, T0);
+        graph.addTransfer(1, 2, T0);
+        graph.addTransfer(1, 3, T0);
+        graph.addTransfer(1, 4, T0);
+
+        assertThat(graph.fanOut(1, T0)).isEqualTo(2);
+        assertThat(graph.shortestPath(1, 2, 1, 16, T0)).isEqualTo(1);
+        assertThat(graph.shortestPath(1, 3, 1, 16, T0)).isEqualTo(-1);
+        assertThat(graph.shortestPath(1, 4, 1, 16, T0)).isEqualTo(1);
+    }
+
+    @Test
+    void findsShortestLivePathWithinTheHopLimit() {
+        TransferGraph graph = new TransferGraph(100, 16, 24 * HOUR, 0.25);
+        graph.addTransfer(1, 2, T0);
+        graph.addTransfer(2, 3, T0);
+        graph.addTransfer(3, 4, T0);
+        graph.addTransfer(1, 4, T0);
+
+        assertThat(graph.shortestPath(1, 4, 3, 16, T0)).isEqualTo(1);
+        assertThat(graph.shortestPath(2, 4, 3, 16, T0)).isEqualTo(2);
+        assertThat(graph.shortestPath(2, 4, 1, 16, T0)).isEqualTo(-1);
+        assertThat(graph.shortestPath(4, 1, 3, 16, T0)).isEqualTo(-1);
+        assertThat(graph.shortestPath(2, 4, 3, 16, T0 + 49 * HOUR)).isEqualTo(-1);
+    }
+
+    @Test
+    void searchStopsAtTheVisitLimit() {
+        TransferGraph graph = new TransferGraph(1_000, 64, 24 * HOUR, 0.25);
+        for (long middle = 10; middle < 40; middle++) {
+            graph.addTransfer(1, middle, T0);
+        }
+        graph.addTransfer(39, 2, T0);
+
+        assertThat(graph.shortestPath(1, 2, 2, 64, T0)).isEqualTo(2);
+        assertThat(graph.shortestPath(1, 2, 2, 8, T0)).isEqualTo(-1);
+    }
+
+    @Test
+    void fullGraphEvictsIdleAccountsOnlyAfterTheyExpire() {
+        TransferGraph graph = new TransferGraph(2, 16, HOUR, 0.25);
+        graph.addTransfer(1, 2, T0);
+
+        assertThat(graph.addTransfer(3, 4, T0 + 60)).isFalse();
+        assertThat(graph.untrackedTransfers()).isEqualTo(1);
+
+        assertThat(graph.addTransfer(3, 4, T0 + 3 * HOUR)).isTrue();
+        assertThat(graph.nodeCount()).isEqualTo(2);
+        assertThat(graph.fanOut(1, T0 + 3 * HOUR)).isZero();
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.finance.scoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VelocityStoreTest {
+
+    private static final long T0 = 1_700_000_000_000L;
+    private static final long SECOND = 1_000;
+
+    private final long[] counts = new long[VelocityStore.WINDOW_COUNT];
+    private final double[] sums = new double[VelocityStore.WINDOW_COUNT];
+
+    @Test
+    void transfersAgeOutOfEachWindowInTurn() {
+        VelocityStore store = new VelocityStore(100);
+        store.record(1, 2, 40.0, T0);
+        store.record(1, 2, 2.5, T0 + 5 * SECOND);
+
+        assertOutgoing(store, 1, T0 + 5 * SECOND, 2, 2, 2);
+        assertThat(sums).containsExactly(42.5, 42.5, 42.5);
+        // Past the minute window, still inside the hour
+        assertOutgoing(store, 1, T0 + 80 * SECOND, 0, 2, 2);
+        // Past the hour window, still inside the day
+        assertOutgoing(store, 1, T0 + 65 * 60 * SECOND, 0, 0, 2);
+        assertOutgoing(store, 1, T0 + 25 * 3600 * SECOND, 0, 0, 0);
+    }
+
+    @Test
+    void rotatedBucketIsResetRatherThanAddedTo() {
+        VelocityStore store = new VelocityStore(100);
+        store.record(1, 2, 10.0, T0);
+        // Lands in the same 1m ring slot one full rotation later
+        store.record(1, 2, 1.0, T0 + 60 * SECOND);
+
+        assertOutgoing(store, 1, T0 + 60 * SECOND, 1, 2, 2);
+        assertThat(sums[VelocityStore.WINDOW_1M]).isEqualTo(1.0);
+    }
+
+    @Test
+    void accountsAndDirectionsAreKeptApart() {
+        VelocityStore store = new VelocityStore(100);
+        store.record(1, 2, 10.0, T0);
+        store.record(3, 2, 5.0, T0);
+
+        assertOutgoing(store, 1, T0, 1, 1, 1);
+        assertOutgoing(store, 3, T0, 1, 1, 1);
+        assertOutgoing(store, 2, T0, 0, 0, 0);
+        store.read(2, true, T0, counts, sums);
+        assertThat(counts).containsExactly(2, 2, 2);
+        assertThat(sums).containsExactly(15.0, 15.0, 15.0);
+        store.read(1, true, T0, counts, sums);
+        assertThat(counts).containsExactly(0, 0, 0);
+        assertOutgoing(store, 99, T0, 0, 0, 0);
+    }
+
+    @Test
+    void fullStoreCountsTransfersItCannotTrack() {
+        VelocityStore store = new VelocityStore(2);
+        store.record(1, 2, 10.0, T0);
+        store.record(3, 4, 10.0, T0);
+
+        assertThat(store.trackedAccounts()).isEqualTo(2);
+        assertThat(store.untrackedUpdates()).isEqualTo(2);
+        assertOutgoing(store, 3, T0, 0, 0, 0);
+    }
+
+    @Test
+    void concurrentRecordsAreNotLost() throws InterruptedException {
+        VelocityStore store = new VelocityStore(1_000);
+        int threads = 8;
+        int transfersPerThread = 2_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long sender = t + 1;
+            workers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < transfersPerThread; i++) {
+                    store.record(sender, 100, 1.0, T0 + i % 50);
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        }
+
+        store.read(100, true, T0, counts, sums);
+        assertThat(counts[VelocityStore.WINDOW_24H]).isEqualTo((long) threads * transfersPerThread);
+        assertThat(sums[VelocityStore.WINDOW_24H]).isEqualTo((double) threads * transfersPerThread);
+        for (long sender = 1; sender <= threads; sender++) {
+            assertOutgoing(store, sender, T0, transfersPerThread, transfersPerThread, transfersPerThread);
+        }
+        assertThat(store.trackedAccounts()).isEqualTo(threads + 1);
+    }
+
+    private void assertOutgoing(VelocityStore store, long accountId, long nowMillis, long... expected) {
+        store.read(accountId, false, nowMillis, counts, sums);
+        assertThat(counts).as("account %d outgoing", accountId).containsExactly(expected);
+    }
+}